@@ -0,0 +1,85 @@
+package exercises.observable.benchmark;
+
+import exercises.observable.implementation.ArrayListStorage;
+import exercises.observable.implementation.ChunkedListStorage;
+import exercises.observable.implementation.CopyOnWriteListStorage;
+import exercises.observable.implementation.GapBufferListStorage;
+import exercises.observable.implementation.StorageObservableList;
+import exercises.observable.model.ListStorage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the usual access patterns of an observable list with each storage, including the
+ * snapshot every notification carries: appends trimmed at the head (event log), inserts and
+ * removes in the middle (editing), random reads, and full iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListStorageBenchmark {
+
+    @Param({"array", "chunked", "gapBuffer", "copyOnWrite"})
+    private String storage;
+
+    @Param({"1000", "100000"})
+    private int listSize;
+
+    private StorageObservableList<Integer> list;
+
+    @Setup
+    public void setUp() {
+        list = new StorageObservableList<>("Benchmark", newStorage());
+        for (int i = 0; i < listSize; i++) {
+            list.add(i);
+        }
+        list.register(notification -> { });
+    }
+
+    @Benchmark
+    public Integer appendAndTrimHead() {
+        list.add(listSize);
+        return list.remove(0);
+    }
+
+    @Benchmark
+    public Integer insertAndRemoveInTheMiddle() {
+        int index = ThreadLocalRandom.current().nextInt(listSize);
+        list.add(index, index);
+        return list.remove(index);
+    }
+
+    @Benchmark
+    public Integer randomGet() {
+        return list.get(ThreadLocalRandom.current().nextInt(listSize));
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Integer element : list) {
+            sum += element;
+        }
+        return sum;
+    }
+
+    private ListStorage<Integer> newStorage() {
+        switch (storage) {
+            case "array":
+                return new ArrayListStorage<>();
+            case "chunked":
+                return new ChunkedListStorage<>();
+            case "gapBuffer":
+                return new GapBufferListStorage<>();
+            case "copyOnWrite":
+                return new CopyOnWriteListStorage<>();
+            default:
+                throw new IllegalArgumentException("Unknown storage: " + storage);
+        }
+    }
+}
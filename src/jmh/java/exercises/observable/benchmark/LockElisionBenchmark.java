@@ -0,0 +1,50 @@
+package exercises.observable.benchmark;
+
+import exercises.observable.implementation.ObservableList;
+import exercises.observable.model.LockingMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of locking for a list only ever touched by the benchmark thread, in each locking mode:
+ * reads and changes that go through the read-write lock when shared, and skip it when owned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LockElisionBenchmark {
+
+    @Param({"SHARED", "OWNER_THREAD", "ADAPTIVE"})
+    private LockingMode lockingMode;
+
+    private ObservableList<Integer> list;
+
+    @Setup
+    public void setUp() {
+        list = new ObservableList<>("Benchmark", lockingMode);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        list.register(notification -> { });
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(500);
+    }
+
+    @Benchmark
+    public int size() {
+        return list.size();
+    }
+
+    @Benchmark
+    public Integer addAndRemoveLast() {
+        list.add(1000);
+        return list.remove(1000);
+    }
+}
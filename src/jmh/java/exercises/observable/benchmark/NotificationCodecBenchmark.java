@@ -0,0 +1,84 @@
+package exercises.observable.benchmark;
+
+import exercises.observable.implementation.ElementCodecs;
+import exercises.observable.implementation.ListNotificationCodec;
+import exercises.observable.model.ListNotification;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the binary notification codec, for single-element appends to a list of the given
+ * size, with and without the resulting list in every record.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationCodecBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @Param({"10", "1000"})
+    private int listSize;
+
+    @Param({"false", "true"})
+    private boolean includeSnapshots;
+
+    private List<ListNotification<String>> notifications;
+    private ListNotificationCodec<String> codec;
+    private ByteBuffer encodeBuffer;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setUp() {
+        List<String> resultingList = new ArrayList<>();
+        for (int i = 0; i < listSize; i++) {
+            resultingList.add("Element number " + i);
+        }
+        notifications = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            notifications.add(ListNotification.newListAddNotification(
+                    listSize - 1, Collections.singletonList("Element number " + i), resultingList));
+        }
+        codec = new ListNotificationCodec<>(ElementCodecs.strings(), includeSnapshots);
+        encodeBuffer = ByteBuffer.allocateDirect(BATCH * (32 + (includeSnapshots ? 24 * listSize : 0)));
+
+        ListNotificationCodec<String>.Encoder encoder = codec.newEncoder();
+        for (int i = 0; i < BATCH; i++) {
+            encoder.encode(i, notifications.get(i), encodeBuffer);
+        }
+        encoded = encodeBuffer.duplicate();
+        encoded.flip();
+        encodeBuffer.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int encode() {
+        ListNotificationCodec<String>.Encoder encoder = codec.newEncoder();
+        encodeBuffer.clear();
+        for (int i = 0; i < BATCH; i++) {
+            encoder.encode(i, notifications.get(i), encodeBuffer);
+        }
+        return encodeBuffer.position();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long decode() {
+        ListNotificationCodec<String>.Decoder decoder = codec.newDecoder();
+        ByteBuffer buffer = encoded.duplicate();
+        long size = 0;
+        for (int i = 0; i < BATCH; i++) {
+            size += decoder.decode(buffer).getChangedElements().size();
+        }
+        return size;
+    }
+}
@@ -1,5 +1,6 @@
 package exercises.observable;
 
+import exercises.observable.implementation.ListTransactionCoordinator;
 import exercises.observable.implementation.ObservableList;
 import exercises.observable.implementation.TestListListener;
 import exercises.observable.model.ListListener;
@@ -88,6 +89,10 @@ public class App {
         // removing all the elements that match the given criterion
         thirdObservableList.removeIf(element -> element.startsWith("F"));
 
+        // moving an element from a list to another, in one transaction
+        ListTransactionCoordinator coordinator = new ListTransactionCoordinator("Coordinator");
+        coordinator.move(secondObservableList, fifthString, thirdObservableList);
+
         // clearing all lists
         firstObservableList.clear();
         secondObservableList.clear();
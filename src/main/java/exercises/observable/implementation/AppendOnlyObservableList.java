@@ -0,0 +1,262 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.Observable;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Append-only observable list whose appends are lock-free, meant for log-like usage with many
+ * concurrent producers.
+ *
+ * Producers claim slots with a single atomic increment and write their elements into chunked
+ * storage which never moves, so they never wait for each other. Written slots become visible to
+ * readers only once every slot before them has been written too: the published length (watermark)
+ * is advanced by whichever producer manages to become the drainer, which also sends the
+ * notifications for the newly published elements, in sequence order. A producer which finds the
+ * drainer busy simply returns, leaving its elements to be picked up by the running drain.
+ *
+ * Since published elements are never modified, the resulting list of each notification is a
+ * constant-time view of the first elements of this list, rather than a copy.
+ */
+public class AppendOnlyObservableList<T> extends AbstractList<T>
+        implements Observable<ListNotification<T>, ListListener<T>>, RandomAccess {
+
+    private static final int FIRST_CHUNK_SHIFT = 5;
+    private static final int FIRST_CHUNK_SIZE = 1 << FIRST_CHUNK_SHIFT;
+    private static final int MAX_CHUNKS = 32 - FIRST_CHUNK_SHIFT;
+    private static final int MAX_SIZE = Integer.MAX_VALUE - FIRST_CHUNK_SIZE;
+
+    /** Stored in place of null elements, so that an empty slot always means "not yet written". */
+    private static final Object NULL = new Object();
+
+    private final String name;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<Object>> chunks;
+    private final AtomicInteger claimed;
+    private final AtomicBoolean draining;
+    private volatile int published;
+
+    private final NotificationEngine<ListNotification<T>, ListListener<T>> engine;
+
+    public AppendOnlyObservableList(String name) {
+        this.name = name;
+        this.chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+        this.claimed = new AtomicInteger();
+        this.draining = new AtomicBoolean();
+        this.engine = new NotificationEngine<>(name, ListListener::onListChange);
+    }
+
+    /**
+     * Name given to this list.
+     * @return name of the list
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Appends the element without taking any lock. The element becomes visible once all the
+     * elements claimed before it have been written.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T element) {
+        int index = claim(1);
+        write(index, element);
+        drain();
+        return true;
+    }
+
+    /**
+     * Appends the elements as one contiguous run, without taking any lock.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> collection) {
+        Object[] elements = collection.toArray();
+        if (elements.length == 0) {
+            return false;
+        }
+        int index = claim(elements.length);
+        for (Object element : elements) {
+            write(index++, element);
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= published) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + published);
+        }
+        return elementAt(index);
+    }
+
+    /**
+     * Number of published elements (the watermark). Elements which were claimed but are still
+     * waiting for earlier slots to be written are not counted.
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return published;
+    }
+
+    /**
+     * Constant-time, immutable view of the elements published so far.
+     * @return snapshot of the list
+     */
+    public List<T> snapshot() {
+        return new Snapshot(published);
+    }
+
+    /**
+     * Iterates over the elements published when the iterator was created.
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    private int claim(int count) {
+        while (true) {
+            int current = claimed.get();
+            if (current > MAX_SIZE - count) {
+                throw new IllegalStateException("Maximum size exceeded in " + name);
+            }
+            if (claimed.compareAndSet(current, current + count)) {
+                return current;
+            }
+        }
+    }
+
+    private void write(int index, Object element) {
+        int position = index + FIRST_CHUNK_SIZE;
+        int chunkIndex = 31 - Integer.numberOfLeadingZeros(position) - FIRST_CHUNK_SHIFT;
+        AtomicReferenceArray<Object> chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(FIRST_CHUNK_SIZE << chunkIndex));
+            chunk = chunks.get(chunkIndex);
+        }
+        chunk.lazySet(position - Integer.highestOneBit(position), element == null ? NULL : element);
+    }
+
+    private Object slot(int index) {
+        int position = index + FIRST_CHUNK_SIZE;
+        int chunkIndex = 31 - Integer.numberOfLeadingZeros(position) - FIRST_CHUNK_SHIFT;
+        AtomicReferenceArray<Object> chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            return null;
+        }
+        return chunk.get(position - Integer.highestOneBit(position));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        Object element = slot(index);
+        return element == NULL ? null : (T) element;
+    }
+
+    /**
+     * Advances the watermark over the contiguous run of written slots and notifies the listeners,
+     * unless another thread is already doing it. After releasing the drainer role the watermark is
+     * checked again, so that elements written while the role was being released are not missed.
+     */
+    private void drain() {
+        while (draining.compareAndSet(false, true)) {
+            int from = published;
+            int to = from;
+            try {
+                while (slot(to) != null) {
+                    to++;
+                }
+                published = to;
+                if (to > from) {
+                    notifyAllListeners(ListNotification.newListAddNotification(
+                            from, new Snapshot(from, to), new Snapshot(to)));
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (slot(published) == null) {
+                return;
+            }
+        }
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(ListListener<T> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(ListListener<T> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(ListNotification<T> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+
+    /**
+     * Immutable view of a range of published elements, sharing the storage of the list.
+     */
+    private class Snapshot extends AbstractList<T> implements RandomAccess {
+
+        private final int from;
+        private final int to;
+
+        private Snapshot(int to) {
+            this(0, to);
+        }
+
+        private Snapshot(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+            }
+            return elementAt(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListStorage;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Storage in a single array with spare capacity at the end, laid out like an ArrayList.
+ *
+ * Reads and appends are the cheapest of all storages, but inserting or removing shifts the
+ * following elements, and every snapshot copies the whole array.
+ */
+public class ArrayListStorage<T> implements ListStorage<T> {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private Object[] elements = new Object[DEFAULT_CAPACITY];
+    private int size;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) elements[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        T previous = (T) elements[index];
+        elements[index] = element;
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(int index, Object[] inserted) {
+        if (size + inserted.length > elements.length) {
+            if (size > MAX_CAPACITY - inserted.length) {
+                throw new OutOfMemoryError("Maximum size exceeded");
+            }
+            int capacity = (int) Math.min(MAX_CAPACITY, Math.max(size + inserted.length, elements.length * 3L / 2));
+            elements = Arrays.copyOf(elements, capacity);
+        }
+        System.arraycopy(elements, index, elements, index + inserted.length, size - index);
+        System.arraycopy(inserted, 0, elements, index, inserted.length);
+        size += inserted.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] remove(int fromIndex, int toIndex) {
+        Object[] removed = Arrays.copyOfRange(elements, fromIndex, toIndex);
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        int newSize = size - removed.length;
+        Arrays.fill(elements, newSize, size, null);
+        size = newSize;
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replace(Object[] replacement) {
+        elements = replacement.length > 0 ? replacement : new Object[DEFAULT_CAPACITY];
+        size = replacement.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Copies the elements, in O(n).
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> snapshot() {
+        return ListSnapshot.of(toArray());
+    }
+}
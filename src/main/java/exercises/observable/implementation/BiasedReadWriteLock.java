@@ -0,0 +1,210 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.LockingMode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-write lock biased towards an owner thread (see {@link LockingMode}).
+ *
+ * While the lock is biased, the owner only records how deeply it is inside the lock, with a
+ * volatile write, and checks that the bias still holds, with a volatile read: no compare-and-set
+ * and no thread-local hold count, unlike {@link ReentrantReadWriteLock}. Any other thread revokes
+ * the bias before its first acquisition: it announces the revocation, waits until the owner is no
+ * longer inside the lock, and inflates it. Since both sides write before they read the other's
+ * flag, either the owner sees the revocation and falls back to the real lock, or the revoker sees
+ * the owner inside and waits for it. Once inflated, the lock never goes back to being biased.
+ *
+ * Acquisitions nested in a biased one stay biased, even when a revocation is pending, so that the
+ * owner never waits for itself. Conditions are not supported.
+ */
+final class BiasedReadWriteLock implements ReadWriteLock {
+
+    private static final int BIASED = 0;
+    private static final int REVOKING = 1;
+    private static final int INFLATED = 2;
+
+    private static final AtomicIntegerFieldUpdater<BiasedReadWriteLock> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(BiasedReadWriteLock.class, "state");
+    private static final AtomicReferenceFieldUpdater<BiasedReadWriteLock, Thread> OWNER =
+            AtomicReferenceFieldUpdater.newUpdater(BiasedReadWriteLock.class, Thread.class, "owner");
+
+    private final ReentrantReadWriteLock inflated = new ReentrantReadWriteLock();
+    private final Lock readLock = new View(inflated.readLock());
+    private final Lock writeLock = new View(inflated.writeLock());
+
+    private volatile int state;
+    private volatile Thread owner;
+    private volatile int ownerDepth;
+
+    /**
+     * Creates a lock biased towards the given thread, or towards the first thread acquiring it if
+     * null.
+     * @param owner owner thread, or null
+     */
+    BiasedReadWriteLock(Thread owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Creates a lock for the given locking mode.
+     * @param mode locking mode
+     * @return lock for that mode
+     */
+    static ReadWriteLock forMode(LockingMode mode) {
+        switch (mode) {
+            case OWNER_THREAD:
+                return new BiasedReadWriteLock(Thread.currentThread());
+            case ADAPTIVE:
+                return new BiasedReadWriteLock(null);
+            default:
+                return new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * Whether the bias was revoked, every thread now going through the read-write lock.
+     * @return true if inflated
+     */
+    boolean isInflated() {
+        return state == INFLATED;
+    }
+
+    private boolean enterBiased() {
+        Thread current = Thread.currentThread();
+        Thread currentOwner = owner;
+        if (currentOwner == null && state == BIASED) {
+            OWNER.compareAndSet(this, null, current);
+            currentOwner = owner;
+        }
+        if (currentOwner != current) {
+            revoke();
+            return false;
+        }
+        int depth = ownerDepth;
+        if (depth > 0) {
+            ownerDepth = depth + 1;
+            return true;
+        }
+        ownerDepth = 1;
+        if (state == BIASED) {
+            return true;
+        }
+        ownerDepth = 0;
+        return false;
+    }
+
+    private boolean exitBiased() {
+        if (owner != Thread.currentThread()) {
+            return false;
+        }
+        int depth = ownerDepth;
+        if (depth == 0) {
+            return false;
+        }
+        ownerDepth = depth - 1;
+        return true;
+    }
+
+    private void revoke() {
+        if (STATE.compareAndSet(this, BIASED, REVOKING)) {
+            while (ownerDepth > 0) {
+                LockSupport.parkNanos(1000L);
+            }
+            state = INFLATED;
+            return;
+        }
+        while (state != INFLATED) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * One side of the lock, eliding the matching side of the read-write lock while biased.
+     */
+    private final class View implements Lock {
+
+        private final Lock delegate;
+
+        private View(Lock delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void lock() {
+            if (state == INFLATED || !enterBiased()) {
+                delegate.lock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (state == INFLATED || !enterBiased()) {
+                delegate.lockInterruptibly();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryLock() {
+            return (state != INFLATED && enterBiased()) || delegate.tryLock();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return (state != INFLATED && enterBiased()) || delegate.tryLock(time, unit);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void unlock() {
+            if (!exitBiased()) {
+                delegate.unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported");
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListStorage;
+
+import java.util.*;
+
+/**
+ * Storage in a sequence of fixed-capacity chunks, each holding a contiguous run of elements.
+ *
+ * Inserting or removing only shifts elements within the chunk concerned (splitting it when it is
+ * full, merging it with a neighbour when it gets small), plus an update of the chunk offsets, so
+ * changes in the middle of large lists cost O(chunk capacity + number of chunks) instead of O(n).
+ * Accessing an element by index is a binary search over the chunk offsets.
+ *
+ * Snapshots share the chunks instead of copying the elements, in O(number of chunks): a chunk
+ * which is part of a snapshot is copied the first time one of its shared elements is changed,
+ * while appending after them stays in place.
+ */
+public class ChunkedListStorage<T> implements ListStorage<T> {
+
+    static final int DEFAULT_CHUNK_CAPACITY = 1024;
+
+    private final int chunkCapacity;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private int[] offsets = new int[0];
+    private int size;
+
+    public ChunkedListStorage() {
+        this(DEFAULT_CHUNK_CAPACITY);
+    }
+
+    /**
+     * Creates a storage whose chunks hold at most the given number of elements.
+     * @param chunkCapacity capacity of the chunks
+     */
+    public ChunkedListStorage(int chunkCapacity) {
+        if (chunkCapacity < 4) {
+            throw new IllegalArgumentException("Chunk capacity must be at least 4: " + chunkCapacity);
+        }
+        this.chunkCapacity = chunkCapacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        int chunk = chunkOf(offsets, chunks.size(), index);
+        return (T) chunks.get(chunk).items[index - offsets[chunk]];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        int chunkIndex = chunkOf(offsets, chunks.size(), index);
+        Chunk chunk = chunks.get(chunkIndex);
+        int position = index - offsets[chunkIndex];
+        chunk.unshare(position);
+        T previous = (T) chunk.items[position];
+        chunk.items[position] = element;
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(int index, Object[] inserted) {
+        if (inserted.length == 0) {
+            return;
+        }
+        int chunkIndex;
+        int position;
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk(new Object[chunkCapacity], 0));
+            chunkIndex = 0;
+            position = 0;
+        } else if (index == size) {
+            chunkIndex = chunks.size() - 1;
+            position = chunks.get(chunkIndex).size;
+        } else {
+            chunkIndex = chunkOf(offsets, chunks.size(), index);
+            position = index - offsets[chunkIndex];
+        }
+        Chunk chunk = chunks.get(chunkIndex);
+        if (chunk.size + inserted.length > chunkCapacity && inserted.length <= chunkCapacity / 2) {
+            // a few elements going into a full chunk: the chunk is split in halves first
+            int half = chunk.size / 2;
+            Object[] items = new Object[chunkCapacity];
+            System.arraycopy(chunk.items, half, items, 0, chunk.size - half);
+            Chunk tail = new Chunk(items, chunk.size - half);
+            chunk.unshare(half);
+            Arrays.fill(chunk.items, half, chunk.size, null);
+            chunk.size = half;
+            chunks.add(chunkIndex + 1, tail);
+            if (position > half) {
+                chunk = tail;
+                chunkIndex++;
+                position -= half;
+            }
+        }
+        if (chunk.size + inserted.length <= chunkCapacity) {
+            chunk.unshare(position);
+            System.arraycopy(chunk.items, position, chunk.items, position + inserted.length, chunk.size - position);
+            System.arraycopy(inserted, 0, chunk.items, position, inserted.length);
+            chunk.size += inserted.length;
+        } else {
+            // the chunk is split at the position, and the inserted elements go in chunks of their own
+            List<Chunk> replacement = new ArrayList<>();
+            if (position > 0) {
+                replacement.add(position == chunk.size
+                        ? chunk : new Chunk(Arrays.copyOf(chunk.items, chunkCapacity), position));
+            }
+            for (int from = 0; from < inserted.length; from += chunkCapacity) {
+                int count = Math.min(chunkCapacity, inserted.length - from);
+                Object[] items = new Object[chunkCapacity];
+                System.arraycopy(inserted, from, items, 0, count);
+                replacement.add(new Chunk(items, count));
+            }
+            if (position == 0 && chunk.size > 0) {
+                replacement.add(chunk);
+            } else if (position > 0 && position < chunk.size) {
+                Object[] items = new Object[chunkCapacity];
+                System.arraycopy(chunk.items, position, items, 0, chunk.size - position);
+                replacement.add(new Chunk(items, chunk.size - position));
+            }
+            chunks.remove(chunkIndex);
+            chunks.addAll(chunkIndex, replacement);
+        }
+        size += inserted.length;
+        reindex();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] remove(int fromIndex, int toIndex) {
+        Object[] removed = new Object[toIndex - fromIndex];
+        int first = chunkOf(offsets, chunks.size(), fromIndex);
+        int chunkIndex = first;
+        int copied = 0;
+        while (copied < removed.length) {
+            Chunk chunk = chunks.get(chunkIndex);
+            int from = fromIndex + copied - offsets[chunkIndex];
+            int count = Math.min(chunk.size - from, removed.length - copied);
+            System.arraycopy(chunk.items, from, removed, copied, count);
+            copied += count;
+            if (count == chunk.size) {
+                chunks.remove(chunkIndex);
+                System.arraycopy(offsets, chunkIndex + 1, offsets, chunkIndex, chunks.size() - chunkIndex);
+            } else {
+                chunk.unshare(from);
+                System.arraycopy(chunk.items, from + count, chunk.items, from, chunk.size - from - count);
+                Arrays.fill(chunk.items, chunk.size - count, chunk.size, null);
+                chunk.size -= count;
+                chunkIndex++;
+            }
+        }
+        size -= removed.length;
+        // only the chunks at both ends of the range may have been left small
+        mergeSmall(Math.min(first + 1, chunks.size() - 1));
+        mergeSmall(first);
+        reindex();
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replace(Object[] replacement) {
+        chunks.clear();
+        for (int from = 0; from < replacement.length; from += chunkCapacity) {
+            int count = Math.min(chunkCapacity, replacement.length - from);
+            Object[] items = new Object[chunkCapacity];
+            System.arraycopy(replacement, from, items, 0, count);
+            chunks.add(new Chunk(items, count));
+        }
+        size = replacement.length;
+        reindex();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] elements = new Object[size];
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.items, 0, elements, offset, chunk.size);
+            offset += chunk.size;
+        }
+        return elements;
+    }
+
+    /**
+     * Shares the chunks, in O(number of chunks).
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> snapshot() {
+        Object[][] items = new Object[chunks.size()][];
+        for (int i = 0; i < items.length; i++) {
+            Chunk chunk = chunks.get(i);
+            chunk.shared = Math.max(chunk.shared, chunk.size);
+            items[i] = chunk.items;
+        }
+        return new Snapshot<>(items, Arrays.copyOf(offsets, items.length), size);
+    }
+
+    /**
+     * Number of chunks currently used.
+     */
+    int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Merges the chunk with a neighbour if it is less than a quarter full and both fit in one.
+     */
+    private void mergeSmall(int chunkIndex) {
+        if (chunkIndex < 0 || chunkIndex >= chunks.size()) {
+            return;
+        }
+        Chunk chunk = chunks.get(chunkIndex);
+        if (chunk.size >= chunkCapacity / 4) {
+            return;
+        }
+        int left = chunkIndex + 1 < chunks.size() ? chunkIndex : chunkIndex - 1;
+        if (left < 0 || chunks.get(left).size + chunks.get(left + 1).size > chunkCapacity) {
+            return;
+        }
+        Chunk head = chunks.get(left);
+        Chunk tail = chunks.get(left + 1);
+        head.unshare(head.size);
+        System.arraycopy(tail.items, 0, head.items, head.size, tail.size);
+        head.size += tail.size;
+        chunks.remove(left + 1);
+    }
+
+    private void reindex() {
+        if (offsets.length < chunks.size() || offsets.length > 2 * chunks.size() + 16) {
+            offsets = new int[chunks.size() + chunks.size() / 2 + 1];
+        }
+        int offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            offsets[i] = offset;
+            offset += chunks.get(i).size;
+        }
+    }
+
+    /**
+     * Index of the chunk containing the element, by binary search over the chunk offsets.
+     */
+    private static int chunkOf(int[] offsets, int chunkCount, int index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Run of elements at the start of an array of the chunk capacity. The first {@code shared}
+     * elements of the array are also seen by snapshots, so the array is copied before they change.
+     */
+    private static final class Chunk {
+
+        private Object[] items;
+        private int size;
+        private int shared;
+
+        private Chunk(Object[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        private void unshare(int position) {
+            if (position < shared) {
+                items = items.clone();
+                shared = 0;
+            }
+        }
+    }
+
+    /**
+     * Immutable view of the chunks as they were, which the storage copies before changing them.
+     */
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[][] items;
+        private final int[] offsets;
+        private final int size;
+
+        private Snapshot(Object[][] items, int[] offsets, int size) {
+            this.items = items;
+            this.offsets = offsets;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int chunk = chunkOf(offsets, offsets.length, index);
+            return (T) items[chunk][index - offsets[chunk]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+
+                private int chunk;
+                private int position;
+                private int remaining = size;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int chunkEnd = chunk + 1 < offsets.length ? offsets[chunk + 1] - offsets[chunk] : Integer.MAX_VALUE;
+                    if (position == chunkEnd) {
+                        chunk++;
+                        position = 0;
+                    }
+                    remaining--;
+                    return (T) items[chunk][position++];
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListStorage;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Storage in an immutable array which is replaced by a modified copy on every change, like a
+ * CopyOnWriteArrayList.
+ *
+ * Every change costs O(n), but snapshots are free: they share the current array. This suits lists
+ * which are read and notified much more often than they are changed, or changed in large batches.
+ */
+public class CopyOnWriteListStorage<T> implements ListStorage<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] elements = EMPTY;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) elements[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        T previous = (T) elements[index];
+        Object[] updated = elements.clone();
+        updated[index] = element;
+        elements = updated;
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(int index, Object[] inserted) {
+        Object[] updated = new Object[elements.length + inserted.length];
+        System.arraycopy(elements, 0, updated, 0, index);
+        System.arraycopy(inserted, 0, updated, index, inserted.length);
+        System.arraycopy(elements, index, updated, index + inserted.length, elements.length - index);
+        elements = updated;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] remove(int fromIndex, int toIndex) {
+        Object[] removed = Arrays.copyOfRange(elements, fromIndex, toIndex);
+        Object[] updated = new Object[elements.length - removed.length];
+        System.arraycopy(elements, 0, updated, 0, fromIndex);
+        System.arraycopy(elements, toIndex, updated, fromIndex, elements.length - toIndex);
+        elements = updated;
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replace(Object[] replacement) {
+        elements = replacement;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        return elements.clone();
+    }
+
+    /**
+     * Shares the current array, in O(1).
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> snapshot() {
+        return ListSnapshot.of(elements);
+    }
+}
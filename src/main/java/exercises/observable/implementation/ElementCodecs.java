@@ -0,0 +1,171 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ElementCodec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Element codecs for common element types. All of them accept null elements.
+ */
+public final class ElementCodecs {
+
+    private static final ElementCodec<String> STRINGS = new StringCodec();
+    private static final ElementCodec<Integer> INTEGERS = new IntegerCodec();
+    private static final ElementCodec<Long> LONGS = new LongCodec();
+
+    private ElementCodecs() {
+    }
+
+    /**
+     * Codec writing strings as UTF-8, prefixed by their encoded length. Strings are encoded
+     * straight into the buffer, without an intermediate byte array.
+     * @return string codec
+     */
+    public static ElementCodec<String> strings() {
+        return STRINGS;
+    }
+
+    /**
+     * Codec writing integers as zig-zag variable-length numbers, so that small values of either
+     * sign take a single byte.
+     * @return integer codec
+     */
+    public static ElementCodec<Integer> integers() {
+        return INTEGERS;
+    }
+
+    /**
+     * Codec writing longs as zig-zag variable-length numbers, after a presence byte.
+     * @return long codec
+     */
+    public static ElementCodec<Long> longs() {
+        return LONGS;
+    }
+
+    private static final class StringCodec implements ElementCodec<String> {
+
+        @Override
+        public void encode(String element, ByteBuffer buffer) {
+            if (element == null) {
+                VarInts.writeUnsigned(0, buffer);
+                return;
+            }
+            VarInts.writeUnsigned(utf8Length(element) + 1L, buffer);
+            int length = element.length();
+            for (int i = 0; i < length; i++) {
+                char c = element.charAt(i);
+                if (c < 0x80) {
+                    buffer.put((byte) c);
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | (c >> 6)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(element.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, element.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else if (Character.isSurrogate(c)) {
+                    // unpaired surrogate, replaced like String.getBytes does
+                    buffer.put((byte) '?');
+                } else {
+                    buffer.put((byte) (0xE0 | (c >> 12)));
+                    buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            long prefix = VarInts.readUnsigned(buffer);
+            if (prefix == 0) {
+                return null;
+            }
+            if (prefix - 1 > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            int length = (int) (prefix - 1);
+            String element;
+            if (buffer.hasArray()) {
+                element = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                        StandardCharsets.UTF_8);
+            } else {
+                ByteBuffer slice = buffer.slice();
+                slice.limit(length);
+                element = StandardCharsets.UTF_8.decode(slice).toString();
+            }
+            buffer.position(buffer.position() + length);
+            return element;
+        }
+
+        private static int utf8Length(String element) {
+            int length = element.length();
+            int bytes = 0;
+            for (int i = 0; i < length; i++) {
+                char c = element.charAt(i);
+                if (c < 0x80) {
+                    bytes += 1;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(element.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    bytes += 1;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+    }
+
+    private static final class IntegerCodec implements ElementCodec<Integer> {
+
+        @Override
+        public void encode(Integer element, ByteBuffer buffer) {
+            if (element == null) {
+                VarInts.writeUnsigned(0, buffer);
+            } else {
+                int value = element;
+                VarInts.writeUnsigned((((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL) + 1, buffer);
+            }
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            long prefix = VarInts.readUnsigned(buffer);
+            if (prefix == 0) {
+                return null;
+            }
+            int zigZag = (int) (prefix - 1);
+            return (zigZag >>> 1) ^ -(zigZag & 1);
+        }
+    }
+
+    private static final class LongCodec implements ElementCodec<Long> {
+
+        @Override
+        public void encode(Long element, ByteBuffer buffer) {
+            if (element == null) {
+                buffer.put((byte) 0);
+            } else {
+                buffer.put((byte) 1);
+                VarInts.writeSigned(element, buffer);
+            }
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            if (buffer.get() == 0) {
+                return null;
+            }
+            return VarInts.readSigned(buffer);
+        }
+    }
+}
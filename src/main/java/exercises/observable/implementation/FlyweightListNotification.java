@@ -0,0 +1,175 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Mutable notification reused by {@link PooledObservableList} for change after change, and by the
+ * slots of {@link RingBufferDispatcher} for notification after notification.
+ *
+ * Its content is only valid during the callback which receives it: once the callback returns, the
+ * same instance describes another change. Listeners retaining it must retain {@link #copy()}
+ * instead. The changed elements are held in a buffer owned by the notification, which only grows,
+ * and the resulting list is an immutable snapshot, which the notification only refers to.
+ */
+final class FlyweightListNotification<T> extends ListNotification<T> {
+
+    private final ElementBuffer<T> changedElements = new ElementBuffer<>();
+    private ListNotificationType type;
+    private int index;
+    private List<T> resultingList;
+
+    /**
+     * Reuses this notification for a change.
+     * @param type type of the change
+     * @param index index of the change
+     * @param elements array holding the changed elements
+     * @param from position of the first changed element in the array
+     * @param count number of changed elements
+     * @param resultingList snapshot of the list after the change
+     * @return this notification
+     */
+    FlyweightListNotification<T> reuse(
+            ListNotificationType type, int index, Object[] elements, int from, int count, List<T> resultingList) {
+        this.type = type;
+        this.index = index;
+        this.changedElements.fill(elements, from, count);
+        this.resultingList = resultingList;
+        return this;
+    }
+
+    /**
+     * Reuses this notification for a copy of another one, whose resulting list must be immutable.
+     * @param notification notification to copy
+     * @return this notification
+     */
+    FlyweightListNotification<T> reuse(ListNotification<T> notification) {
+        this.type = notification.getType();
+        this.index = notification.getIndex();
+        this.changedElements.fill(notification.getChangedElements());
+        this.resultingList = notification.getResultingList();
+        return this;
+    }
+
+    /**
+     * Releases the elements held by this notification once delivered, so that they can be
+     * collected.
+     */
+    void release() {
+        changedElements.release();
+        resultingList = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ListNotificationType getType() {
+        return type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getChangedElements() {
+        return changedElements;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getResultingList() {
+        return resultingList;
+    }
+
+    /**
+     * Immutable copy of the changed elements, sharing the snapshot of the list.
+     * {@inheritDoc}
+     */
+    @Override
+    public ListNotification<T> copy() {
+        List<T> changed = ListSnapshot.of(changedElements.toArray());
+        return ListNotificationType.ADD.equals(type)
+                ? ListNotification.newListAddNotification(index, changed, resultingList)
+                : ListNotification.newListRemoveNotification(index, changed, resultingList);
+    }
+
+    /**
+     * Reusable list of the changed elements.
+     */
+    private static final class ElementBuffer<T> extends AbstractList<T> implements RandomAccess {
+
+        private Object[] elements = new Object[1];
+        private int size;
+
+        private void fill(Object[] source, int from, int count) {
+            resize(count);
+            System.arraycopy(source, from, elements, 0, count);
+        }
+
+        private void fill(List<? extends T> source) {
+            resize(source.size());
+            if (source instanceof RandomAccess) {
+                for (int i = 0; i < size; i++) {
+                    elements[i] = source.get(i);
+                }
+            } else {
+                int i = 0;
+                for (T element : source) {
+                    elements[i++] = element;
+                }
+            }
+        }
+
+        /**
+         * Makes room for the given number of elements, clearing the ones left beyond it.
+         */
+        private void resize(int count) {
+            if (elements.length < count) {
+                elements = new Object[Math.max(count, elements.length * 2)];
+            } else if (count < size) {
+                Arrays.fill(elements, count, size, null);
+            }
+            size = count;
+        }
+
+        private void release() {
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (T) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+}
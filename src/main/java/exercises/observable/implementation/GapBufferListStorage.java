@@ -0,0 +1,348 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListStorage;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Storage in a gap buffer, for editor-like workloads which insert and remove elements around a
+ * moving position in large lists.
+ *
+ * The free capacity of the buffer is kept as a gap at the position of the last change. A change
+ * next to the previous one only moves the gap by the distance between them, so runs of localized
+ * inserts and removes cost O(1) amortized each, instead of shifting the whole tail of the list as
+ * an ArrayList does. Jumping to a distant position costs one move of the elements in between.
+ *
+ * The buffer is split into fixed-size pages, which snapshots share instead of copying the
+ * elements: taking a snapshot copies the table of pages, in O(n / page size), and a page which is
+ * part of a snapshot is copied the first time it is written to. Pages lying entirely in the gap are
+ * dropped, and growing the buffer moves pages rather than elements.
+ */
+public class GapBufferListStorage<T> implements ListStorage<T> {
+
+    static final int DEFAULT_PAGE_SIZE = 1024;
+
+    private final int pageBits;
+    private final int pageSize;
+    private final int pageMask;
+    private final int maxPages;
+
+    private Object[][] pages = new Object[1][];
+    private int[] epochs = new int[1];
+    private int epoch;
+    private int gapStart;
+    private int gapEnd;
+    private Snapshot<T> latest;
+
+    public GapBufferListStorage() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Creates a storage whose pages hold the given number of elements.
+     * @param pageSize size of the pages, a power of two
+     */
+    public GapBufferListStorage(int pageSize) {
+        if (pageSize < 4 || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("Page size must be a power of two from 4: " + pageSize);
+        }
+        this.pageBits = Integer.numberOfTrailingZeros(pageSize);
+        this.pageSize = pageSize;
+        this.pageMask = pageSize - 1;
+        this.maxPages = (Integer.MAX_VALUE - 8) >> pageBits;
+        this.gapEnd = pageSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return (pages.length << pageBits) - (gapEnd - gapStart);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        int position = position(index);
+        return element(pages[position >>> pageBits], position & pageMask);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T set(int index, T element) {
+        int position = position(index);
+        Object[] page = writablePage(position >>> pageBits);
+        T previous = element(page, position & pageMask);
+        page[position & pageMask] = element;
+        latest = null;
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(int index, Object[] inserted) {
+        moveGap(index);
+        ensureGap(inserted.length);
+        write(inserted, 0, gapStart, inserted.length);
+        gapStart += inserted.length;
+        latest = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] remove(int fromIndex, int toIndex) {
+        moveGap(fromIndex);
+        int count = toIndex - fromIndex;
+        Object[] removed = new Object[count];
+        read(gapEnd, removed, 0, count);
+        clear(gapEnd, gapEnd + count);
+        gapEnd += count;
+        latest = null;
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replace(Object[] replacement) {
+        int pageCount = Math.max(1, (replacement.length + pageMask) >>> pageBits);
+        pages = new Object[pageCount][];
+        epochs = new int[pageCount];
+        write(replacement, 0, 0, replacement.length);
+        gapStart = replacement.length;
+        gapEnd = pageCount << pageBits;
+        latest = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        int tail = (pages.length << pageBits) - gapEnd;
+        Object[] elements = new Object[gapStart + tail];
+        read(0, elements, 0, gapStart);
+        read(gapEnd, elements, gapStart, tail);
+        return elements;
+    }
+
+    /**
+     * Shares the pages, in O(n / page size), and only if the storage changed since the last
+     * snapshot. Taking one makes every current page shared with it.
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> snapshot() {
+        // readers racing here build equivalent snapshots, and the epoch changes either way
+        Snapshot<T> snapshot = latest;
+        if (snapshot == null) {
+            epoch++;
+            snapshot = new Snapshot<>(pages.clone(), pageBits, pageMask, gapStart, gapEnd - gapStart, size());
+            latest = snapshot;
+        }
+        return snapshot;
+    }
+
+    private int position(int index) {
+        return index < gapStart ? index : index + (gapEnd - gapStart);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T element(Object[] elements, int position) {
+        return (T) elements[position];
+    }
+
+    /**
+     * Page which can be written to: allocated if it was dropped, and copied if it is shared with a
+     * snapshot, i.e. if it is older than the latest snapshot.
+     */
+    private Object[] writablePage(int page) {
+        Object[] items = pages[page];
+        if (items == null) {
+            items = new Object[pageSize];
+        } else if (epochs[page] != epoch) {
+            items = items.clone();
+        } else {
+            return items;
+        }
+        pages[page] = items;
+        epochs[page] = epoch;
+        return items;
+    }
+
+    /**
+     * Copies elements of the buffer, from the given position, into the array.
+     */
+    private void read(int position, Object[] target, int offset, int count) {
+        while (count > 0) {
+            int length = Math.min(count, pageSize - (position & pageMask));
+            System.arraycopy(pages[position >>> pageBits], position & pageMask, target, offset, length);
+            position += length;
+            offset += length;
+            count -= length;
+        }
+    }
+
+    /**
+     * Copies elements of the array into the buffer, from the given position.
+     */
+    private void write(Object[] source, int offset, int position, int count) {
+        while (count > 0) {
+            int length = Math.min(count, pageSize - (position & pageMask));
+            System.arraycopy(source, offset, writablePage(position >>> pageBits), position & pageMask, length);
+            position += length;
+            offset += length;
+            count -= length;
+        }
+    }
+
+    /**
+     * Copies a range of the buffer to another position, page by page, in the order which leaves
+     * the range intact if both overlap.
+     */
+    private void move(int from, int to, int count) {
+        if (to < from) {
+            while (count > 0) {
+                int length = Math.min(count, pageSize - Math.max(from & pageMask, to & pageMask));
+                Object[] source = pages[from >>> pageBits];
+                System.arraycopy(source, from & pageMask, writablePage(to >>> pageBits), to & pageMask, length);
+                from += length;
+                to += length;
+                count -= length;
+            }
+        } else {
+            while (count > 0) {
+                int fromEnd = from + count;
+                int toEnd = to + count;
+                int length = Math.min(count, Math.min(((fromEnd - 1) & pageMask) + 1, ((toEnd - 1) & pageMask) + 1));
+                Object[] source = pages[(fromEnd - 1) >>> pageBits];
+                System.arraycopy(source, (fromEnd - length) & pageMask,
+                        writablePage((toEnd - 1) >>> pageBits), (toEnd - length) & pageMask, length);
+                count -= length;
+            }
+        }
+    }
+
+    /**
+     * Clears a range of positions which now belong to the gap, dropping the pages it covers.
+     */
+    private void clear(int from, int to) {
+        while (from < to) {
+            int page = from >>> pageBits;
+            int end = Math.min(to, (page + 1) << pageBits);
+            if ((from & pageMask) == 0 && end - from == pageSize) {
+                pages[page] = null;
+            } else if (pages[page] != null) {
+                Arrays.fill(writablePage(page), from & pageMask, ((end - 1) & pageMask) + 1, null);
+            }
+            from = end;
+        }
+    }
+
+    /**
+     * Moves the gap to the index, shifting only the elements between the old and new positions,
+     * and clears the slots they left.
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            move(index, gapEnd - count, count);
+            clear(index, Math.min(gapStart, gapEnd - count));
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            move(gapEnd, gapStart, count);
+            clear(Math.max(gapEnd, index), gapEnd + count);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    /**
+     * Grows the buffer, at least doubling it, if the gap is smaller than the required length. The
+     * tail moves by whole pages, so no element is copied, except for a page holding both the end
+     * of the head and the start of the tail, which is split in two.
+     */
+    private void ensureGap(int length) {
+        if (gapEnd - gapStart >= length) {
+            return;
+        }
+        long required = (long) size() + length;
+        if (required > (long) maxPages << pageBits) {
+            throw new OutOfMemoryError("Maximum size exceeded");
+        }
+        int pageCount = (int) Math.max((required + pageMask) >>> pageBits, Math.min(2L * pages.length, maxPages));
+        int shift = pageCount - pages.length;
+        int headPages = (gapStart + pageMask) >>> pageBits;
+        int tailPage = gapEnd >>> pageBits;
+        Object[][] grown = new Object[pageCount][];
+        int[] grownEpochs = new int[pageCount];
+        System.arraycopy(pages, 0, grown, 0, headPages);
+        System.arraycopy(epochs, 0, grownEpochs, 0, headPages);
+        System.arraycopy(pages, tailPage, grown, tailPage + shift, pages.length - tailPage);
+        System.arraycopy(epochs, tailPage, grownEpochs, tailPage + shift, pages.length - tailPage);
+        if (tailPage < headPages) {
+            Object[] head = pages[tailPage].clone();
+            Arrays.fill(head, gapStart & pageMask, pageSize, null);
+            Object[] tail = pages[tailPage].clone();
+            Arrays.fill(tail, 0, gapEnd & pageMask, null);
+            grown[tailPage] = head;
+            grownEpochs[tailPage] = epoch;
+            grown[tailPage + shift] = tail;
+            grownEpochs[tailPage + shift] = epoch;
+        }
+        pages = grown;
+        epochs = grownEpochs;
+        gapEnd += shift << pageBits;
+    }
+
+    /**
+     * Immutable view of the pages as they were, which the storage copies before writing to them.
+     */
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[][] pages;
+        private final int pageBits;
+        private final int pageMask;
+        private final int gapStart;
+        private final int gapLength;
+        private final int size;
+
+        private Snapshot(Object[][] pages, int pageBits, int pageMask, int gapStart, int gapLength, int size) {
+            this.pages = pages;
+            this.pageBits = pageBits;
+            this.pageMask = pageMask;
+            this.gapStart = gapStart;
+            this.gapLength = gapLength;
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int position = index < gapStart ? index : index + gapLength;
+            return element(pages[position >>> pageBits], position & pageMask);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
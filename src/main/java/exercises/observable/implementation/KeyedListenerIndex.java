@@ -0,0 +1,113 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Function;
+
+/**
+ * Inverted index from element keys to the listeners interested in them, used to route list
+ * notifications to key-scoped listeners.
+ *
+ * Keys are grouped by key extractor, so routing a notification costs one key extraction and one
+ * lookup per changed element and per distinct extractor, plus one delivery per interested
+ * listener, whatever the number of registered listeners. Extractors are compared by identity:
+ * listeners using the same keys should share the same extractor instance.
+ */
+final class KeyedListenerIndex<T> {
+
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentMap<Function<? super T, ?>, ConcurrentMap<Object, Set<ListListener<T>>>> index =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<ListListener<T>, List<Subscription<T>>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes the listener to changes of elements whose key is one of the given keys.
+     */
+    synchronized void register(ListListener<T> listener, Function<? super T, ?> keyExtractor, Collection<?> keys) {
+        ConcurrentMap<Object, Set<ListListener<T>>> byKey =
+                index.computeIfAbsent(keyExtractor, extractor -> new ConcurrentHashMap<>());
+        List<Subscription<T>> listenerSubscriptions =
+                subscriptions.computeIfAbsent(listener, key -> new ArrayList<>());
+        for (Object key : keys) {
+            Object indexKey = key != null ? key : NULL_KEY;
+            if (byKey.computeIfAbsent(indexKey, k -> new CopyOnWriteArraySet<>()).add(listener)) {
+                listenerSubscriptions.add(new Subscription<>(keyExtractor, indexKey));
+            }
+        }
+    }
+
+    /**
+     * Removes every subscription of the listener.
+     */
+    synchronized void unregister(ListListener<T> listener) {
+        List<Subscription<T>> listenerSubscriptions = subscriptions.remove(listener);
+        if (listenerSubscriptions == null) {
+            return;
+        }
+        for (Subscription<T> subscription : listenerSubscriptions) {
+            ConcurrentMap<Object, Set<ListListener<T>>> byKey = index.get(subscription.keyExtractor);
+            Set<ListListener<T>> listeners = byKey.get(subscription.key);
+            listeners.remove(listener);
+            if (listeners.isEmpty()) {
+                byKey.remove(subscription.key);
+                if (byKey.isEmpty()) {
+                    index.remove(subscription.keyExtractor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of listeners with at least one subscription.
+     */
+    int getListenerCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Delivers the notification once to every listener subscribed to the key of at least one of
+     * the changed elements.
+     */
+    void route(ListNotification<T> notification) {
+        if (index.isEmpty()) {
+            return;
+        }
+        Set<ListListener<T>> notified = null;
+        for (Map.Entry<Function<? super T, ?>, ConcurrentMap<Object, Set<ListListener<T>>>> entry : index.entrySet()) {
+            Function<? super T, ?> keyExtractor = entry.getKey();
+            ConcurrentMap<Object, Set<ListListener<T>>> byKey = entry.getValue();
+            for (T element : notification.getChangedElements()) {
+                Object key = keyExtractor.apply(element);
+                Set<ListListener<T>> listeners = byKey.get(key != null ? key : NULL_KEY);
+                if (listeners == null) {
+                    continue;
+                }
+                for (ListListener<T> listener : listeners) {
+                    if (notified == null) {
+                        notified = Collections.newSetFromMap(new IdentityHashMap<>());
+                    }
+                    if (notified.add(listener)) {
+                        listener.onListChange(notification);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Subscription<T> {
+
+        private final Function<? super T, ?> keyExtractor;
+        private final Object key;
+
+        private Subscription(Function<? super T, ?> keyExtractor, Object key) {
+            this.keyExtractor = keyExtractor;
+            this.key = key;
+        }
+    }
+}
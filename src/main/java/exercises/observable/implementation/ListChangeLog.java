@@ -0,0 +1,422 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ElementCodec;
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of the changes of an observable list, from which the list can be rebuilt after a
+ * crash (see {@link #recover(Path, ElementCodec, List)}).
+ *
+ * The log listens to the list and appends every notification to the current segment file as a
+ * delta, encoded by a {@link ListNotificationCodec} without the resulting list, so that a record
+ * costs as much as the change itself. Every given number of records it rolls to a new segment and
+ * writes a checkpoint of the whole list, taken from the resulting list of the notification; the
+ * checkpoint is written in the background, and once it is durable the segments and checkpoints it
+ * supersedes are deleted. Recovery therefore loads the latest checkpoint and replays at most one
+ * checkpoint interval of deltas.
+ *
+ * Segments are forced to disk every given number of records: a batch of 1 makes every change
+ * durable before the listener returns, larger batches trade the last few changes for throughput.
+ * Each record carries a CRC, so that a torn write at the end of the log is detected and ignored.
+ *
+ * The log keeps track of the version of the list carried by each notification. When a version
+ * was skipped, because the list changed without notification (set, sort, replaceAll) or because
+ * notifications of concurrent writers arrived out of order, the record carries the resulting list
+ * instead of the change, and recovery reconciles the list with it; notifications of versions older
+ * than the last one logged are dropped, their change being part of that resulting list. Records
+ * are therefore always in version order, whatever the number of threads writing to the list.
+ *
+ * New files are made durable by forcing the directory after creating or renaming them, before any
+ * file they supersede is deleted.
+ */
+public class ListChangeLog<T> implements ListListener<T>, AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "changes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".chk";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final ObservableList<T> source;
+    private final Path directory;
+    private final ListNotificationCodec<T> deltaCodec;
+    private final ListNotificationCodec<T> checkpointCodec;
+    private final int checkpointInterval;
+    private final int syncBatchSize;
+    private final ExecutorService compactor;
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel segment;
+    private ListNotificationCodec<T>.Encoder encoder;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private long sequence;
+    private long lastVersion;
+    private int recordsSinceCheckpoint;
+    private int recordsSinceSync;
+    private volatile IOException failure;
+
+    /**
+     * Opens the log in the given directory (creating it if needed), continuing the sequence of the
+     * records already there, writes the current content of the list as a checkpoint and starts
+     * listening to the list. That first checkpoint is durable before the constructor returns, since
+     * no segment precedes it: until then, the log would recover nothing of the list.
+     * @param source list to log
+     * @param directory directory of the log files
+     * @param elementCodec codec of the elements of the list
+     * @param checkpointInterval number of records between two checkpoints
+     * @param syncBatchSize number of records between two forces of the segment to disk
+     * @throws IOException if the log cannot be opened
+     */
+    public ListChangeLog(ObservableList<T> source, Path directory, ElementCodec<T> elementCodec,
+                         int checkpointInterval, int syncBatchSize) throws IOException {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        if (syncBatchSize < 1) {
+            throw new IllegalArgumentException("Sync batch size must be positive: " + syncBatchSize);
+        }
+        this.source = source;
+        this.directory = Files.createDirectories(directory);
+        this.deltaCodec = new ListNotificationCodec<>(elementCodec, false);
+        this.checkpointCodec = new ListNotificationCodec<>(elementCodec, true);
+        this.checkpointInterval = checkpointInterval;
+        this.syncBatchSize = syncBatchSize;
+        this.compactor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "ListChangeLog-" + source.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // the current content of the list starts a new sequence, after the records already there
+        this.sequence = recover(directory, elementCodec, new ArrayList<>()) + 1;
+        synchronized (this) {
+            source.register(this);
+            ListSnapshot<T> initial = source.snapshot();
+            lastVersion = initial.getVersion();
+            writeCheckpoint(sequence, initial);
+            compact(sequence);
+            rollSegment();
+        }
+    }
+
+    /**
+     * Rebuilds the content of a list from the log: the latest complete checkpoint, followed by the
+     * records written after it, up to the first missing or corrupted one.
+     * @param directory directory of the log files
+     * @param elementCodec codec of the elements of the list
+     * @param target list to fill, cleared first
+     * @param <T> type of the elements
+     * @return sequence number of the last change applied, 0 if the log is empty
+     * @throws IOException if the log cannot be read
+     */
+    public static <T> long recover(Path directory, ElementCodec<T> elementCodec, List<T> target) throws IOException {
+        target.clear();
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        ListNotificationCodec<T> codec = new ListNotificationCodec<>(elementCodec, true);
+        long recovered = 0;
+        List<Long> checkpoints = sequences(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX);
+        for (int i = checkpoints.size() - 1; i >= 0; i--) {
+            ByteBuffer record = readRecord(ByteBuffer.wrap(Files.readAllBytes(checkpointFile(directory, checkpoints.get(i)))));
+            if (record != null) {
+                target.addAll(codec.newDecoder().decode(record).getResultingList());
+                recovered = checkpoints.get(i);
+                break;
+            }
+        }
+        for (long first : sequences(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (first > recovered + 1) {
+                break;
+            }
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segmentFile(directory, first)));
+            ListNotificationCodec<T>.Decoder decoder = codec.newDecoder();
+            ByteBuffer record;
+            while ((record = readRecord(data)) != null) {
+                ListNotification<T> notification = decoder.decode(record);
+                if (decoder.getSequence() > recovered) {
+                    ListNotificationCodec.apply(target, notification.getType() == ListNotificationType.REMOVE,
+                            notification.getIndex(), notification.getChangedElements(),
+                            decoder.hasSnapshot() ? notification.getResultingList() : null);
+                    recovered = decoder.getSequence();
+                }
+            }
+        }
+        return recovered;
+    }
+
+    /**
+     * Appends the notification to the current segment, or its resulting list if the version of the
+     * list it carries does not follow the last one logged.
+     * @param notification notification object
+     */
+    @Override
+    public synchronized void onListChange(ListNotification<T> notification) {
+        if (segment == null || !segment.isOpen()) {
+            return;
+        }
+        ListNotification<T> record = notification;
+        List<T> resultingList = notification.getResultingList();
+        if (resultingList instanceof ListSnapshot) {
+            long version = ((ListSnapshot<T>) resultingList).getVersion();
+            if (version <= lastVersion) {
+                // already logged, by the initial checkpoint or a record of a later resulting list
+                return;
+            }
+            if (version != lastVersion + 1) {
+                record = ListNotification.newListAddNotification(
+                        ListNotification.UNKNOWN_INDEX, Collections.emptyList(), resultingList);
+            }
+            lastVersion = version;
+        }
+        try {
+            append(++sequence, record);
+            if (++recordsSinceSync >= syncBatchSize) {
+                segment.force(false);
+                recordsSinceSync = 0;
+            }
+            if (++recordsSinceCheckpoint >= checkpointInterval) {
+                checkpoint(notification.getResultingList());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to the change log of " + source.getName(), e);
+        }
+    }
+
+    /**
+     * Forces the records written so far to disk, whatever the sync batch size.
+     * @throws IOException if the segment cannot be forced
+     */
+    public synchronized void sync() throws IOException {
+        if (segment != null && segment.isOpen()) {
+            segment.force(false);
+            recordsSinceSync = 0;
+        }
+    }
+
+    /**
+     * Sequence number of the last logged change.
+     * @return sequence number
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Stops listening to the list, waits for the pending checkpoint and compaction, and forces
+     * and closes the current segment.
+     * @throws IOException if the log cannot be closed, or if a checkpoint failed
+     */
+    @Override
+    public void close() throws IOException {
+        source.unregister(this);
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (segment != null && segment.isOpen()) {
+                segment.force(false);
+                segment.close();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Rolls to a new segment, starting after the current sequence, and writes the checkpoint of
+     * the given content in the background. The previous segment is forced first, since it stays
+     * needed until the checkpoint is durable.
+     */
+    private void checkpoint(List<T> content) throws IOException {
+        long checkpointSequence = sequence;
+        rollSegment();
+        compactor.execute(() -> {
+            try {
+                writeCheckpoint(checkpointSequence, content);
+                compact(checkpointSequence);
+            } catch (IOException e) {
+                failure = e;
+            }
+        });
+    }
+
+    /**
+     * Forces and closes the current segment, if any, and opens the next one, starting after the
+     * current sequence.
+     */
+    private void rollSegment() throws IOException {
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+        segment = FileChannel.open(segmentFile(directory, sequence + 1), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        forceDirectory();
+        encoder = deltaCodec.newEncoder();
+        recordsSinceCheckpoint = 0;
+        recordsSinceSync = 0;
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file, forces it, then renames it, so that a checkpoint
+     * file is always complete, and forces the directory, so that the rename is durable before the
+     * files the checkpoint supersedes are deleted.
+     */
+    private void writeCheckpoint(long checkpointSequence, List<T> content) throws IOException {
+        ListNotification<T> snapshot = ListNotification.newListAddNotification(
+                ListNotification.UNKNOWN_INDEX, Collections.emptyList(), content);
+        ByteBuffer data = ByteBuffer.allocate(4096);
+        while (true) {
+            try {
+                data.position(RECORD_HEADER_SIZE);
+                checkpointCodec.newEncoder().encode(checkpointSequence, snapshot, data);
+                break;
+            } catch (BufferOverflowException e) {
+                data = ByteBuffer.allocate(data.capacity() * 2);
+            }
+        }
+        frame(data, new CRC32());
+        Path file = checkpointFile(directory, checkpointSequence);
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+    }
+
+    /**
+     * Forces the entries of the directory to disk: files created or renamed in it may otherwise
+     * be lost in a crash, even after forcing their content.
+     */
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Deletes the checkpoints older than the given one, and the segments whose records all come
+     * before it.
+     */
+    private void compact(long checkpointSequence) throws IOException {
+        for (long older : sequences(directory, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX)) {
+            if (older < checkpointSequence) {
+                Files.deleteIfExists(checkpointFile(directory, older));
+            }
+        }
+        for (long first : sequences(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (first <= checkpointSequence) {
+                Files.deleteIfExists(segmentFile(directory, first));
+            }
+        }
+    }
+
+    private void append(long recordSequence, ListNotification<T> notification) throws IOException {
+        while (true) {
+            try {
+                buffer.clear();
+                buffer.position(RECORD_HEADER_SIZE);
+                encoder.encode(recordSequence, notification, buffer);
+                break;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+        frame(buffer, crc);
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+    }
+
+    /**
+     * Fills the header of the record encoded after it (length and CRC of the payload) and flips
+     * the buffer for writing.
+     */
+    private static void frame(ByteBuffer data, CRC32 crc) {
+        data.flip();
+        int length = data.limit() - RECORD_HEADER_SIZE;
+        crc.reset();
+        ByteBuffer payload = data.duplicate();
+        payload.position(RECORD_HEADER_SIZE);
+        crc.update(payload);
+        data.putInt(0, length);
+        data.putInt(4, (int) crc.getValue());
+    }
+
+    /**
+     * Reads the next framed record, returning its payload, or null at the end of the data or if
+     * the record is incomplete or corrupted.
+     */
+    private static ByteBuffer readRecord(ByteBuffer data) {
+        if (data.remaining() < RECORD_HEADER_SIZE) {
+            return null;
+        }
+        int length = data.getInt(data.position());
+        int checksum = data.getInt(data.position() + 4);
+        if (length < 0 || length > data.remaining() - RECORD_HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer payload = data.duplicate();
+        payload.position(data.position() + RECORD_HEADER_SIZE);
+        payload.limit(payload.position() + length);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        data.position(payload.limit());
+        return payload;
+    }
+
+    /**
+     * Sequence numbers in the names of the files with the given prefix and suffix, in order.
+     */
+    private static List<Long> sequences(Path directory, String prefix, String suffix) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    sequences.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // not a file of the log
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    private static Path segmentFile(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static Path checkpointFile(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%020d%s", CHECKPOINT_PREFIX, sequence, CHECKPOINT_SUFFIX));
+    }
+}
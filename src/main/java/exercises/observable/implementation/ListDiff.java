@@ -0,0 +1,235 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Computes the changes turning one state of a list into another, as the notifications a listener
+ * would have received had it seen them happen.
+ *
+ * The common prefix and suffix of both states are skipped first, comparing references before
+ * calling equals, so that they cost a scan and nothing more. The remaining ranges are diffed with
+ * Myers' algorithm, which finds a shortest edit script in O((N + M) D) time and O(D^2) memory,
+ * D being the number of elements to remove and add; elements are compared by their hash codes,
+ * computed once, before being compared with equals. Beyond {@link #MAX_EDIT_DISTANCE} edits, the
+ * remaining ranges are replaced as a whole rather than diffed.
+ *
+ * The edits are grouped into runs: each run of removed elements becomes a removal notification,
+ * and each run of added elements an addition notification, in the order in which they apply from
+ * the start of the list. The changed elements and the resulting lists of the notifications are
+ * immutable views sharing the arrays of both states, so the notifications cost O(D) to build
+ * whatever the size of the list; the resulting list of the last notification is the target state
+ * itself.
+ */
+public final class ListDiff {
+
+    /**
+     * Number of edits beyond which the differing ranges are replaced as a whole.
+     */
+    static final int MAX_EDIT_DISTANCE = 1 << 10;
+
+    private ListDiff() {
+    }
+
+    /**
+     * Notifications of the changes turning the first state into the second. Both lists must not
+     * change while the notifications are in use, as snapshots never do.
+     * @param from initial state of the list
+     * @param to final state of the list
+     * @param <T> type of the elements
+     * @return notifications of the changes, in the order in which they apply
+     */
+    public static <T> List<ListNotification<T>> between(List<? extends T> from, List<T> to) {
+        Object[] source = elements(from);
+        Object[] target = elements(to);
+        int prefix = 0;
+        int limit = Math.min(source.length, target.length);
+        while (prefix < limit && same(source[prefix], target[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        limit -= prefix;
+        while (suffix < limit && same(source[source.length - 1 - suffix], target[target.length - 1 - suffix])) {
+            suffix++;
+        }
+        int sourceLength = source.length - prefix - suffix;
+        int targetLength = target.length - prefix - suffix;
+        if (sourceLength == 0 && targetLength == 0) {
+            return Collections.emptyList();
+        }
+
+        boolean[] removed = new boolean[sourceLength];
+        boolean[] added = new boolean[targetLength];
+        if (sourceLength == 0 || targetLength == 0
+                || !shortestEdit(source, target, prefix, sourceLength, targetLength, removed, added)) {
+            Arrays.fill(removed, true);
+            Arrays.fill(added, true);
+        }
+        return notifications(source, target, to, prefix, removed, added);
+    }
+
+    /**
+     * Runs Myers' algorithm on the ranges starting at the offset, and marks the elements removed
+     * from the source and added to the target along a shortest edit path.
+     * @return false if the ranges differ by more than {@link #MAX_EDIT_DISTANCE} edits
+     */
+    private static boolean shortestEdit(Object[] source, Object[] target, int offset, int sourceLength,
+                                        int targetLength, boolean[] removed, boolean[] added) {
+        int[] sourceHashes = hashes(source, offset, sourceLength);
+        int[] targetHashes = hashes(target, offset, targetLength);
+        int maxDistance = Math.min(sourceLength + targetLength, MAX_EDIT_DISTANCE);
+        int center = maxDistance + 1;
+        int[] frontier = new int[2 * maxDistance + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        int distance = -1;
+        for (int d = 0; d <= maxDistance && distance < 0; d++) {
+            // the furthest reaching points of the previous round, on diagonals -(d - 1) to d - 1
+            trace.add(d == 0 ? new int[0] : Arrays.copyOfRange(frontier, center - d + 1, center + d));
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && frontier[center + k - 1] < frontier[center + k + 1]))
+                        ? frontier[center + k + 1]
+                        : frontier[center + k - 1] + 1;
+                int y = x - k;
+                while (x < sourceLength && y < targetLength
+                        && sourceHashes[x] == targetHashes[y]
+                        && Objects.equals(source[offset + x], target[offset + y])) {
+                    x++;
+                    y++;
+                }
+                frontier[center + k] = x;
+                if (x >= sourceLength && y >= targetLength) {
+                    distance = d;
+                    break;
+                }
+            }
+        }
+        if (distance < 0) {
+            return false;
+        }
+
+        int x = sourceLength;
+        int y = targetLength;
+        for (int d = distance; d > 0; d--) {
+            int[] previous = trace.get(d);
+            int k = x - y;
+            int previousK = (k == -d || (k != d && at(previous, d, k - 1) < at(previous, d, k + 1))) ? k + 1 : k - 1;
+            int previousX = at(previous, d, previousK);
+            int previousY = previousX - previousK;
+            if (previousK == k + 1) {
+                added[previousY] = true;
+            } else {
+                removed[previousX] = true;
+            }
+            x = previousX;
+            y = previousY;
+        }
+        return true;
+    }
+
+    /**
+     * Furthest reaching point on the diagonal k at the start of round d.
+     */
+    private static int at(int[] previous, int d, int k) {
+        return previous[k + d - 1];
+    }
+
+    /**
+     * Groups the marked elements into runs, removals before additions wherever both meet.
+     */
+    private static <T> List<ListNotification<T>> notifications(Object[] source, Object[] target, List<T> to,
+                                                              int offset, boolean[] removed, boolean[] added) {
+        List<ListNotification<T>> notifications = new ArrayList<>();
+        int x = 0;
+        int y = 0;
+        while (x < removed.length || y < added.length) {
+            int removedEnd = x;
+            while (removedEnd < removed.length && removed[removedEnd]) {
+                removedEnd++;
+            }
+            int addedEnd = y;
+            while (addedEnd < added.length && added[addedEnd]) {
+                addedEnd++;
+            }
+            if (removedEnd > x) {
+                notifications.add(ListNotification.newListRemoveNotification(offset + y,
+                        ListSnapshot.of(source, offset + x, offset + removedEnd),
+                        new Splice<>(target, offset + y, source, offset + removedEnd)));
+                x = removedEnd;
+            }
+            if (addedEnd > y) {
+                notifications.add(ListNotification.newListAddNotification(offset + y,
+                        ListSnapshot.of(target, offset + y, offset + addedEnd),
+                        new Splice<>(target, offset + addedEnd, source, offset + x)));
+                y = addedEnd;
+            }
+            if (x < removed.length && y < added.length && !removed[x] && !added[y]) {
+                x++;
+                y++;
+            }
+        }
+        int last = notifications.size() - 1;
+        ListNotification<T> notification = notifications.get(last);
+        notifications.set(last, ListNotificationType.ADD.equals(notification.getType())
+                ? ListNotification.newListAddNotification(notification.getIndex(), notification.getChangedElements(), to)
+                : ListNotification.newListRemoveNotification(notification.getIndex(), notification.getChangedElements(), to));
+        return notifications;
+    }
+
+    private static Object[] elements(List<?> list) {
+        return list instanceof ListSnapshot ? ((ListSnapshot<?>) list).elements() : list.toArray();
+    }
+
+    private static int[] hashes(Object[] elements, int offset, int length) {
+        int[] hashes = new int[length];
+        for (int i = 0; i < length; i++) {
+            hashes[i] = Objects.hashCode(elements[offset + i]);
+        }
+        return hashes;
+    }
+
+    private static boolean same(Object first, Object second) {
+        return first == second || (first != null && first.equals(second));
+    }
+
+    /**
+     * Immutable state of the list part-way through the changes: the start of the target followed
+     * by the rest of the source.
+     */
+    private static final class Splice<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[] target;
+        private final int targetEnd;
+        private final Object[] source;
+        private final int sourceStart;
+
+        private Splice(Object[] target, int targetEnd, Object[] source, int sourceStart) {
+            this.target = target;
+            this.targetEnd = targetEnd;
+            this.source = source;
+            this.sourceStart = sourceStart;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return (T) (index < targetEnd ? target[index] : source[sourceStart + index - targetEnd]);
+        }
+
+        @Override
+        public int size() {
+            return targetEnd + source.length - sourceStart;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ElementCodec;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact binary encoding of notification streams.
+ *
+ * Each notification is written as a record made of a flags byte, the difference between its
+ * sequence number and the previous one, the difference between its index and the previous one
+ * (both as zig-zag variable-length numbers, so that a stream of appends costs a couple of bytes of
+ * framing per record), the changed elements and, optionally, the resulting list. Encoders and
+ * decoders are stateful, since both differences are relative to the previous record of the same
+ * stream; they work directly on the caller's buffers, without intermediate copies.
+ *
+ * When snapshots are left out, a record still carries the resulting list if the change has no
+ * known index (e.g. after {@code removeAll}), since it could not be replayed otherwise.
+ */
+public class ListNotificationCodec<T> {
+
+    private static final int REMOVE_FLAG = 1;
+    private static final int INDEX_FLAG = 1 << 1;
+    private static final int SNAPSHOT_FLAG = 1 << 2;
+
+    private final ElementCodec<T> elementCodec;
+    private final boolean includeSnapshots;
+
+    /**
+     * Creates a codec.
+     * @param elementCodec codec of the elements of the list
+     * @param includeSnapshots whether every record carries the resulting list
+     */
+    public ListNotificationCodec(ElementCodec<T> elementCodec, boolean includeSnapshots) {
+        this.elementCodec = elementCodec;
+        this.includeSnapshots = includeSnapshots;
+    }
+
+    /**
+     * Creates an encoder for a new stream.
+     * @return encoder
+     */
+    public Encoder newEncoder() {
+        return new Encoder();
+    }
+
+    /**
+     * Creates a decoder for a new stream. Records without a resulting list are decoded with an
+     * empty one.
+     * @return decoder
+     */
+    public Decoder newDecoder() {
+        return new Decoder(null);
+    }
+
+    /**
+     * Creates a decoder for a new stream which replays every decoded change on the given list.
+     * Records without a resulting list are decoded with an unmodifiable view of the replica.
+     * @param replica list kept in sync with the stream, initially equal to the source list at the
+     *                start of the stream
+     * @return decoder
+     */
+    public Decoder newDecoder(List<T> replica) {
+        return new Decoder(replica);
+    }
+
+    /**
+     * Writes notifications into buffers.
+     */
+    public final class Encoder {
+
+        private long lastSequence;
+        private int lastIndex;
+
+        private Encoder() {
+        }
+
+        /**
+         * Writes the notification at the current position of the buffer, advancing it. If the
+         * buffer is too small, its position is left unchanged and the encoder can be retried with
+         * another buffer.
+         * @param sequence sequence number of the notification in the stream
+         * @param notification notification to encode
+         * @param buffer buffer to write to
+         * @throws BufferOverflowException if the buffer has not enough space left
+         */
+        public void encode(long sequence, ListNotification<T> notification, ByteBuffer buffer) {
+            int start = buffer.position();
+            try {
+                int index = notification.getIndex();
+                boolean hasIndex = index != ListNotification.UNKNOWN_INDEX;
+                boolean hasSnapshot = includeSnapshots || !hasIndex;
+                int flags = 0;
+                switch (notification.getType()) {
+                    case REMOVE:
+                        flags |= REMOVE_FLAG;
+                        break;
+                    default:
+                        break;
+                }
+                if (hasIndex) {
+                    flags |= INDEX_FLAG;
+                }
+                if (hasSnapshot) {
+                    flags |= SNAPSHOT_FLAG;
+                }
+                buffer.put((byte) flags);
+                VarInts.writeSigned(sequence - lastSequence, buffer);
+                if (hasIndex) {
+                    VarInts.writeSigned((long) index - lastIndex, buffer);
+                }
+                writeElements(notification.getChangedElements(), buffer);
+                if (hasSnapshot) {
+                    writeElements(notification.getResultingList(), buffer);
+                }
+                lastSequence = sequence;
+                if (hasIndex) {
+                    lastIndex = index;
+                }
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                throw e;
+            }
+        }
+
+        private void writeElements(List<T> elements, ByteBuffer buffer) {
+            VarInts.writeUnsigned(elements.size(), buffer);
+            for (T element : elements) {
+                elementCodec.encode(element, buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads notifications from buffers.
+     */
+    public final class Decoder {
+
+        private final List<T> replica;
+        private long lastSequence;
+        private int lastIndex;
+        private boolean hasSnapshot;
+
+        private Decoder(List<T> replica) {
+            this.replica = replica;
+        }
+
+        /**
+         * Reads a notification from the current position of the buffer, advancing it. If the
+         * record cannot be read, e.g. because it is truncated or torn, the position of the buffer
+         * and the state of the decoder are left unchanged, so that the record can be read again.
+         * @param buffer buffer to read from
+         * @return decoded notification
+         * @throws BufferUnderflowException if the buffer ends before the record
+         */
+        public ListNotification<T> decode(ByteBuffer buffer) {
+            int start = buffer.position();
+            try {
+                int flags = buffer.get();
+                long sequence = lastSequence + VarInts.readSigned(buffer);
+                int index = ListNotification.UNKNOWN_INDEX;
+                if ((flags & INDEX_FLAG) != 0) {
+                    index = (int) (lastIndex + VarInts.readSigned(buffer));
+                }
+                List<T> changedElements = readElements(buffer);
+                List<T> resultingList = (flags & SNAPSHOT_FLAG) != 0 ? readElements(buffer) : null;
+                boolean removal = (flags & REMOVE_FLAG) != 0;
+
+                boolean snapshot = resultingList != null;
+                if (replica != null) {
+                    apply(replica, removal, index, changedElements, resultingList);
+                    if (resultingList == null) {
+                        resultingList = Collections.unmodifiableList(replica);
+                    }
+                } else if (resultingList == null) {
+                    resultingList = Collections.emptyList();
+                }
+                lastSequence = sequence;
+                if (index != ListNotification.UNKNOWN_INDEX) {
+                    lastIndex = index;
+                }
+                hasSnapshot = snapshot;
+                return removal
+                        ? ListNotification.newListRemoveNotification(index, changedElements, resultingList)
+                        : ListNotification.newListAddNotification(index, changedElements, resultingList);
+            } catch (RuntimeException e) {
+                buffer.position(start);
+                throw e;
+            }
+        }
+
+        /**
+         * Sequence number of the last decoded notification.
+         * @return sequence number
+         */
+        public long getSequence() {
+            return lastSequence;
+        }
+
+        /**
+         * Whether the last decoded record carried the resulting list (otherwise, the resulting list
+         * of the decoded notification is empty or a view of the replica).
+         * @return true if the last record had a snapshot
+         */
+        public boolean hasSnapshot() {
+            return hasSnapshot;
+        }
+
+        private List<T> readElements(ByteBuffer buffer) {
+            int size = (int) VarInts.readUnsigned(buffer);
+            if (size < 0) {
+                throw new IllegalArgumentException("Invalid number of elements: " + size);
+            }
+            // a torn size must not allocate more than the elements left in the buffer could fill
+            List<T> elements = new ArrayList<>(Math.min(size, buffer.remaining()));
+            for (int i = 0; i < size; i++) {
+                elements.add(elementCodec.decode(buffer));
+            }
+            return elements;
+        }
+    }
+
+    /**
+     * Replays a change on the given list: the changed elements are inserted or removed at the index
+     * of the change, while a change carrying the resulting list is reconciled with the content
+     * through a {@link ListDiff}, so that only the elements which actually differ are removed and
+     * added (and nothing at all if the list is already up to date).
+     */
+    static <T> void apply(List<T> target, boolean removal, int index, List<T> changedElements,
+                          List<T> resultingList) {
+        if (resultingList != null) {
+            for (ListNotification<T> change : ListDiff.between(target, resultingList)) {
+                apply(target, change.getType() == ListNotificationType.REMOVE, change.getIndex(),
+                        change.getChangedElements(), null);
+            }
+        } else if (removal) {
+            target.subList(index, index + changedElements.size()).clear();
+        } else {
+            target.addAll(index, changedElements);
+        }
+    }
+}
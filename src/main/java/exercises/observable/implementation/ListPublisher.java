@@ -0,0 +1,316 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.Observable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive Streams view of an observable list, publishing its notifications to any number of
+ * subscribers while honouring their demand.
+ *
+ * Each subscriber gets its own bounded buffer. The list's writer only appends to those buffers
+ * (under a lock held for a few instructions), and delivery happens on the given executor, so a slow
+ * subscriber never blocks the writer nor the other subscribers. What happens when a buffer is full
+ * is decided by the {@link OverflowStrategy}.
+ *
+ * On Java 9 and later, {@code org.reactivestreams.FlowAdapters.toFlowPublisher} turns this into a
+ * {@code java.util.concurrent.Flow.Publisher}.
+ */
+public class ListPublisher<T> implements Publisher<ListNotification<T>>, ListListener<T>, AutoCloseable {
+
+    /**
+     * What to do with a notification arriving at a subscriber whose buffer is full.
+     */
+    public enum OverflowStrategy {
+        /** Cancels the subscription and signals an error to the subscriber. */
+        ERROR,
+        /** Discards the oldest buffered notification. */
+        DROP_OLDEST,
+        /** Discards the arriving notification. */
+        DROP_LATEST,
+        /**
+         * Merges the arriving notification into the last buffered one when both are of the same
+         * type and change contiguous ranges (the merged notification carries the elements of both
+         * and the latest resulting list), and buffers it beyond the size of the buffer otherwise,
+         * so that no change is lost.
+         */
+        COALESCE
+    }
+
+    private final Observable<ListNotification<T>, ListListener<T>> source;
+    private final OverflowStrategy strategy;
+    private final int bufferSize;
+    private final Executor executor;
+    private final Set<ListSubscription<T>> subscriptions;
+    private volatile boolean closed;
+
+    /**
+     * Creates a publisher delivering on the common fork/join pool.
+     * @param source observable list to publish
+     * @param strategy overflow strategy of the subscriber buffers
+     * @param bufferSize maximum number of notifications buffered per subscriber
+     */
+    public ListPublisher(Observable<ListNotification<T>, ListListener<T>> source, OverflowStrategy strategy, int bufferSize) {
+        this(source, strategy, bufferSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a publisher.
+     * @param source observable list to publish
+     * @param strategy overflow strategy of the subscriber buffers
+     * @param bufferSize maximum number of notifications buffered per subscriber
+     * @param executor executor on which the notifications are delivered
+     */
+    public ListPublisher(Observable<ListNotification<T>, ListListener<T>> source, OverflowStrategy strategy, int bufferSize,
+                         Executor executor) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
+        this.source = source;
+        this.strategy = strategy;
+        this.bufferSize = bufferSize;
+        this.executor = executor;
+        this.subscriptions = new CopyOnWriteArraySet<>();
+        source.register(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(Subscriber<? super ListNotification<T>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        ListSubscription<T> subscription = new ListSubscription<>(this, subscriber);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+        subscription.schedule();
+    }
+
+    /**
+     * Offers a copy of the notification to every subscriber, since notifications reused by their
+     * list (such as the ones of {@link PooledObservableList}) are only valid during this call.
+     * @param notification notification object
+     */
+    @Override
+    public void onListChange(ListNotification<T> notification) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        ListNotification<T> copy = notification.copy();
+        for (ListSubscription<T> subscription : subscriptions) {
+            subscription.offer(copy);
+        }
+    }
+
+    /**
+     * Stops listening to the list and completes every subscriber once its buffer has been
+     * delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        source.unregister(this);
+        for (ListSubscription<T> subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Merges two consecutive notifications into one, when both are of the same type and the ranges
+     * they change are contiguous: an addition inside or next to the elements of the previous one,
+     * or a removal of a range containing or next to the position of the previous one.
+     * @return the merged notification, or null if both cannot be merged
+     */
+    private static <T> ListNotification<T> merge(ListNotification<T> first, ListNotification<T> second) {
+        if (first.getType() != second.getType()
+                || first.getIndex() == ListNotification.UNKNOWN_INDEX
+                || second.getIndex() == ListNotification.UNKNOWN_INDEX) {
+            return null;
+        }
+        switch (second.getType()) {
+            case ADD: {
+                int offset = second.getIndex() - first.getIndex();
+                if (offset < 0 || offset > first.getChangedElements().size()) {
+                    return null;
+                }
+                return ListNotification.newListAddNotification(first.getIndex(),
+                        splice(first.getChangedElements(), offset, second.getChangedElements()),
+                        second.getResultingList());
+            }
+            default: {
+                int offset = first.getIndex() - second.getIndex();
+                if (offset < 0 || offset > second.getChangedElements().size()) {
+                    return null;
+                }
+                return ListNotification.newListRemoveNotification(second.getIndex(),
+                        splice(second.getChangedElements(), offset, first.getChangedElements()),
+                        second.getResultingList());
+            }
+        }
+    }
+
+    /**
+     * Elements of the outer list with those of the inner one inserted at the offset.
+     */
+    private static <T> List<T> splice(List<T> outer, int offset, List<T> inner) {
+        List<T> elements = new ArrayList<>(outer.size() + inner.size());
+        elements.addAll(outer.subList(0, offset));
+        elements.addAll(inner);
+        elements.addAll(outer.subList(offset, outer.size()));
+        return elements;
+    }
+
+    /**
+     * Subscription of one subscriber, with its buffer and demand. Signals to the subscriber are
+     * serialized by a work-in-progress counter: whichever thread increments it from zero runs the
+     * delivery loop on the executor.
+     */
+    private static final class ListSubscription<T> implements Subscription, Runnable {
+
+        private final ListPublisher<T> publisher;
+        private final Subscriber<? super ListNotification<T>> subscriber;
+        private final ArrayDeque<ListNotification<T>> buffer;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private boolean subscribed;
+        private volatile boolean cancelled;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        private ListSubscription(ListPublisher<T> publisher, Subscriber<? super ListNotification<T>> subscriber) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            this.buffer = new ArrayDeque<>();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Rule 3.9: request must be positive, was " + n);
+            } else {
+                long current;
+                long updated;
+                do {
+                    current = requested.get();
+                    updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, updated));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            publisher.subscriptions.remove(this);
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+
+        private void offer(ListNotification<T> notification) {
+            if (cancelled || completed) {
+                return;
+            }
+            synchronized (buffer) {
+                if (buffer.size() < publisher.bufferSize) {
+                    buffer.addLast(notification);
+                } else {
+                    switch (publisher.strategy) {
+                        case ERROR:
+                            error = new IllegalStateException(
+                                    "Subscriber buffer overflow (" + publisher.bufferSize + " notifications)");
+                            break;
+                        case DROP_OLDEST:
+                            buffer.pollFirst();
+                            buffer.addLast(notification);
+                            break;
+                        case DROP_LATEST:
+                            break;
+                        case COALESCE:
+                            ListNotification<T> merged = merge(buffer.peekLast(), notification);
+                            if (merged != null) {
+                                buffer.pollLast();
+                                buffer.addLast(merged);
+                            } else {
+                                buffer.addLast(notification);
+                            }
+                            break;
+                    }
+                }
+            }
+            schedule();
+        }
+
+        private void complete() {
+            completed = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                publisher.executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (!subscribed) {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            while (!cancelled) {
+                Throwable failure = error;
+                if (failure != null) {
+                    cancel();
+                    subscriber.onError(failure);
+                    return;
+                }
+                ListNotification<T> next = null;
+                boolean empty;
+                synchronized (buffer) {
+                    if (requested.get() > 0) {
+                        next = buffer.pollFirst();
+                    }
+                    empty = buffer.isEmpty();
+                }
+                if (next == null) {
+                    if (empty && completed) {
+                        cancel();
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                if (requested.get() != Long.MAX_VALUE) {
+                    requested.decrementAndGet();
+                }
+                subscriber.onNext(next);
+            }
+        }
+    }
+}
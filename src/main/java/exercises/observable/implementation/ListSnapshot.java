@@ -0,0 +1,242 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.FingerprintedList;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Immutable view of an observable list as it was at a given version.
+ *
+ * Snapshots are what {@link ObservableList#snapshot()} returns and what notifications carry as
+ * their resulting list. They never change after being created, so they can be read and iterated
+ * without any locking, for as long as needed, while the list keeps being modified. Their
+ * spliterator works directly on the underlying array and splits it in halves, which makes parallel
+ * streams over a snapshot scale with the number of cores.
+ *
+ * Each snapshot also carries the id of its list and the fingerprint of its elements, maintained by
+ * the list as it changes (see {@link FingerprintedList}): two snapshots are known to be different
+ * when their fingerprints differ, and equal when they are the same version of the same list,
+ * without looking at their elements, which must therefore not change their hash codes while they
+ * are in the list. Their hash code is computed once, on first use.
+ */
+public final class ListSnapshot<T> extends AbstractList<T> implements FingerprintedList<T>, RandomAccess {
+
+    private final String name;
+    private final long listId;
+    private final long version;
+    private final long fingerprint;
+    private final Object[] elements;
+    private int hashCode;
+
+    ListSnapshot(String name, long listId, long version, long fingerprint, Object[] elements) {
+        this.name = name;
+        this.listId = listId;
+        this.version = version;
+        this.fingerprint = fingerprint;
+        this.elements = elements;
+    }
+
+    /**
+     * Immutable list backed by the given array, which must not be modified afterwards.
+     */
+    static <T> List<T> of(Object[] elements) {
+        return new Slice<>(elements, 0, elements.length);
+    }
+
+    /**
+     * Immutable list backed by a range of the given array, which must not be modified afterwards.
+     */
+    static <T> List<T> of(Object[] elements, int fromIndex, int toIndex) {
+        return new Slice<>(elements, fromIndex, toIndex);
+    }
+
+    /**
+     * Immutable view of a range of this snapshot, sharing its array.
+     */
+    List<T> slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > elements.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range: " + fromIndex + "-" + toIndex + ", Size: " + elements.length);
+        }
+        return new Slice<>(elements, fromIndex, toIndex);
+    }
+
+    Object[] elements() {
+        return elements;
+    }
+
+    /**
+     * Name of the list this snapshot was taken from.
+     * @return name of the list
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Version of the list this snapshot corresponds to.
+     * @return version of the list
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSameVersionAs(FingerprintedList<?> other) {
+        if (!(other instanceof ListSnapshot)) {
+            return false;
+        }
+        ListSnapshot<?> snapshot = (ListSnapshot<?>) other;
+        return snapshot.listId == listId && snapshot.version == version;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj instanceof FingerprintedList) {
+            FingerprintedList<?> other = (FingerprintedList<?>) obj;
+            if (other.getFingerprint() != fingerprint) {
+                return false;
+            }
+            if (isSameVersionAs(other)) {
+                return true;
+            }
+        }
+        return super.equals(obj);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = hashCode;
+        if (result == 0) {
+            result = super.hashCode();
+            hashCode = result;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= elements.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+        }
+        return (T) elements[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, elements.length, Object[].class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        for (Object element : elements) {
+            action.accept((T) element);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(elements, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return name + "@" + version + " - " + super.toString();
+    }
+
+    /**
+     * Immutable range of an array.
+     */
+    static final class Slice<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[] elements;
+        private final int fromIndex;
+        private final int toIndex;
+
+        private Slice(Object[] elements, int fromIndex, int toIndex) {
+            this.elements = elements;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        Object[] elements() {
+            return elements;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= toIndex - fromIndex) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (toIndex - fromIndex));
+            }
+            return (T) elements[fromIndex + index];
+        }
+
+        @Override
+        public int size() {
+            return toIndex - fromIndex;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return Arrays.copyOfRange(elements, fromIndex, toIndex, Object[].class);
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return Spliterators.spliterator(elements, fromIndex, toIndex, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+    }
+}
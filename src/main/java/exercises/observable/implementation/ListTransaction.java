@@ -0,0 +1,230 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+
+import java.util.*;
+
+/**
+ * Changes to several {@link ObservableList}s, staged without locking and committed atomically
+ * (see {@link ListTransactionCoordinator}).
+ *
+ * The changes are applied in the order they were staged, while holding the write locks of all the
+ * lists concerned: if one of them fails (e.g. an index out of bounds, or the removal of a missing
+ * element), the ones already applied are undone, no version of any list becomes visible, and the
+ * exception is thrown by {@link #commit()}. Each change still produces its own notification, with
+ * the snapshot of its list right after it, but the notifications are only sent once the whole
+ * transaction is committed and all the locks are released.
+ */
+public final class ListTransaction {
+
+    private final ListTransactionCoordinator coordinator;
+    private final List<Operation<?>> operations = new ArrayList<>();
+    private boolean committed;
+
+    ListTransaction(ListTransactionCoordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    /**
+     * Stages the addition of the element at the end of the list.
+     * @param list list to change
+     * @param element element to add
+     * @param <T> type of the elements
+     * @return this transaction
+     */
+    public <T> ListTransaction add(ObservableList<T> list, T element) {
+        return stage(new Insertion<>(list, -1, element));
+    }
+
+    /**
+     * Stages the insertion of the element at the given index of the list.
+     * @param list list to change
+     * @param index index of the element, from 0 to the size of the list at that point of the
+     *              transaction
+     * @param element element to insert
+     * @param <T> type of the elements
+     * @return this transaction
+     */
+    public <T> ListTransaction add(ObservableList<T> list, int index, T element) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return stage(new Insertion<>(list, index, element));
+    }
+
+    /**
+     * Stages the removal of the first occurrence of the element from the list. Unlike
+     * {@link ObservableList#remove(Object)}, the transaction fails if the element is missing.
+     * @param list list to change
+     * @param element element to remove
+     * @param <T> type of the elements
+     * @return this transaction
+     */
+    public <T> ListTransaction remove(ObservableList<T> list, T element) {
+        return stage(new Removal<>(list, -1, element));
+    }
+
+    /**
+     * Stages the removal of the element at the given index of the list.
+     * @param list list to change
+     * @param index index of the element at that point of the transaction
+     * @param <T> type of the elements
+     * @return this transaction
+     */
+    public <T> ListTransaction remove(ObservableList<T> list, int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        return stage(new Removal<>(list, index, null));
+    }
+
+    /**
+     * Applies all the staged changes atomically, then notifies the listeners of each list and the
+     * listeners of the coordinator.
+     * @return notifications of the changes, in the order they were staged
+     * @throws IllegalStateException if the transaction was already committed
+     */
+    public List<ListNotification<?>> commit() {
+        if (committed) {
+            throw new IllegalStateException("Transaction already committed");
+        }
+        committed = true;
+        // lists are compared by identity: equal lists are still distinct lists to lock
+        Set<ObservableList<?>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ObservableList<?>> lists = new ArrayList<>();
+        for (Operation<?> operation : operations) {
+            if (distinct.add(operation.list)) {
+                lists.add(operation.list);
+            }
+        }
+        lists.sort(Comparator.comparingLong(ObservableList::getLockOrder));
+
+        List<ListNotification<?>> notifications = new ArrayList<>(operations.size());
+        int locked = 0;
+        try {
+            for (ObservableList<?> list : lists) {
+                list.lockForTransaction();
+                locked++;
+            }
+            int applied = 0;
+            try {
+                for (Operation<?> operation : operations) {
+                    notifications.add(operation.apply());
+                    applied++;
+                }
+            } catch (RuntimeException e) {
+                for (int i = applied - 1; i >= 0; i--) {
+                    operations.get(i).undo();
+                }
+                lists.forEach(ObservableList::rollBackTransaction);
+                throw e;
+            }
+            operations.forEach(Operation::publish);
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                lists.get(i).unlockForTransaction();
+            }
+        }
+
+        operations.forEach(Operation::notifyList);
+        List<ListNotification<?>> result = Collections.unmodifiableList(notifications);
+        if (!result.isEmpty()) {
+            coordinator.notifyAllListeners(result);
+        }
+        return result;
+    }
+
+    private ListTransaction stage(Operation<?> operation) {
+        if (committed) {
+            throw new IllegalStateException("Transaction already committed");
+        }
+        operations.add(operation);
+        return this;
+    }
+
+    /**
+     * Staged change of one list, applied and possibly undone under the write lock of the list.
+     */
+    private abstract static class Operation<T> {
+
+        final ObservableList<T> list;
+        ListSnapshot<T> snapshot;
+        ListNotification<T> notification;
+
+        Operation(ObservableList<T> list) {
+            this.list = list;
+        }
+
+        abstract ListNotification<T> apply();
+
+        abstract void undo();
+
+        void publish() {
+            list.publishStaged(snapshot);
+        }
+
+        void notifyList() {
+            list.notifyAllListeners(notification);
+        }
+    }
+
+    private static final class Insertion<T> extends Operation<T> {
+
+        private final int requestedIndex;
+        private final T element;
+        private int index;
+
+        private Insertion(ObservableList<T> list, int requestedIndex, T element) {
+            super(list);
+            this.requestedIndex = requestedIndex;
+            this.element = element;
+        }
+
+        @Override
+        ListNotification<T> apply() {
+            index = requestedIndex < 0 ? list.sizeInTransaction() : requestedIndex;
+            list.insertInTransaction(index, element);
+            snapshot = list.stageSnapshot();
+            notification = ListNotification.newListAddNotification(
+                    index, Collections.singletonList(element), snapshot);
+            return notification;
+        }
+
+        @Override
+        void undo() {
+            list.removeInTransaction(index);
+        }
+    }
+
+    private static final class Removal<T> extends Operation<T> {
+
+        private final int requestedIndex;
+        private final T element;
+        private int index;
+        private T removed;
+
+        private Removal(ObservableList<T> list, int requestedIndex, T element) {
+            super(list);
+            this.requestedIndex = requestedIndex;
+            this.element = element;
+        }
+
+        @Override
+        ListNotification<T> apply() {
+            index = requestedIndex < 0 ? list.indexOfInTransaction(element) : requestedIndex;
+            if (index < 0) {
+                throw new NoSuchElementException(element + " not found in " + list.getName());
+            }
+            removed = list.removeInTransaction(index);
+            snapshot = list.stageSnapshot();
+            notification = ListNotification.newListRemoveNotification(
+                    index, Collections.singletonList(removed), snapshot);
+            return notification;
+        }
+
+        @Override
+        void undo() {
+            list.insertInTransaction(index, removed);
+        }
+    }
+}
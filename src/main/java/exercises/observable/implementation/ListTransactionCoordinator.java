@@ -0,0 +1,72 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.Observable;
+import exercises.observable.model.TransactionListener;
+
+import java.util.List;
+
+/**
+ * Coordinator of atomic transactions over several {@link ObservableList}s, and observable of the
+ * transactions it commits.
+ *
+ * A transaction is staged with {@link #begin()} without taking any lock, then committed at once:
+ * the write locks of all the lists it touches are taken in a global order (so that concurrent
+ * transactions never deadlock), the changes are applied, and the locks are released before any
+ * listener is notified. Listeners of each list receive the notifications of that list as usual,
+ * but only once all the lists are in their final state; listeners of the coordinator receive all
+ * the notifications of the transaction together.
+ */
+public class ListTransactionCoordinator implements Observable<List<ListNotification<?>>, TransactionListener> {
+
+    private final NotificationEngine<List<ListNotification<?>>, TransactionListener> engine;
+
+    public ListTransactionCoordinator(String name) {
+        this.engine = new NotificationEngine<>(name, TransactionListener::onTransaction);
+    }
+
+    /**
+     * Starts staging a transaction. Nothing is locked or changed until it is committed.
+     * @return new transaction
+     */
+    public ListTransaction begin() {
+        return new ListTransaction(this);
+    }
+
+    /**
+     * Atomically moves the first occurrence of the element from one list to the end of the other.
+     * @param from list containing the element
+     * @param element element to move
+     * @param to list receiving the element
+     * @param <T> type of the elements
+     * @return notifications of the removal and of the addition
+     * @throws java.util.NoSuchElementException if the first list does not contain the element
+     */
+    public <T> List<ListNotification<?>> move(ObservableList<T> from, T element, ObservableList<T> to) {
+        return begin().remove(from, element).add(to, element).commit();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(TransactionListener listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(TransactionListener listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(List<ListNotification<?>> notifications) {
+        engine.notifyAllListeners(notifications);
+    }
+}
@@ -0,0 +1,62 @@
+package exercises.observable.implementation;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pending notifications of one listener. Whichever thread posts into an idle mailbox starts the
+ * task draining it on the executor, and the task exits once the mailbox is empty again, so the
+ * listener sees its notifications one at a time and in order.
+ */
+final class Mailbox<N> implements Runnable {
+
+    private final Consumer<? super N> consumer;
+    private final Executor executor;
+    private final Queue<N> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    Mailbox(Consumer<? super N> consumer, Executor executor) {
+        this.consumer = consumer;
+        this.executor = executor;
+    }
+
+    /**
+     * Appends the notification, and starts draining the mailbox if it was idle. If the executor
+     * rejects the task, the pending mail is dropped instead, so that the next post starts draining
+     * the mailbox again.
+     */
+    void post(N notification) {
+        queue.add(notification);
+        if (pending.getAndIncrement() == 0) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                do {
+                    queue.poll();
+                } while (pending.decrementAndGet() != 0);
+            }
+        }
+    }
+
+    /**
+     * Delivers the pending mail. Whatever a notification throws, errors included, is reported to
+     * the uncaught exception handler of the thread, and the mailbox moves on to the next one: it
+     * would otherwise stay busy forever, and never be drained again.
+     */
+    @Override
+    public void run() {
+        do {
+            N notification = queue.poll();
+            try {
+                consumer.accept(notification);
+            } catch (Throwable e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        } while (pending.decrementAndGet() != 0);
+    }
+}
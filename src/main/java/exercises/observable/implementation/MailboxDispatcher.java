@@ -0,0 +1,198 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.Observable;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous dispatcher giving each listener its own mailbox, for listeners which block (e.g. on
+ * I/O) while handling notifications.
+ *
+ * The dispatcher is registered as a listener of one or more observable lists. Every notification
+ * is appended to the mailbox of each of its listeners, and a mailbox with pending mail is drained
+ * by a thread of its own, so each listener still sees its notifications one at a time and in
+ * order, while a blocked listener only delays itself.
+ *
+ * On JDK 21 and later the mailboxes are drained by virtual threads, which are looked up at runtime
+ * so that the code still compiles and runs on Java 8; there, and whenever virtual threads are not
+ * available, a cached pool of daemon platform threads is used instead.
+ */
+public class MailboxDispatcher<T> implements ListListener<T>, Observable<ListNotification<T>, ListListener<T>>, AutoCloseable {
+
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = virtualThreadFactory("probe-") != null;
+
+    private final ThreadFactory virtualThreadFactory;
+    private final ExecutorService platformExecutor;
+    private final Map<ListListener<T>, Mailbox<ListNotification<T>>> mailboxes;
+    private volatile boolean closed;
+
+    /**
+     * Creates a dispatcher which uses virtual threads when the running JDK supports them.
+     * @param name name of the dispatcher, used for its threads
+     */
+    public MailboxDispatcher(String name) {
+        this(name, VIRTUAL_THREADS_SUPPORTED);
+    }
+
+    /**
+     * Creates a dispatcher.
+     * @param name name of the dispatcher, used for its threads
+     * @param useVirtualThreads whether to use virtual threads, which must then be supported by the
+     *                          running JDK
+     */
+    public MailboxDispatcher(String name, boolean useVirtualThreads) {
+        if (useVirtualThreads && !VIRTUAL_THREADS_SUPPORTED) {
+            throw new UnsupportedOperationException("Virtual threads are not available in this JDK");
+        }
+        this.mailboxes = new ConcurrentHashMap<>();
+        if (useVirtualThreads) {
+            this.virtualThreadFactory = virtualThreadFactory(name + "-mailbox-");
+            this.platformExecutor = null;
+        } else {
+            this.virtualThreadFactory = null;
+            AtomicInteger count = new AtomicInteger();
+            this.platformExecutor = Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, name + "-mailbox-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Whether the running JDK supports virtual threads.
+     * @return true if virtual threads are available
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREADS_SUPPORTED;
+    }
+
+    /**
+     * Whether this dispatcher drains its mailboxes on virtual threads.
+     * @return true if virtual threads are used
+     */
+    public boolean usesVirtualThreads() {
+        return platformExecutor == null;
+    }
+
+    /**
+     * Appends the notification received from an observable list to every mailbox.
+     * @param notification notification object
+     */
+    @Override
+    public void onListChange(ListNotification<T> notification) {
+        notifyAllListeners(notification);
+    }
+
+    /**
+     * Number of registered listeners.
+     * @return number of listeners
+     */
+    public int getListenerCount() {
+        return mailboxes.size();
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(ListListener<T> listener) {
+        mailboxes.computeIfAbsent(listener, key -> new Mailbox<>(key::onListChange, this::execute));
+    }
+
+    /**
+     * Unregisters the listener. Notifications already in its mailbox are still delivered.
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(ListListener<T> listener) {
+        mailboxes.remove(listener);
+    }
+
+    /**
+     * Appends a copy of the notification to the mailbox of every registered listener, without
+     * waiting for any of them, since notifications reused by their list (such as the ones of
+     * {@link PooledObservableList}) are only valid during this call. Notifications sent after the
+     * dispatcher was closed are dropped.
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(ListNotification<T> notification) {
+        if (closed || mailboxes.isEmpty()) {
+            return;
+        }
+        ListNotification<T> copy = notification.copy();
+        for (Mailbox<ListNotification<T>> mailbox : mailboxes.values()) {
+            mailbox.post(copy);
+        }
+    }
+
+    /**
+     * Stops accepting notifications. Mail already posted is still delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (platformExecutor != null) {
+            platformExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Starts draining a mailbox. Once the dispatcher is closed, the platform executor rejects the
+     * task, and the mailbox drops the mail it was posted while closing.
+     */
+    private void execute(Runnable task) {
+        if (platformExecutor == null) {
+            virtualThreadFactory.newThread(task).start();
+        } else {
+            platformExecutor.execute(task);
+        }
+    }
+
+    /**
+     * Executor starting each task on a new virtual thread when the running JDK supports them, or
+     * on a cached pool of daemon threads otherwise. The executor is never shut down: idle pooled
+     * threads exit on their own.
+     */
+    static Executor newDaemonExecutor(String prefix) {
+        ThreadFactory factory = virtualThreadFactory(prefix);
+        if (factory != null) {
+            return task -> factory.newThread(task).start();
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Looks up {@code Thread.ofVirtual().name(prefix, 0).factory()} reflectively, returning null
+     * when it is not available (before JDK 21, or JDK 19-20 without preview features).
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class)
+                    .invoke(builder, prefix, 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
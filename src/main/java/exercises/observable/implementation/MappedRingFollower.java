@@ -0,0 +1,233 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ElementCodec;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static exercises.observable.implementation.MappedRingLayout.*;
+
+/**
+ * Follower side of the replication of an observable list through a memory-mapped ring file (see
+ * {@link MappedRingWriter}).
+ *
+ * The follower keeps a read-only replica of the master list: every record read from the ring is
+ * replayed on the replica, which then notifies its own local listeners as any observable list
+ * would. Records carrying the resulting list are reconciled with the replica, which is therefore
+ * only changed, and its listeners only notified, where it differs from the master list. Records are
+ * read straight from the mapped file, and each one is checked against the position claimed by the
+ * writer after being decoded, so that a record overwritten while it was being read, even by a
+ * record not published yet, is discarded. A follower which falls more than a whole ring behind the
+ * writer starts over from the latest snapshot record.
+ */
+public class MappedRingFollower<T> implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final ByteBuffer data;
+    private final int capacity;
+    private final ListNotificationCodec<T> codec;
+    private final Replica<T> replica;
+
+    private ListNotificationCodec<T>.Decoder decoder;
+    private long readPosition = -1L;
+    private Thread poller;
+    private volatile boolean polling;
+
+    /**
+     * Opens a ring file created by a {@link MappedRingWriter}.
+     * @param file ring file
+     * @param elementCodec codec of the elements of the list
+     * @param replicaName name of the replica list
+     * @throws IOException if the file cannot be opened or is not a ring file
+     */
+    public MappedRingFollower(Path file, ElementCodec<T> elementCodec, String replicaName) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a ring file: " + file);
+            }
+            this.capacity = header.getInt(CAPACITY_OFFSET);
+            this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) HEADER_SIZE + capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.mapped.position(HEADER_SIZE);
+        this.data = mapped.slice();
+        this.codec = new ListNotificationCodec<>(elementCodec, false);
+        this.replica = new Replica<>(replicaName);
+    }
+
+    /**
+     * Read-only replica of the master list, on which local listeners can be registered.
+     * @return the replica
+     */
+    public ObservableList<T> getReplica() {
+        return replica;
+    }
+
+    /**
+     * Replays on the replica every record written since the last call.
+     * @return number of records replayed
+     */
+    public synchronized int poll() {
+        int replayed = 0;
+        long published = publishedPosition();
+        while (true) {
+            if (readPosition < 0 || published - readPosition > capacity) {
+                if (!restartFromSnapshot(published)) {
+                    return replayed;
+                }
+            }
+            if (readPosition >= published) {
+                return replayed;
+            }
+            int offset = (int) (readPosition % capacity);
+            int length = offset + LENGTH_SIZE > capacity ? WRAP_MARKER : data.getInt(offset);
+            if (length == WRAP_MARKER) {
+                readPosition += capacity - offset;
+                continue;
+            }
+            boolean snapshot = (length & SNAPSHOT_FLAG) != 0;
+            length &= ~SNAPSHOT_FLAG;
+
+            ListNotification<T> notification;
+            boolean hasSnapshot;
+            try {
+                ByteBuffer record = data.duplicate();
+                record.limit(offset + LENGTH_SIZE + length);
+                record.position(offset + LENGTH_SIZE);
+                if (snapshot) {
+                    decoder = codec.newDecoder();
+                }
+                notification = decoder.decode(record);
+                hasSnapshot = decoder.hasSnapshot();
+            } catch (RuntimeException e) {
+                if (claimedPosition() - readPosition <= capacity) {
+                    throw e;
+                }
+                // the record was overwritten while being read
+                readPosition = -1L;
+                continue;
+            }
+            if (claimedPosition() - readPosition > capacity) {
+                readPosition = -1L;
+                continue;
+            }
+            replica.apply(notification, hasSnapshot);
+            readPosition += LENGTH_SIZE + length;
+            replayed++;
+        }
+    }
+
+    /**
+     * Polls the ring on a background daemon thread, sleeping for the given interval whenever there
+     * is nothing new to replay.
+     * @param intervalMillis polling interval, in milliseconds
+     */
+    public synchronized void startPolling(long intervalMillis) {
+        if (poller != null) {
+            return;
+        }
+        polling = true;
+        poller = new Thread(() -> {
+            while (polling) {
+                if (poll() == 0) {
+                    try {
+                        Thread.sleep(intervalMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }, replica.getName() + "-follower");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    /**
+     * Stops polling and releases the file. The replica keeps its last state.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        Thread stopped;
+        synchronized (this) {
+            polling = false;
+            stopped = poller;
+        }
+        if (stopped != null) {
+            stopped.interrupt();
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+    }
+
+    private long publishedPosition() {
+        long position = mapped.getLong(WRITE_POSITION_OFFSET);
+        loadFence();
+        return position;
+    }
+
+    private long claimedPosition() {
+        loadFence();
+        return mapped.getLong(CLAIM_POSITION_OFFSET);
+    }
+
+    private boolean restartFromSnapshot(long published) {
+        long snapshotPosition = mapped.getLong(SNAPSHOT_POSITION_OFFSET);
+        if (snapshotPosition < 0 || published - snapshotPosition > capacity) {
+            return false;
+        }
+        readPosition = snapshotPosition;
+        return true;
+    }
+
+    /**
+     * Observable list which can only be modified by its follower, while it replays a record.
+     */
+    private static final class Replica<T> extends ObservableList<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient Thread applying;
+
+        private Replica(String name) {
+            super(name);
+        }
+
+        private void apply(ListNotification<T> notification, boolean hasSnapshot) {
+            applying = Thread.currentThread();
+            try {
+                ListNotificationCodec.apply(this, notification.getType() == ListNotificationType.REMOVE,
+                        notification.getIndex(), notification.getChangedElements(),
+                        hasSnapshot ? notification.getResultingList() : null);
+            } finally {
+                applying = null;
+            }
+        }
+
+        /**
+         * Only the thread replaying a record may change the replica, not any thread writing
+         * meanwhile. Every change of an observable list goes through this check.
+         */
+        @Override
+        protected void checkWritable() {
+            if (applying != Thread.currentThread()) {
+                throw new UnsupportedOperationException("Replica " + getName() + " is read-only");
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package exercises.observable.implementation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Layout of the memory-mapped ring file shared by {@link MappedRingWriter} and
+ * {@link MappedRingFollower}.
+ *
+ * The file starts with a header holding a magic number, the capacity of the data region, the
+ * total number of bytes ever written (so that the position in the data region is that number
+ * modulo the capacity), the write position of the latest snapshot record, from which a follower
+ * can start decoding with a fresh decoder, and the position up to which the writer may be
+ * overwriting the ring, published before it writes a record. Each record in the data region is an
+ * int length followed by the encoded notification; the length of snapshot records is flagged,
+ * since they restart the delta encoding, and a negative length marks the end of the data region,
+ * the next record starting back at its beginning.
+ *
+ * The positions are published and read with plain accesses to the mapped memory, ordered with the
+ * records by explicit store and load fences, which hold on weakly-ordered platforms too.
+ */
+final class MappedRingLayout {
+
+    static final int MAGIC = 0x4F4C5354;
+    static final int MAGIC_OFFSET = 0;
+    static final int CAPACITY_OFFSET = 4;
+    static final int WRITE_POSITION_OFFSET = 8;
+    static final int SNAPSHOT_POSITION_OFFSET = 16;
+    static final int CLAIM_POSITION_OFFSET = 24;
+    static final int HEADER_SIZE = 64;
+    static final int LENGTH_SIZE = 4;
+    static final int WRAP_MARKER = -1;
+    static final int SNAPSHOT_FLAG = 1 << 30;
+
+    private static final MethodHandle STORE_FENCE = fence("storeFence");
+    private static final MethodHandle LOAD_FENCE = fence("loadFence");
+
+    private MappedRingLayout() {
+    }
+
+    /**
+     * Keeps the stores to the mapped memory made before the call ordered before those made after
+     * it, for the other processes too: the writer calls it between the records and the positions
+     * it publishes. A volatile access would only order the accesses to the Java heap, while plain
+     * stores to the mapped memory may still be reordered by the hardware on weakly-ordered
+     * platforms such as AArch64 or POWER.
+     */
+    static void storeFence() {
+        try {
+            STORE_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Keeps the loads from the mapped memory made before the call ordered before those made after
+     * it: followers call it between reading a position published by the writer and reading the
+     * records it covers, in the opposite order to the writer.
+     */
+    static void loadFence() {
+        try {
+            LOAD_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up the fence with the given name: {@code VarHandle}'s from Java 9, and
+     * {@code sun.misc.Unsafe}'s on Java 8, both looked up at runtime so that the code still
+     * compiles and runs on Java 8.
+     */
+    private static MethodHandle fence(String name) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType type = MethodType.methodType(void.class);
+        try {
+            return lookup.findStatic(Class.forName("java.lang.invoke.VarHandle"), name, type);
+        } catch (ReflectiveOperationException e) {
+            try {
+                Class<?> unsafeType = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeType.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                return lookup.findVirtual(unsafeType, name, type).bindTo(field.get(null));
+            } catch (ReflectiveOperationException | RuntimeException unavailable) {
+                throw new ExceptionInInitializerError(unavailable);
+            }
+        }
+    }
+}
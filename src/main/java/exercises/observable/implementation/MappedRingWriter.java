@@ -0,0 +1,193 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ElementCodec;
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import static exercises.observable.implementation.MappedRingLayout.*;
+
+/**
+ * Master side of the replication of an observable list to other processes of the same host,
+ * through a memory-mapped ring file (see {@link MappedRingFollower} for the other side).
+ *
+ * The writer listens to the master list and encodes every notification with a
+ * {@link ListNotificationCodec}, without the resulting list, so that each record only costs as much
+ * as the change itself. Each record is encoded aside and then copied into the mapped file, after
+ * claiming the bytes it overwrites, so that followers can tell whether a record they read was
+ * overwritten meanwhile. Every so often (after a given number of records, and at least
+ * twice per turn of the ring) it also writes a snapshot record, starting a fresh delta stream, from
+ * which followers can start or catch up after falling a whole ring behind.
+ *
+ * The writer keeps track of the version of the list carried by each notification. When a version
+ * was skipped, because the list changed without notification (set, sort, replaceAll) or because
+ * notifications of concurrent writers arrived out of order, it writes a snapshot record instead
+ * of the change, so that followers catch up with the list at once, and it drops notifications of
+ * versions older than the last one written.
+ */
+public class MappedRingWriter<T> implements ListListener<T>, AutoCloseable {
+
+    private final ObservableList<T> source;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final ByteBuffer data;
+    private final ByteBuffer scratch;
+    private final int capacity;
+    private final ListNotificationCodec<T> codec;
+    private final int snapshotInterval;
+
+    private ListNotificationCodec<T>.Encoder encoder;
+    private long writePosition;
+    private long snapshotPosition;
+    private long sequence;
+    private long lastVersion;
+    private int recordsSinceSnapshot;
+
+    /**
+     * Creates (or truncates) the ring file, writes the current content of the list as the first
+     * snapshot and starts listening to the list.
+     * @param source master list
+     * @param file ring file
+     * @param capacity size of the data region of the ring, in bytes
+     * @param elementCodec codec of the elements of the list
+     * @param snapshotInterval maximum number of records between two snapshot records
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public MappedRingWriter(ObservableList<T> source, Path file, int capacity, ElementCodec<T> elementCodec,
+                            int snapshotInterval) throws IOException {
+        if (capacity < LENGTH_SIZE * 2 || capacity >= SNAPSHOT_FLAG) {
+            throw new IllegalArgumentException("Invalid ring capacity: " + capacity);
+        }
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: " + snapshotInterval);
+        }
+        this.source = source;
+        this.capacity = capacity;
+        this.codec = new ListNotificationCodec<>(elementCodec, false);
+        this.snapshotInterval = snapshotInterval;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) HEADER_SIZE + capacity);
+        this.mapped.position(HEADER_SIZE);
+        this.data = mapped.slice();
+        this.scratch = ByteBuffer.allocate(capacity - LENGTH_SIZE);
+
+        mapped.putInt(CAPACITY_OFFSET, capacity);
+        mapped.putLong(WRITE_POSITION_OFFSET, 0L);
+        mapped.putLong(CLAIM_POSITION_OFFSET, 0L);
+        mapped.putLong(SNAPSHOT_POSITION_OFFSET, -1L);
+        mapped.putInt(MAGIC_OFFSET, MAGIC);
+
+        synchronized (this) {
+            source.register(this);
+            ListSnapshot<T> snapshot = source.snapshot();
+            lastVersion = snapshot.getVersion();
+            writeSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * Writes the notification into the ring.
+     * @param notification notification object
+     */
+    @Override
+    public synchronized void onListChange(ListNotification<T> notification) {
+        if (!channel.isOpen()) {
+            return;
+        }
+        List<T> resultingList = notification.getResultingList();
+        if (resultingList instanceof ListSnapshot) {
+            long version = ((ListSnapshot<T>) resultingList).getVersion();
+            if (version <= lastVersion) {
+                // already covered by a snapshot record
+                return;
+            }
+            boolean skipped = version != lastVersion + 1;
+            lastVersion = version;
+            if (skipped) {
+                // changes without notifications (set, sort, replaceAll) or notified out of order
+                sequence++;
+                writeSnapshot(resultingList);
+                return;
+            }
+        }
+        write(++sequence, notification, false);
+        if (++recordsSinceSnapshot >= snapshotInterval || writePosition - snapshotPosition >= capacity / 2) {
+            writeSnapshot(resultingList);
+        }
+    }
+
+    /**
+     * Number of bytes written into the ring since it was created.
+     * @return write position
+     */
+    public synchronized long getWritePosition() {
+        return writePosition;
+    }
+
+    /**
+     * Stops listening to the list and releases the file. Followers keep the state they had.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        source.unregister(this);
+        mapped.force();
+        channel.close();
+    }
+
+    private void writeSnapshot(List<T> content) {
+        encoder = codec.newEncoder();
+        long start = write(sequence, ListNotification.newListAddNotification(
+                ListNotification.UNKNOWN_INDEX, Collections.emptyList(), content), true);
+        snapshotPosition = start;
+        recordsSinceSnapshot = 0;
+        mapped.putLong(SNAPSHOT_POSITION_OFFSET, start);
+    }
+
+    /**
+     * Encodes the notification, then claims the bytes it is about to overwrite, wrapping around to
+     * the start of the data region if the record does not fit before its end, copies the record
+     * there and publishes the new write position.
+     * @return position at which the record was written
+     */
+    private long write(long recordSequence, ListNotification<T> notification, boolean snapshot) {
+        scratch.clear();
+        try {
+            encoder.encode(recordSequence, notification, scratch);
+        } catch (BufferOverflowException e) {
+            throw new IllegalStateException("Record larger than the ring (" + capacity + " bytes)");
+        }
+        scratch.flip();
+        int length = scratch.remaining();
+        int offset = (int) (writePosition % capacity);
+        int padding = offset + LENGTH_SIZE + length > capacity ? capacity - offset : 0;
+        mapped.putLong(CLAIM_POSITION_OFFSET, writePosition + padding + LENGTH_SIZE + length);
+        storeFence();
+        if (padding > 0) {
+            if (offset + LENGTH_SIZE <= capacity) {
+                data.putInt(offset, WRAP_MARKER);
+            }
+            writePosition += padding;
+            offset = 0;
+        }
+        ByteBuffer target = data.duplicate();
+        target.position(offset + LENGTH_SIZE);
+        target.put(scratch);
+        long start = writePosition;
+        data.putInt(offset, snapshot ? length | SNAPSHOT_FLAG : length);
+        writePosition += LENGTH_SIZE + length;
+        storeFence();
+        mapped.putLong(WRITE_POSITION_OFFSET, writePosition);
+        return start;
+    }
+}
@@ -0,0 +1,275 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.Observable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Listener registry and dispatcher shared by the observable collections, whatever the type of
+ * their notifications and listeners.
+ *
+ * Listeners are registered in one of the {@link ListenerTier}s: critical listeners are notified
+ * first and default listeners next, both on the notifying thread (which therefore waits for both,
+ * see {@link ListenerTier}), while best-effort listeners are notified asynchronously, each through a
+ * mailbox of its own, so that the notifying thread does not wait for them. Listeners of the default tier can also be registered through weak or soft
+ * references; they are unregistered automatically once collected, by polling a reference queue
+ * instead of scanning the listeners.
+ *
+ * Synchronous delivery allocates nothing: the registrations of each tier are also kept in an
+ * array, refreshed whenever they change, so that notifying does not even create an iterator.
+ * Notifications which are only valid during the synchronous callbacks are detached (e.g. copied)
+ * before being posted to the best-effort mailboxes.
+ *
+ * @param <N> type of the notifications
+ * @param <L> type of the listeners
+ */
+public class NotificationEngine<N, L> implements Observable<N, L> {
+
+    private final String name;
+    private final BiConsumer<? super L, ? super N> delivery;
+    private final UnaryOperator<N> detach;
+
+    private final Set<Registration<L>> criticalListeners = new CopyOnWriteArraySet<>();
+    private final Set<Registration<L>> listeners = new CopyOnWriteArraySet<>();
+    private final Map<L, Mailbox<N>> bestEffortListeners = new ConcurrentHashMap<>();
+    private final ReferenceQueue<L> collectedListeners = new ReferenceQueue<>();
+    private volatile Registration<?>[] criticalRegistrations = new Registration<?>[0];
+    private volatile Registration<?>[] registrations = new Registration<?>[0];
+    private volatile Executor bestEffortExecutor;
+
+    /**
+     * Creates an engine.
+     * @param name name of the engine, used for the threads of the best-effort tier
+     * @param delivery how a notification is delivered to a listener (e.g.
+     *                 {@code ListListener::onListChange})
+     */
+    public NotificationEngine(String name, BiConsumer<? super L, ? super N> delivery) {
+        this(name, delivery, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates an engine for notifications which are only valid while they are being delivered.
+     * @param name name of the engine, used for the threads of the best-effort tier
+     * @param delivery how a notification is delivered to a listener
+     * @param detach how a notification is turned into one which can be posted to a best-effort
+     *               mailbox (e.g. {@code ListNotification::copy})
+     */
+    public NotificationEngine(String name, BiConsumer<? super L, ? super N> delivery, UnaryOperator<N> detach) {
+        this.name = name;
+        this.delivery = delivery;
+        this.detach = detach;
+    }
+
+    /**
+     * Registers a listener in the default tier.
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(L listener) {
+        register(listener, ListenerTier.DEFAULT);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(L listener, ListenerTier tier) {
+        purgeCollectedListeners();
+        switch (tier) {
+            case CRITICAL:
+                criticalListeners.add(new StrongRegistration<>(listener));
+                break;
+            case BEST_EFFORT:
+                bestEffortListeners.computeIfAbsent(listener, key ->
+                        new Mailbox<>(notification -> delivery.accept(key, notification), bestEffortExecutor()));
+                break;
+            default:
+                listeners.add(new StrongRegistration<>(listener));
+                break;
+        }
+        refreshRegistrations();
+    }
+
+    /**
+     * Registers a listener in the default tier through a weak reference: the engine does not keep
+     * it alive, and it is unregistered automatically once it has been garbage collected. The caller
+     * must therefore hold a strong reference to the listener for as long as it should be notified.
+     * @param listener listener to register
+     */
+    public void registerWeakly(L listener) {
+        purgeCollectedListeners();
+        listeners.add(new WeakRegistration<>(listener, collectedListeners));
+        refreshRegistrations();
+    }
+
+    /**
+     * Registers a listener in the default tier through a soft reference: the engine keeps it alive
+     * until the garbage collector needs the memory, after which it is unregistered automatically.
+     * @param listener listener to register
+     */
+    public void registerSoftly(L listener) {
+        purgeCollectedListeners();
+        listeners.add(new SoftRegistration<>(listener, collectedListeners));
+        refreshRegistrations();
+    }
+
+    /**
+     * Unregisters the listener from every tier. Notifications already in its best-effort mailbox
+     * are still delivered.
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(L listener) {
+        criticalListeners.removeIf(registration -> listener.equals(registration.get()));
+        listeners.removeIf(registration -> listener.equals(registration.get()));
+        bestEffortListeners.remove(listener);
+        purgeCollectedListeners();
+        refreshRegistrations();
+    }
+
+    /**
+     * Number of registered listeners in all tiers, including weakly or softly registered ones which
+     * have not been collected yet.
+     * @return number of listeners
+     */
+    public int getListenerCount() {
+        purgeCollectedListeners();
+        return criticalListeners.size() + listeners.size() + bestEffortListeners.size();
+    }
+
+    /**
+     * Whether any listener is registered in the best-effort tier, so that notifications will be
+     * detached before being posted to it.
+     * @return true if there are best-effort listeners
+     */
+    public boolean hasBestEffortListeners() {
+        return !bestEffortListeners.isEmpty();
+    }
+
+    /**
+     * Notifies the critical tier, then the default tier, and posts the notification to the
+     * mailboxes of the best-effort tier.
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(N notification) {
+        purgeCollectedListeners();
+        deliver(criticalRegistrations, notification);
+        deliver(registrations, notification);
+        if (!bestEffortListeners.isEmpty()) {
+            N detached = detach.apply(notification);
+            for (Mailbox<N> mailbox : bestEffortListeners.values()) {
+                mailbox.post(detached);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(Registration<?>[] registrations, N notification) {
+        for (Registration<?> registration : registrations) {
+            L listener = ((Registration<L>) registration).get();
+            if (listener != null) {
+                delivery.accept(listener, notification);
+            }
+        }
+    }
+
+    /**
+     * Copies the registrations of the synchronous tiers into the arrays used for delivery. Any
+     * refresh made after a change of the registrations reflects it, whatever the order in which
+     * concurrent refreshes run.
+     */
+    private synchronized void refreshRegistrations() {
+        criticalRegistrations = criticalListeners.toArray(new Registration<?>[0]);
+        registrations = listeners.toArray(new Registration<?>[0]);
+    }
+
+    /**
+     * Removes the listeners whose reference was cleared by the garbage collector. Only the
+     * references enqueued since the last call are visited, so this costs nothing when no listener
+     * was collected.
+     */
+    private void purgeCollectedListeners() {
+        Reference<? extends L> collected;
+        boolean purged = false;
+        while ((collected = collectedListeners.poll()) != null) {
+            listeners.remove(collected);
+            purged = true;
+        }
+        if (purged) {
+            refreshRegistrations();
+        }
+    }
+
+    private Executor bestEffortExecutor() {
+        Executor executor = bestEffortExecutor;
+        if (executor == null) {
+            synchronized (bestEffortListeners) {
+                executor = bestEffortExecutor;
+                if (executor == null) {
+                    executor = MailboxDispatcher.newDaemonExecutor(name + "-best-effort-");
+                    bestEffortExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Registered listener, possibly through a reference.
+     */
+    private interface Registration<L> {
+
+        L get();
+    }
+
+    private static final class StrongRegistration<L> implements Registration<L> {
+
+        private final L listener;
+
+        private StrongRegistration(L listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public L get() {
+            return listener;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof StrongRegistration && listener.equals(((StrongRegistration<?>) obj).listener);
+        }
+
+        @Override
+        public int hashCode() {
+            return listener.hashCode();
+        }
+    }
+
+    private static final class WeakRegistration<L> extends WeakReference<L> implements Registration<L> {
+
+        private WeakRegistration(L listener, ReferenceQueue<L> queue) {
+            super(listener, queue);
+        }
+    }
+
+    private static final class SoftRegistration<L> extends SoftReference<L> implements Registration<L> {
+
+        private SoftRegistration(L listener, ReferenceQueue<L> queue) {
+            super(listener, queue);
+        }
+    }
+}
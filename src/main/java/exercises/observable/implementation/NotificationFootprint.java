@@ -0,0 +1,72 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Estimates the heap retained by notifications.
+ *
+ * The estimate covers the notification and its two lists (wrappers and reference arrays), counting
+ * an array shared by both lists only once. The elements themselves are not counted, since they are
+ * shared with the list. Sizes assume a 64-bit JVM with compressed references (12-byte object
+ * headers, 4-byte references, 8-byte alignment).
+ */
+public final class NotificationFootprint {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private static final long NOTIFICATION = align(OBJECT_HEADER + 3 * REFERENCE + 4);
+    private static final long SNAPSHOT = align(OBJECT_HEADER + 2 * REFERENCE + 3 * 8 + 2 * 4);
+    private static final long SLICE = align(OBJECT_HEADER + REFERENCE + 3 * 4);
+    private static final long ARRAY_LIST = align(OBJECT_HEADER + REFERENCE + 8);
+    private static final long SINGLETON = align(OBJECT_HEADER + REFERENCE);
+    private static final long EMPTY_LIST = 0L;
+    private static final Class<?> SINGLETON_LIST_CLASS = Collections.singletonList(null).getClass();
+
+    private NotificationFootprint() {
+    }
+
+    /**
+     * Estimated number of bytes retained by the notification, excluding the elements.
+     * @param notification notification to measure
+     * @return estimated retained size, in bytes
+     */
+    public static long estimateRetainedBytes(ListNotification<?> notification) {
+        Set<Object> arrays = Collections.newSetFromMap(new IdentityHashMap<>());
+        return NOTIFICATION
+                + estimate(notification.getChangedElements(), arrays)
+                + estimate(notification.getResultingList(), arrays);
+    }
+
+    private static long estimate(List<?> list, Set<Object> arrays) {
+        if (list == null || list == Collections.emptyList()) {
+            return EMPTY_LIST;
+        }
+        if (list instanceof ListSnapshot) {
+            return SNAPSHOT + array(((ListSnapshot<?>) list).elements(), arrays);
+        }
+        if (list instanceof ListSnapshot.Slice) {
+            return SLICE + array(((ListSnapshot.Slice<?>) list).elements(), arrays);
+        }
+        if (list.getClass() == SINGLETON_LIST_CLASS) {
+            return SINGLETON;
+        }
+        long wrapper = list instanceof ArrayList ? ARRAY_LIST : align(OBJECT_HEADER + REFERENCE);
+        return wrapper + align(ARRAY_HEADER + (long) REFERENCE * list.size());
+    }
+
+    private static long array(Object[] elements, Set<Object> arrays) {
+        return arrays.add(elements) ? align(ARRAY_HEADER + (long) REFERENCE * elements.length) : 0L;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
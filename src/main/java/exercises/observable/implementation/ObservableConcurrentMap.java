@@ -0,0 +1,301 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.MapListener;
+import exercises.observable.model.MapNotification;
+import exercises.observable.model.Observable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Implementation of ConcurrentMap with Observable capabilities, backed by a ConcurrentHashMap.
+ *
+ * Every change goes through {@link ConcurrentHashMap#compute}, so it is atomic for its key and only
+ * locks the bin of that key, and it captures the previous value of the key at the same time. Every
+ * change of a key sends one notification, once the change is done: bulk operations such as
+ * {@code putAll} or {@code clear} send one notification per changed key, and writing a key with the
+ * value it already had sends none. Like ConcurrentHashMap, the map does not accept null keys or
+ * values.
+ *
+ * The entry, key and value views are read-only, weakly consistent views of the map.
+ */
+public class ObservableConcurrentMap<K, V> extends AbstractMap<K, V>
+        implements ConcurrentMap<K, V>, Observable<MapNotification<K, V>, MapListener<K, V>> {
+
+    private final String name;
+    private final ConcurrentHashMap<K, V> map;
+    private final Map<K, V> readOnlyMap;
+    private final NotificationEngine<MapNotification<K, V>, MapListener<K, V>> engine;
+
+    public ObservableConcurrentMap(String name) {
+        this.name = name;
+        this.map = new ConcurrentHashMap<>();
+        this.readOnlyMap = Collections.unmodifiableMap(map);
+        this.engine = new NotificationEngine<>(name, MapListener::onMapChange);
+    }
+
+    /**
+     * Name given to this map.
+     * @return name of the map
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Copy of the content of the map.
+     * @return unmodifiable copy of the map
+     */
+    public Map<K, V> snapshot() {
+        return Collections.unmodifiableMap(new HashMap<>(map));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V get(Object key) {
+        return map.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return map.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        return map.containsValue(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        map.forEach(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> value).oldValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(Object key) {
+        return update(key, (k, current) -> null).oldValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> current == null ? value : current).oldValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(value);
+        Change<V> change = update(key, (k, current) -> value.equals(current) ? null : current);
+        return change.oldValue != null && change.newValue == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V replace(K key, V value) {
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> current == null ? null : value).oldValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        Change<V> change = update(key, (k, current) -> oldValue.equals(current) ? newValue : current);
+        return oldValue.equals(change.oldValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return update(key, (k, current) -> current == null ? mappingFunction.apply(k) : current).newValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return update(key, (k, current) -> current == null ? null : remappingFunction.apply(k, current)).newValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return update(key, remappingFunction).newValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        return update(key, (k, current) -> current == null ? value : remappingFunction.apply(current, value)).newValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        for (K key : map.keySet()) {
+            update(key, (k, current) -> current == null ? null : Objects.requireNonNull(function.apply(k, current)));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        for (K key : map.keySet()) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Read-only view of the entries.
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return readOnlyMap.entrySet();
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(MapListener<K, V> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(MapListener<K, V> listener, ListenerTier tier) {
+        engine.register(listener, tier);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(MapListener<K, V> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(MapNotification<K, V> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+    /**
+     * Atomically remaps the key, then notifies its change, if any.
+     */
+    @SuppressWarnings("unchecked")
+    private Change<V> update(Object key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        Change<V> change = new Change<>();
+        change.newValue = map.compute((K) key, (k, current) -> {
+            change.oldValue = current;
+            return remapping.apply(k, current);
+        });
+        MapNotification<K, V> notification = ObservableHashMap.change((K) key,
+                change.oldValue != null, change.oldValue, change.newValue != null, change.newValue);
+        if (notification != null) {
+            notifyAllListeners(notification);
+        }
+        return change;
+    }
+
+    /**
+     * Values of a key before and after a change.
+     */
+    private static final class Change<V> {
+
+        private V oldValue;
+        private V newValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+}
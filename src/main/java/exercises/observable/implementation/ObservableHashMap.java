@@ -0,0 +1,415 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.MapListener;
+import exercises.observable.model.MapNotification;
+import exercises.observable.model.Observable;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Implementation of HashMap with Observable capabilities, split into independently locked stripes.
+ *
+ * Each key belongs to one stripe, a HashMap guarded by a read-write lock of its own, so that
+ * operations on keys of different stripes never contend. Like HashMap, the map accepts null keys
+ * and values. Every change of a key sends one notification, after the lock of its stripe was
+ * released: bulk operations such as {@code putAll} or {@code clear} send one notification per
+ * changed key, and writing a key with the value it already had sends none. Functions given to
+ * {@code compute}, {@code merge} and the like run while holding the lock of the key's stripe, so
+ * they should be short and must not access the map.
+ *
+ * The entry, key and value views are read-only snapshots (see {@link #snapshot()}), in which each
+ * stripe is seen in a consistent state, although the stripes are not frozen together.
+ */
+public class ObservableHashMap<K, V> extends AbstractMap<K, V>
+        implements Observable<MapNotification<K, V>, MapListener<K, V>> {
+
+    private final String name;
+    private final HashMap<K, V>[] stripes;
+    private final ReentrantReadWriteLock[] locks;
+    private final int stripeMask;
+    private final int stripeShift;
+    private final NotificationEngine<MapNotification<K, V>, MapListener<K, V>> engine;
+
+    /**
+     * Creates a map with four stripes per available processor (rounded up to a power of two).
+     * @param name name of the map
+     */
+    public ObservableHashMap(String name) {
+        this(name, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Creates a map with the given number of stripes (rounded up to a power of two).
+     * @param name name of the map
+     * @param stripeCount minimum number of stripes
+     */
+    @SuppressWarnings("unchecked")
+    public ObservableHashMap(String name, int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.name = name;
+        this.stripes = (HashMap<K, V>[]) new HashMap<?, ?>[size];
+        this.locks = new ReentrantReadWriteLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new HashMap<>();
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        this.stripeMask = size - 1;
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(size);
+        this.engine = new NotificationEngine<>(name, MapListener::onMapChange);
+    }
+
+    /**
+     * Name given to this map.
+     * @return name of the map
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Copy of the content of the map, each stripe being copied under its read lock.
+     * @return unmodifiable copy of the map
+     */
+    public Map<K, V> snapshot() {
+        Map<K, V> copy = new HashMap<>();
+        for (int i = 0; i < stripes.length; i++) {
+            Lock lock = locks[i].readLock();
+            lock.lock();
+            try {
+                copy.putAll(stripes[i]);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V get(Object key) {
+        int stripe = stripe(key);
+        Lock lock = locks[stripe].readLock();
+        lock.lock();
+        try {
+            return stripes[stripe].get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int stripe = stripe(key);
+        Lock lock = locks[stripe].readLock();
+        lock.lock();
+        try {
+            return stripes[stripe].getOrDefault(key, defaultValue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        int stripe = stripe(key);
+        Lock lock = locks[stripe].readLock();
+        lock.lock();
+        try {
+            return stripes[stripe].containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < stripes.length; i++) {
+            Lock lock = locks[i].readLock();
+            lock.lock();
+            try {
+                if (stripes[i].containsValue(value)) {
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            Lock lock = locks[i].readLock();
+            lock.lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V put(K key, V value) {
+        return update(key, stripe -> stripe.put(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V remove(Object key) {
+        return update(key, stripe -> stripe.remove(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return update(key, stripe -> stripe.putIfAbsent(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object key, Object value) {
+        return update(key, stripe -> stripe.remove(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V replace(K key, V value) {
+        return update(key, stripe -> stripe.replace(key, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        return update(key, stripe -> stripe.replace(key, oldValue, newValue));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return update(key, stripe -> stripe.computeIfAbsent(key, mappingFunction));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return update(key, stripe -> stripe.computeIfPresent(key, remappingFunction));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return update(key, stripe -> stripe.compute(key, remappingFunction));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return update(key, stripe -> stripe.merge(key, value, remappingFunction));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        for (int i = 0; i < stripes.length; i++) {
+            List<MapNotification<K, V>> notifications = new ArrayList<>();
+            Lock lock = locks[i].writeLock();
+            lock.lock();
+            try {
+                for (Map.Entry<K, V> entry : stripes[i].entrySet()) {
+                    V oldValue = entry.getValue();
+                    V newValue = function.apply(entry.getKey(), oldValue);
+                    if (newValue != oldValue) {
+                        entry.setValue(newValue);
+                        notifications.add(MapNotification.newMapUpdateNotification(entry.getKey(), oldValue, newValue));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            notifications.forEach(this::notifyAllListeners);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < stripes.length; i++) {
+            List<MapNotification<K, V>> notifications = new ArrayList<>();
+            Lock lock = locks[i].writeLock();
+            lock.lock();
+            try {
+                for (Map.Entry<K, V> entry : stripes[i].entrySet()) {
+                    notifications.add(MapNotification.newMapRemoveNotification(entry.getKey(), entry.getValue()));
+                }
+                stripes[i].clear();
+            } finally {
+                lock.unlock();
+            }
+            notifications.forEach(this::notifyAllListeners);
+        }
+    }
+
+    /**
+     * Read-only snapshot of the entries.
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return snapshot().entrySet();
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(MapListener<K, V> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(MapListener<K, V> listener, ListenerTier tier) {
+        engine.register(listener, tier);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(MapListener<K, V> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(MapNotification<K, V> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+    /**
+     * Applies the operation to the stripe of the key under its write lock, then notifies the
+     * change of the key, if any.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R update(Object key, Function<HashMap<K, V>, R> operation) {
+        int index = stripe(key);
+        HashMap<K, V> stripe = stripes[index];
+        Lock lock = locks[index].writeLock();
+        R result;
+        MapNotification<K, V> notification;
+        lock.lock();
+        try {
+            V oldValue = stripe.get(key);
+            boolean present = oldValue != null || stripe.containsKey(key);
+            result = operation.apply(stripe);
+            V newValue = stripe.get(key);
+            boolean presentAfter = newValue != null || stripe.containsKey(key);
+            notification = change((K) key, present, oldValue, presentAfter, newValue);
+        } finally {
+            lock.unlock();
+        }
+        if (notification != null) {
+            notifyAllListeners(notification);
+        }
+        return result;
+    }
+
+    /**
+     * Notification describing how a key changed, or null if it did not.
+     */
+    static <K, V> MapNotification<K, V> change(K key, boolean present, V oldValue, boolean presentAfter, V newValue) {
+        if (!present) {
+            return presentAfter ? MapNotification.newMapAddNotification(key, newValue) : null;
+        }
+        if (!presentAfter) {
+            return MapNotification.newMapRemoveNotification(key, oldValue);
+        }
+        return oldValue != newValue ? MapNotification.newMapUpdateNotification(key, oldValue, newValue) : null;
+    }
+
+    /**
+     * Stripe of the key, taken from the high bits of its scrambled hash, since the low bits select
+     * the bucket within the stripe's HashMap.
+     */
+    private int stripe(Object key) {
+        int hash = Objects.hashCode(key) * 0x9E3779B9;
+        return (hash >>> stripeShift) & stripeMask;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+}
@@ -3,45 +3,261 @@ package exercises.observable.implementation;
 import exercises.observable.model.*;
 import exercises.observable.model.Observable;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of ArrayList with Observable capabilities.
  *
+ * Every change to the list bumps its version. Each notification carries an immutable
+ * {@link ListSnapshot} of the list at the version it produced, which is also kept as the latest
+ * snapshot, so that {@link #snapshot()} costs nothing more than a volatile read until the list
+ * changes again. Long scans should run on a snapshot rather than on the list itself: they never
+ * block writers and always see a consistent state. Older versions can still be looked up with
+ * {@link #snapshot(long)} for as long as somebody holds on to their snapshot; they are reclaimed by
+ * the garbage collector as soon as nobody does.
+ *
+ * For the same reason, iterators, {@link #forEach}, spliterators and therefore streams all work on
+ * the snapshot of the version current when they were created: they never throw
+ * {@link ConcurrentModificationException}, never see a change half-way through, and cannot be used
+ * to modify the list (their mutating methods throw {@link UnsupportedOperationException}).
+ *
+ * {@link #removeIf}, {@link #retainAll} and {@link #replaceAll} evaluate their function on the
+ * calling thread, while holding the write lock. {@link #parallelRemoveIf} and
+ * {@link #parallelReplaceAll} evaluate it on a snapshot instead, before locking the list and on the
+ * common fork/join pool for large lists, so that function must be thread-safe.
+ *
+ * Listeners are managed by a {@link NotificationEngine}: they can be registered in one of the
+ * {@link ListenerTier}s (critical listeners are notified before the others, and best-effort
+ * listeners asynchronously, so that writers only wait for the critical and default tiers), or
+ * through weak or soft references. Listeners interested in a few elements only can also be
+ * registered for the keys of those elements: they are then found through an inverted index, and
+ * only notified of changes touching at least one of their keys.
+ *
+ * A list used by a single thread can be created in one of the owned {@link LockingMode}s: its owner
+ * then reads and changes it without taking the read-write lock, until another thread first touches
+ * the list and inflates it to real locking for good.
+ *
  * Created by guisil on 09/08/2016.
  */
-public class ObservableList<T> extends ArrayList<T> implements Observable<T, ListListener<T>> {
+public class ObservableList<T> extends ArrayList<T> implements Observable<ListNotification<T>, ListListener<T>> {
+
+    /**
+     * Size from which {@link #parallelRemoveIf} and {@link #parallelReplaceAll} evaluate their
+     * function in parallel, on the common fork/join pool.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final AtomicLong IDS = new AtomicLong();
 
     private final String name;
+    private final boolean lowFootprint;
+    private final LockingMode lockingMode;
+    private int highWaterSize;
 
+    private final ReadWriteLock readWriteLock;
     private final Lock readLock;
     private final Lock writeLock;
-    private Set<ListListener<T>> listeners;
+    private long id = IDS.incrementAndGet();
+    private final NotificationEngine<ListNotification<T>, ListListener<T>> engine;
+    private final KeyedListenerIndex<T> keyedListeners = new KeyedListenerIndex<>();
+
+    private long version;
+    private long fingerprint;
+    private volatile ListSnapshot<T> latest;
+    private ConcurrentMap<Long, VersionReference<T>> versions = new ConcurrentHashMap<>();
+    private ReferenceQueue<ListSnapshot<T>> reclaimed = new ReferenceQueue<>();
 
     public ObservableList(String name) {
+        this(name, false);
+    }
+
+    /**
+     * Creates a list, optionally in low-footprint mode.
+     *
+     * In low-footprint mode, the changed elements carried by notifications are immutable and, when
+     * possible, shared with the snapshot of the list instead of being copied: the elements added by
+     * {@code addAll} are a slice of the resulting list, and the elements removed by {@code clear}
+     * are the previous snapshot. Removed elements are otherwise copied into exactly sized arrays,
+     * and the backing array of the list is trimmed whenever the list shrinks to a quarter of its
+     * largest size. {@link NotificationFootprint} estimates what a notification retains.
+     * @param name name of the list
+     * @param lowFootprint whether to run in low-footprint mode
+     */
+    public ObservableList(String name, boolean lowFootprint) {
+        this(name, lowFootprint, LockingMode.SHARED);
+    }
+
+    /**
+     * Creates a list with the given locking mode (see
+     * {@link #ObservableList(String, boolean, LockingMode)}).
+     * @param name name of the list
+     * @param lockingMode how the list locks its state
+     */
+    public ObservableList(String name, LockingMode lockingMode) {
+        this(name, false, lockingMode);
+    }
+
+    /**
+     * Creates a list, optionally in low-footprint mode, with the given locking mode.
+     *
+     * In {@link LockingMode#OWNER_THREAD}, the list is owned by the thread calling this
+     * constructor; in {@link LockingMode#ADAPTIVE}, by the first thread using it. The owner skips
+     * locking until another thread touches the list: that thread then waits for the owner to leave
+     * the list, and both go through the read-write lock from then on.
+     * @param name name of the list
+     * @param lowFootprint whether to run in low-footprint mode
+     * @param lockingMode how the list locks its state
+     */
+    public ObservableList(String name, boolean lowFootprint, LockingMode lockingMode) {
         super();
         this.name = name;
-        this.listeners = new CopyOnWriteArraySet<>();
+        this.lowFootprint = lowFootprint;
+        this.lockingMode = lockingMode;
+        this.engine = new NotificationEngine<>(name, ListListener::onListChange);
 
-        ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        this.readWriteLock = BiasedReadWriteLock.forMode(lockingMode);
         this.readLock = readWriteLock.readLock();
         this.writeLock = readWriteLock.writeLock();
     }
 
-    private ObservableList(ObservableList<T> list) {
-        super(list);
-        this.name = list.name;
-        this.listeners = new CopyOnWriteArraySet<>();
+    /**
+     * Name given to this list, also carried by the snapshots sent in the notifications.
+     * @return name of the list
+     */
+    public String getName() {
+        return name;
+    }
 
-        ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-        this.readLock = readWriteLock.readLock();
-        this.writeLock = readWriteLock.writeLock();
+    /**
+     * Whether this list runs in low-footprint mode.
+     * @return true if in low-footprint mode
+     */
+    public boolean isLowFootprint() {
+        return lowFootprint;
+    }
+
+    /**
+     * How this list locks its state.
+     * @return locking mode of the list
+     */
+    public LockingMode getLockingMode() {
+        return lockingMode;
+    }
+
+    /**
+     * Whether this list goes through its read-write lock on every thread: always true for a shared
+     * list, and true for an owned list once another thread than its owner touched it.
+     * @return true if locking is no longer elided
+     */
+    boolean isLockInflated() {
+        return !(readWriteLock instanceof BiasedReadWriteLock)
+                || ((BiasedReadWriteLock) readWriteLock).isInflated();
+    }
+
+    /**
+     * Current version of the list, bumped by every change.
+     * @return current version
+     */
+    public long getVersion() {
+        this.readLock.lock();
+        try {
+            return version;
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Immutable view of the current state of the list.
+     * @return snapshot of the current version
+     */
+    public ListSnapshot<T> snapshot() {
+        ListSnapshot<T> snapshot = latest;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        this.readLock.lock();
+        try {
+            synchronized (versions) {
+                snapshot = latest;
+                if (snapshot == null) {
+                    snapshot = publish(new ListSnapshot<>(name, id, version, fingerprint, super.toArray()));
+                }
+                return snapshot;
+            }
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
+    /**
+     * Immutable view of the list at the given version, provided that a snapshot of that version
+     * is still held somewhere (by a reader or by a notification).
+     * @param version version of the list
+     * @return snapshot of the given version
+     * @throws NoSuchElementException if the version is no longer (or was never) available
+     */
+    public ListSnapshot<T> snapshot(long version) {
+        ListSnapshot<T> snapshot = latest;
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        VersionReference<T> reference = versions.get(version);
+        snapshot = reference != null ? reference.get() : null;
+        if (snapshot == null) {
+            snapshot = snapshot();
+        }
+        if (snapshot.getVersion() != version) {
+            throw new NoSuchElementException("Version " + version + " of " + name + " is not available");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Element at the given position of the list at the given version.
+     * @param index position of the element
+     * @param version version of the list
+     * @return the element
+     * @throws NoSuchElementException if the version is no longer (or was never) available
+     */
+    public T get(int index, long version) {
+        return snapshot(version).get(index);
+    }
+
+    /**
+     * Changes made to the list since the given version, for a listener which fell behind: the
+     * shortest sequence of notifications turning that version into the current one (see
+     * {@link ListDiff}), whose size depends on how much changed rather than on the size of the
+     * list. The last notification carries the current snapshot.
+     * @param version version last seen by the listener
+     * @return notifications of the changes, empty if the list is back to the same elements
+     * @throws NoSuchElementException if the version is no longer (or was never) available
+     */
+    public List<ListNotification<T>> resync(long version) {
+        ListSnapshot<T> from = snapshot(version);
+        return ListDiff.between(from, snapshot());
+    }
+
+    /**
+     * Changes turning the given state into the current state of the list, for a listener which
+     * reconnects with the copy of the list it kept (see {@link #resync(long)}).
+     * @param state state of the list last seen by the listener
+     * @return notifications of the changes, empty if the list has the same elements
+     */
+    public List<ListNotification<T>> resync(List<? extends T> state) {
+        return ListDiff.between(state, snapshot());
     }
 
     /**
@@ -50,13 +266,15 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     @Override
     public boolean add(T element) {
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
+            int index = super.size();
             if (!super.add(element)) {
                 return false;
             }
+            fingerprint += FingerprintedList.elementFingerprint(element);
             notification = ListNotification.newListAddNotification(
-                    Collections.singletonList(element), new ObservableList<>(this));
+                    index, Collections.singletonList(element), commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -70,11 +288,12 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     @Override
     public void add(int index, T element) {
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
             super.add(index, element);
+            fingerprint += FingerprintedList.elementFingerprint(element);
             notification = ListNotification.newListAddNotification(
-                    Collections.singletonList(element), new ObservableList<>(this));
+                    index, Collections.singletonList(element), commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -87,13 +306,13 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     @Override
     public boolean addAll(Collection<? extends T> collection) {
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
+            int index = super.size();
             if (!super.addAll(collection)) {
                 return false;
             }
-            notification = ListNotification.newListAddNotification(
-                    new ArrayList<>(collection), new ObservableList<>(this));
+            notification = addedRange(index, super.size() - index, collection);
         } finally {
             this.writeLock.unlock();
         }
@@ -107,13 +326,13 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     @Override
     public boolean addAll(int index, Collection<? extends T> collection) {
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
+            int size = super.size();
             if (!super.addAll(index, collection)) {
                 return false;
             }
-            notification = ListNotification.newListAddNotification(
-                    new ArrayList<>(collection), new ObservableList<>(this));
+            notification = addedRange(index, super.size() - size, collection);
         } finally {
             this.writeLock.unlock();
         }
@@ -131,12 +350,17 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
         }
         List<T> listBeforeClearing;
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
-            listBeforeClearing = new ArrayList<>(this);
+            if (lowFootprint) {
+                listBeforeClearing = latest != null ? latest : ListSnapshot.of(super.toArray());
+            } else {
+                listBeforeClearing = new ArrayList<>(this);
+            }
             super.clear();
+            fingerprint = 0L;
             notification = ListNotification.newListRemoveNotification(
-                    listBeforeClearing, new ObservableList<>(this));
+                    0, listBeforeClearing, commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -150,11 +374,12 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     public T remove(int index) {
         T removed;
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
             removed = super.remove(index);
+            fingerprint -= FingerprintedList.elementFingerprint(removed);
             notification = ListNotification.newListRemoveNotification(
-                    Collections.singletonList(removed), new ObservableList<>(this));
+                    index, Collections.singletonList(removed), commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -169,13 +394,15 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     @SuppressWarnings("unchecked")
     public boolean remove(Object element) {
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
-            if (!super.remove(element)) {
+            int index = super.indexOf(element);
+            if (index < 0) {
                 return false;
             }
+            fingerprint -= FingerprintedList.elementFingerprint(super.remove(index));
             notification = ListNotification.newListRemoveNotification(
-                    Collections.singletonList( (T) element), new ObservableList<>(this));
+                    index, Collections.singletonList( (T) element), commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -189,17 +416,17 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     @Override
     public boolean removeAll(Collection<?> collection) {
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
-            List<T> elementsToRemove =
-                    collection.stream()
-                            .filter(this::contains)
-                            .map(element -> (T) element)
-                            .collect(Collectors.toCollection(ArrayList::new));
-            if (!super.removeAll(collection)) {
+            boolean[] matches = new boolean[super.size()];
+            for (int i = 0; i < matches.length; i++) {
+                matches[i] = collection.contains(super.get(i));
+            }
+            List<T> removed = compact(matches);
+            if (removed.isEmpty()) {
                 return false;
             }
-            notification = ListNotification.newListRemoveNotification(elementsToRemove, new ObservableList<>(this));
+            notification = ListNotification.newListRemoveNotification(payload(removed), commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -212,20 +439,16 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
      */
     @Override
     public boolean removeIf(Predicate<? super T> filter) {
-
+        Objects.requireNonNull(filter);
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
-            List<T> filtered = this.stream()
-                    .filter(filter)
-                    .collect(Collectors.toCollection(ArrayList::new));
-            if (filtered.isEmpty()) {
-                return false;
-            }
-            if (!super.removeIf(filter)) {
+            Object[] elements = super.toArray();
+            List<T> removed = compact(evaluate(elements, filter, false));
+            if (removed.isEmpty()) {
                 return false;
             }
-            notification = ListNotification.newListRemoveNotification(filtered, new ObservableList<>(this));
+            notification = ListNotification.newListRemoveNotification(payload(removed), commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -239,11 +462,15 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     @Override
     protected void removeRange(int fromIndex, int toIndex) {
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
-            List<T> elementsToRemove = new ArrayList<>(this.subList(fromIndex, toIndex));
+            List<T> elementsToRemove = lowFootprint
+                    ? ListSnapshot.of(super.subList(fromIndex, toIndex).toArray())
+                    : new ArrayList<>(this.subList(fromIndex, toIndex));
             super.removeRange(fromIndex, toIndex);
-            notification = ListNotification.newListRemoveNotification(elementsToRemove, new ObservableList<>(this));
+            fingerprint -= FingerprintedList.fingerprintOf(elementsToRemove);
+            notification = ListNotification.newListRemoveNotification(
+                    fromIndex, elementsToRemove, commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -255,18 +482,16 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
      */
     @Override
     public boolean retainAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
         ListNotification<T> notification;
-        this.writeLock.lock();
+        lockForWrite();
         try {
-            List<T> elementsToRemove =
-                    this.stream()
-                            .filter(element -> !collection.contains(element))
-                            .map(element -> element)
-                            .collect(Collectors.toCollection(ArrayList::new));
-            if (!super.retainAll(collection)) {
+            Object[] elements = super.toArray();
+            List<T> removed = compact(evaluate(elements, element -> !collection.contains(element), false));
+            if (removed.isEmpty()) {
                 return false;
             }
-            notification = ListNotification.newListRemoveNotification(elementsToRemove, new ObservableList<>(this));
+            notification = ListNotification.newListRemoveNotification(payload(removed), commit());
         } finally {
             this.writeLock.unlock();
         }
@@ -275,13 +500,21 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
     }
 
     /**
+     * The clone gets an id and a table of versions of its own, so that its snapshots are never
+     * taken for versions of this list once both diverge.
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public Object clone() {
         this.readLock.lock();
         try {
-            return super.clone();
+            ObservableList<T> clone = (ObservableList<T>) super.clone();
+            clone.id = IDS.incrementAndGet();
+            clone.versions = new ConcurrentHashMap<>();
+            clone.reclaimed = new ReferenceQueue<>();
+            clone.latest = null;
+            return clone;
         } finally {
             this.readLock.unlock();
         }
@@ -357,27 +590,156 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
      */
     @Override
     public void replaceAll(UnaryOperator<T> operator) {
-        this.writeLock.lock();
+        Objects.requireNonNull(operator);
+        lockForWrite();
         try {
-            super.replaceAll(operator);
+            Object[] elements = super.toArray();
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = operator.apply(element(elements, i));
+            }
+            replaceElements(elements);
         } finally {
             this.writeLock.unlock();
         }
     }
 
+    /**
+     * Removes the elements matching the filter, like {@link #removeIf}, but evaluates the filter
+     * on the snapshot of the current version before locking the list, in parallel on the common
+     * fork/join pool for large lists: the filter must therefore be thread-safe, but it may read
+     * this list. If the list changed in the meantime, the filter is evaluated again on the new
+     * version.
+     * @param filter predicate returning true for the elements to remove
+     * @return true if any element was removed
+     */
+    public boolean parallelRemoveIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        while (true) {
+            ListSnapshot<T> snapshot = snapshot();
+            boolean[] matches = evaluate(snapshot.elements(), filter, true);
+            ListNotification<T> notification;
+            lockForWrite();
+            try {
+                if (version != snapshot.getVersion()) {
+                    continue;
+                }
+                List<T> removed = compact(matches);
+                if (removed.isEmpty()) {
+                    return false;
+                }
+                notification = ListNotification.newListRemoveNotification(payload(removed), commit());
+            } finally {
+                this.writeLock.unlock();
+            }
+            notifyAllListeners(notification);
+            return true;
+        }
+    }
+
+    /**
+     * Replaces every element, like {@link #replaceAll}, but applies the operator to the snapshot
+     * of the current version before locking the list, in parallel on the common fork/join pool for
+     * large lists: the operator must therefore be thread-safe, but it may read this list. If the
+     * list changed in the meantime, the operator is applied again to the new version.
+     * @param operator operator to apply to each element
+     */
+    public void parallelReplaceAll(UnaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        while (true) {
+            ListSnapshot<T> snapshot = snapshot();
+            Object[] elements = snapshot.toArray();
+            IntStream indexes = IntStream.range(0, elements.length);
+            if (elements.length >= PARALLEL_THRESHOLD) {
+                indexes = indexes.parallel();
+            }
+            indexes.forEach(i -> elements[i] = operator.apply(element(elements, i)));
+            lockForWrite();
+            try {
+                if (version == snapshot.getVersion()) {
+                    replaceElements(elements);
+                    return;
+                }
+            } finally {
+                this.writeLock.unlock();
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public T set(int index, T element) {
-        this.writeLock.lock();
+        lockForWrite();
         try {
-            return super.set(index, element);
+            T previous = super.set(index, element);
+            fingerprint += FingerprintedList.elementFingerprint(element) - FingerprintedList.elementFingerprint(previous);
+            changed();
+            return previous;
         } finally {
             this.writeLock.unlock();
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        lockForWrite();
+        try {
+            super.sort(comparator);
+            changed();
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Iterates over the snapshot of the current version.
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    /**
+     * Iterates over the snapshot of the current version.
+     * {@inheritDoc}
+     */
+    @Override
+    public ListIterator<T> listIterator() {
+        return snapshot().listIterator();
+    }
+
+    /**
+     * Iterates over the snapshot of the current version.
+     * {@inheritDoc}
+     */
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        return snapshot().listIterator(index);
+    }
+
+    /**
+     * Iterates over the snapshot of the current version.
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        snapshot().forEach(action);
+    }
+
+    /**
+     * Splits the snapshot of the current version.
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return snapshot().spliterator();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -456,6 +818,225 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
         }
     }
 
+    // Bulk operations
+
+    /**
+     * Evaluates the predicate on every element before anything is modified (so that an exception
+     * thrown by the predicate leaves the list unchanged), in parallel chunks for large lists if
+     * allowed. Parallel evaluation must not happen while holding the write lock, since a predicate
+     * reading this list from a pool thread would wait for it forever.
+     */
+    private boolean[] evaluate(Object[] elements, Predicate<? super T> predicate, boolean parallel) {
+        boolean[] matches = new boolean[elements.length];
+        IntStream indexes = IntStream.range(0, elements.length);
+        if (parallel && elements.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> matches[i] = predicate.test(element(elements, i)));
+        return matches;
+    }
+
+    /**
+     * Removes the matched elements in a single pass, shifting the others down, and returns the
+     * removed elements. Must be called while holding the write lock.
+     */
+    private List<T> compact(boolean[] matches) {
+        List<T> removed = new ArrayList<>();
+        int kept = 0;
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i]) {
+                removed.add(super.get(i));
+            } else {
+                if (kept != i) {
+                    super.set(kept, super.get(i));
+                }
+                kept++;
+            }
+        }
+        if (kept < matches.length) {
+            super.removeRange(kept, matches.length);
+        }
+        fingerprint -= FingerprintedList.fingerprintOf(removed);
+        return removed;
+    }
+
+    /**
+     * Replaces all the elements by those of the array, of the same size, without notification.
+     * Must be called while holding the write lock.
+     */
+    private void replaceElements(Object[] elements) {
+        for (int i = 0; i < elements.length; i++) {
+            super.set(i, element(elements, i));
+        }
+        fingerprint = FingerprintedList.fingerprintOf(Arrays.asList(elements));
+        changed();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T element(Object[] elements, int index) {
+        return (T) elements[index];
+    }
+
+    /**
+     * Builds the notification of a contiguous addition, whose elements are a slice of the new
+     * snapshot in low-footprint mode. Must be called while holding the write lock.
+     */
+    private ListNotification<T> addedRange(int index, int count, Collection<? extends T> collection) {
+        for (int i = index; i < index + count; i++) {
+            fingerprint += FingerprintedList.elementFingerprint(super.get(i));
+        }
+        ListSnapshot<T> snapshot = commit();
+        List<T> added = lowFootprint ? snapshot.slice(index, index + count) : new ArrayList<>(collection);
+        return ListNotification.newListAddNotification(index, added, snapshot);
+    }
+
+    private List<T> payload(List<T> elements) {
+        return lowFootprint ? ListSnapshot.of(elements.toArray()) : elements;
+    }
+
+    // Versions
+
+    /**
+     * Bumps the version after a change which is notified, and publishes the snapshot of the new
+     * version. Must be called while holding the write lock.
+     */
+    private ListSnapshot<T> commit() {
+        if (lowFootprint) {
+            int size = super.size();
+            if (size > highWaterSize) {
+                highWaterSize = size;
+            } else if (size <= highWaterSize / 4) {
+                super.trimToSize();
+                highWaterSize = size;
+            }
+        }
+        version++;
+        return publish(new ListSnapshot<>(name, id, version, fingerprint, super.toArray()));
+    }
+
+    /**
+     * Bumps the version after a change which is not notified. The snapshot of the new version is
+     * only taken if somebody asks for it. Must be called while holding the write lock.
+     */
+    private void changed() {
+        version++;
+        latest = null;
+    }
+
+    private ListSnapshot<T> publish(ListSnapshot<T> snapshot) {
+        VersionReference<?> stale;
+        while ((stale = (VersionReference<?>) reclaimed.poll()) != null) {
+            versions.remove(stale.version, stale);
+        }
+        versions.put(snapshot.getVersion(), new VersionReference<>(snapshot, reclaimed));
+        latest = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Weak reference to the snapshot of a version, removed from the version table once the
+     * snapshot has been collected.
+     */
+    private static final class VersionReference<T> extends WeakReference<ListSnapshot<T>> {
+
+        private final long version;
+
+        private VersionReference(ListSnapshot<T> snapshot, ReferenceQueue<ListSnapshot<T>> queue) {
+            super(snapshot, queue);
+            this.version = snapshot.getVersion();
+        }
+    }
+
+    // Write guard
+
+    /**
+     * Takes the write lock before changing the list. Every change of the list, transactions
+     * included, goes through here, and therefore through {@link #checkWritable()}.
+     */
+    private void lockForWrite() {
+        checkWritable();
+        this.writeLock.lock();
+    }
+
+    /**
+     * Called on the thread about to change the list, before it takes the write lock. Does nothing,
+     * unless overridden by lists which refuse some changes, e.g. by throwing
+     * {@link UnsupportedOperationException}.
+     */
+    protected void checkWritable() {
+    }
+
+    // Transactions (see ListTransaction)
+
+    /**
+     * Unique rank of this list, in which transactions lock several lists so that they never
+     * deadlock: the id of the list, also carried by its snapshots.
+     */
+    long getLockOrder() {
+        return id;
+    }
+
+    void lockForTransaction() {
+        lockForWrite();
+    }
+
+    void unlockForTransaction() {
+        this.writeLock.unlock();
+    }
+
+    /**
+     * Inserts the element without notification or new version. Must be called while holding the
+     * write lock, and followed by {@link #stageSnapshot()} or {@link #rollBackTransaction()}.
+     */
+    void insertInTransaction(int index, T element) {
+        super.add(index, element);
+        fingerprint += FingerprintedList.elementFingerprint(element);
+    }
+
+    /**
+     * Removes the element without notification or new version. Must be called while holding the
+     * write lock, and followed by {@link #stageSnapshot()} or {@link #rollBackTransaction()}.
+     */
+    T removeInTransaction(int index) {
+        T removed = super.remove(index);
+        fingerprint -= FingerprintedList.elementFingerprint(removed);
+        return removed;
+    }
+
+    int indexOfInTransaction(Object element) {
+        return super.indexOf(element);
+    }
+
+    int sizeInTransaction() {
+        return super.size();
+    }
+
+    /**
+     * Bumps the version after a change of a transaction and takes its snapshot, without publishing
+     * it yet, so that lock-free readers of the latest snapshot do not see the transaction before it
+     * is committed. Must be called while holding the write lock.
+     */
+    ListSnapshot<T> stageSnapshot() {
+        version++;
+        return new ListSnapshot<>(name, id, version, fingerprint, super.toArray());
+    }
+
+    /**
+     * Publishes a snapshot staged by a committed transaction. Must be called while holding the
+     * write lock, for the staged snapshots in order.
+     */
+    void publishStaged(ListSnapshot<T> snapshot) {
+        publish(snapshot);
+    }
+
+    /**
+     * Forgets the snapshots staged by a transaction whose changes were undone. Must be called
+     * while holding the write lock.
+     */
+    void rollBackTransaction() {
+        changed();
+    }
+
     // Observable implementation
 
     /**
@@ -463,7 +1044,49 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
      */
     @Override
     public void register(ListListener<T> listener) {
-        listeners.add(listener);
+        engine.register(listener);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(ListListener<T> listener, ListenerTier tier) {
+        engine.register(listener, tier);
+    }
+
+    /**
+     * Registers a listener for the changes of elements with one of the given keys. Such listeners
+     * are notified after the default tier, once per notification touching at least one of their
+     * keys, and never otherwise. Listeners using the same kind of key should share the same
+     * extractor instance, since routing costs one key extraction per changed element and per
+     * distinct extractor.
+     * @param listener listener to register
+     * @param keyExtractor function giving the key of an element
+     * @param keys keys of the elements the listener is interested in
+     */
+    public void register(ListListener<T> listener, Function<? super T, ?> keyExtractor, Collection<?> keys) {
+        keyedListeners.register(listener, keyExtractor, keys);
+    }
+
+    /**
+     * Registers a listener through a weak reference: the list does not keep it alive, and it is
+     * unregistered automatically once it has been garbage collected. The caller must therefore
+     * hold a strong reference to the listener for as long as it should receive notifications.
+     * @param listener listener to register
+     */
+    public void registerWeakly(ListListener<T> listener) {
+        engine.registerWeakly(listener);
+    }
+
+    /**
+     * Registers a listener through a soft reference: the list keeps it alive until the garbage
+     * collector needs the memory, after which it is unregistered automatically.
+     * @param listener listener to register
+     */
+    public void registerSoftly(ListListener<T> listener) {
+        engine.registerSoftly(listener);
     }
 
     /**
@@ -471,7 +1094,17 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
      */
     @Override
     public void unregister(ListListener<T> listener) {
-        listeners.remove(listener);
+        engine.unregister(listener);
+        keyedListeners.unregister(listener);
+    }
+
+    /**
+     * Number of registered listeners in all tiers and for keys, including weakly or softly registered ones which
+     * have not been collected yet.
+     * @return number of listeners
+     */
+    public int getListenerCount() {
+        return engine.getListenerCount() + keyedListeners.getListenerCount();
     }
 
     /**
@@ -479,7 +1112,8 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<T, Lis
      */
     @Override
     public void notifyAllListeners(ListNotification<T> notification) {
-        listeners.forEach(listener -> listener.onListChange(notification));
+        engine.notifyAllListeners(notification);
+        keyedListeners.route(notification);
     }
 
 
@@ -0,0 +1,180 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.Observable;
+import exercises.observable.model.SetListener;
+import exercises.observable.model.SetNotification;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of Set with Observable capabilities, backed by the key set of a ConcurrentHashMap.
+ *
+ * Adding or removing an element is atomic and only locks the bin of that element. Every element
+ * actually added or removed sends one notification, once the change is done; bulk operations
+ * (including removals through the iterator) send one notification per changed element. Like
+ * ConcurrentHashMap, the set does not accept null elements, and its iterators are weakly
+ * consistent.
+ */
+public class ObservableSet<E> extends AbstractSet<E> implements Observable<SetNotification<E>, SetListener<E>> {
+
+    private final String name;
+    private final Set<E> set;
+    private final NotificationEngine<SetNotification<E>, SetListener<E>> engine;
+
+    public ObservableSet(String name) {
+        this.name = name;
+        this.set = ConcurrentHashMap.newKeySet();
+        this.engine = new NotificationEngine<>(name, SetListener::onSetChange);
+    }
+
+    /**
+     * Name given to this set.
+     * @return name of the set
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Copy of the content of the set.
+     * @return unmodifiable copy of the set
+     */
+    public Set<E> snapshot() {
+        return Collections.unmodifiableSet(new HashSet<>(set));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(E element) {
+        if (!set.add(element)) {
+            return false;
+        }
+        notifyAllListeners(SetNotification.newSetAddNotification(element));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object element) {
+        if (!set.remove(element)) {
+            return false;
+        }
+        notifyAllListeners(SetNotification.newSetRemoveNotification((E) element));
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object element) {
+        return set.contains(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return set.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return set.isEmpty();
+    }
+
+    /**
+     * Weakly consistent iterator, whose removals are notified.
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> iterator = set.iterator();
+        return new Iterator<E>() {
+
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                ObservableSet.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return set.spliterator();
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(SetListener<E> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(SetListener<E> listener, ListenerTier tier) {
+        engine.register(listener, tier);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(SetListener<E> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(SetNotification<E> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+}
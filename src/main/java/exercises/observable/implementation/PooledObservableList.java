@@ -0,0 +1,87 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+import exercises.observable.model.ListStorage;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Observable list which reuses its notifications, for event rates at which the notifications of
+ * {@link StorageObservableList} keep the young generation busy.
+ *
+ * Instead of a new immutable notification, every change is described by a
+ * {@link FlyweightListNotification} taken from a small pool of the notifying thread and reused by
+ * the next change: a notification is therefore only valid during the callback which receives it,
+ * and listeners retaining it must retain {@link ListNotification#copy()} instead. The changed
+ * elements are copied into a buffer of the notification, and the resulting list is a snapshot of
+ * the storage, so that the notification matches the change even while other threads change the
+ * list; best-effort listeners receive copies. A listener changing the list from its callback gets
+ * a notification of its own, the pool holding one per level of nesting.
+ *
+ * Changing the list allocates nothing beyond what the storage needs for the change and for its
+ * snapshot. The default storage is a {@link GapBufferListStorage} with small pages, since every
+ * change takes a snapshot and then copies the page it writes to.
+ */
+public class PooledObservableList<T> extends StorageObservableList<T> {
+
+    private static final int DEFAULT_PAGE_SIZE = 64;
+
+    private final ThreadLocal<Pool<T>> pools = ThreadLocal.withInitial(Pool::new);
+
+    public PooledObservableList(String name) {
+        this(name, new GapBufferListStorage<>(DEFAULT_PAGE_SIZE));
+    }
+
+    /**
+     * Creates a list stored in the given storage, which must not be used by anything else.
+     * @param name name of the list
+     * @param storage storage of the elements
+     */
+    public PooledObservableList(String name, ListStorage<T> storage) {
+        super(name, storage);
+    }
+
+    /**
+     * Reuses the next notification of the pool of the current thread.
+     * {@inheritDoc}
+     */
+    @Override
+    protected ListNotification<T> newNotification(
+            ListNotificationType type, int index, Object[] changed, int count, List<T> resultingList) {
+        return pools.get().acquire().reuse(type, index, changed, 0, count, resultingList);
+    }
+
+    /**
+     * Gives the notification back to the pool of the current thread.
+     * {@inheritDoc}
+     */
+    @Override
+    protected void notificationDelivered(ListNotification<T> notification) {
+        pools.get().release();
+    }
+
+    /**
+     * Notifications of one thread, one per level of nested changes (a listener changing the list
+     * from its callback).
+     */
+    private static final class Pool<T> {
+
+        @SuppressWarnings("unchecked")
+        private FlyweightListNotification<T>[] notifications = (FlyweightListNotification<T>[]) new FlyweightListNotification<?>[0];
+        private int depth;
+
+        private FlyweightListNotification<T> acquire() {
+            if (depth == notifications.length) {
+                notifications = Arrays.copyOf(notifications, depth + 1);
+                notifications[depth] = new FlyweightListNotification<>();
+            }
+            return notifications[depth++];
+        }
+
+        private void release() {
+            notifications[--depth].release();
+        }
+    }
+}
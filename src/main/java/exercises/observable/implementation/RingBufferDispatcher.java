@@ -0,0 +1,363 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.BatchListListener;
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.Observable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous notification pipeline based on a pre-allocated ring buffer, in the style of the
+ * LMAX Disruptor.
+ *
+ * The dispatcher is registered as a listener of one or more observable lists; every notification
+ * it receives is published into the next slot of the ring, and each consumer registered in the
+ * dispatcher reads the ring on its own thread, in batches. Publishing claims a sequence number with
+ * an atomic increment and marks the slot as available; consumers track their own sequence, which
+ * also acts as the barrier preventing producers from overwriting slots which were not read yet.
+ * Waiting (on either side) spins, yields and then parks, so the steady-state delivery path does
+ * not allocate anything: no queue nodes, no locks, no conditions.
+ *
+ * Every slot holds a pre-allocated {@link FlyweightListNotification} into which the type, index
+ * and changed elements of the published notification are copied, so that the ring does not keep
+ * per-change objects alive for as long as it takes to wrap around, and notifications reused by
+ * their list (such as the ones of {@link PooledObservableList}) can be published as they are. The
+ * slots only keep a reference to the resulting list, which is immutable. Consumers therefore
+ * receive notifications which are only valid during the callback: listeners retaining them must
+ * retain {@link ListNotification#copy()} instead. Notifications of other kinds, such as the ones of
+ * {@link SegmentedObservableList}, are kept as a copy of their own.
+ */
+public class RingBufferDispatcher<T> implements ListListener<T>, Observable<ListNotification<T>, BatchListListener<T>>, AutoCloseable {
+
+    private static final long INITIAL_SEQUENCE = -1L;
+    private static final long GATING_SEQUENCE = Long.MIN_VALUE;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    private final String name;
+
+    private final Slot<T>[] slots;
+    private final int mask;
+    private final int indexShift;
+    private final AtomicIntegerArray available;
+    private final AtomicLong cursor;
+
+    private final Object consumersLock = new Object();
+    private volatile Consumer<T>[] consumers;
+    private volatile boolean running;
+
+    /**
+     * Creates a dispatcher with the given ring capacity.
+     * @param name name of the dispatcher, used for its consumer threads
+     * @param capacity number of slots in the ring, which must be a power of two
+     */
+    public RingBufferDispatcher(String name, int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.name = name;
+        @SuppressWarnings("unchecked")
+        Slot<T>[] slots = (Slot<T>[]) new Slot<?>[capacity];
+        this.slots = slots;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot<>();
+        }
+        this.mask = capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(capacity);
+        this.available = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            available.set(i, -1);
+        }
+        this.cursor = new AtomicLong(INITIAL_SEQUENCE);
+        this.consumers = newConsumers(0);
+        this.running = true;
+    }
+
+    /**
+     * Publishes the notification received from an observable list into the ring.
+     * @param notification notification object
+     */
+    @Override
+    public void onListChange(ListNotification<T> notification) {
+        notifyAllListeners(notification);
+    }
+
+    /**
+     * Registers a listener which does not care about batch boundaries.
+     * @param listener listener to register
+     */
+    public void register(ListListener<T> listener) {
+        register(new BatchAdapter<>(listener));
+    }
+
+    /**
+     * Unregisters a listener registered through {@link #register(ListListener)}.
+     * @param listener listener to unregister
+     */
+    public void unregister(ListListener<T> listener) {
+        unregister(new BatchAdapter<>(listener));
+    }
+
+    // Observable implementation
+
+    /**
+     * Registers the listener, starting a consumer thread for it. The listener receives the
+     * notifications published after its registration.
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(BatchListListener<T> listener) {
+        synchronized (consumersLock) {
+            if (!running) {
+                throw new IllegalStateException("Dispatcher " + name + " is closed");
+            }
+            for (Consumer<T> consumer : consumers) {
+                if (consumer.listener.equals(listener)) {
+                    return;
+                }
+            }
+            // the consumer holds the producers back until its start is known, so that a producer
+            // claiming a sequence after that start cannot miss it and overwrite the slot
+            Consumer<T> consumer = new Consumer<>(this, listener, GATING_SEQUENCE);
+            Consumer<T>[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+            updated[consumers.length] = consumer;
+            // the thread is set before publishing the consumer, which unregister reads without the lock
+            consumer.thread = new Thread(consumer, name + "-consumer-" + updated.length);
+            consumer.thread.setDaemon(true);
+            consumers = updated;
+            consumer.sequence.set(cursor.get());
+            consumer.thread.start();
+        }
+    }
+
+    /**
+     * Unregisters the listener, stopping its consumer thread after the notification it is
+     * currently handling.
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(BatchListListener<T> listener) {
+        Consumer<T> stopped = null;
+        for (Consumer<T> consumer : consumers) {
+            if (consumer.listener.equals(listener)) {
+                stopped = consumer;
+                break;
+            }
+        }
+        if (stopped == null) {
+            return;
+        }
+        stopped.stop(INITIAL_SEQUENCE);
+        // the consumer keeps gating the producers until it has really stopped reading the ring
+        awaitTermination(stopped);
+        synchronized (consumersLock) {
+            Consumer<T>[] current = consumers;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == stopped) {
+                    Consumer<T>[] updated = newConsumers(current.length - 1);
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    consumers = updated;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the notification into the next slot of the ring, waiting for a free slot if the
+     * slowest consumer is a full ring behind. Notifications published after the dispatcher was
+     * closed are dropped.
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(ListNotification<T> notification) {
+        if (!running) {
+            return;
+        }
+        long sequence = cursor.incrementAndGet();
+        long wrapPoint = sequence - slots.length;
+        int tries = 0;
+        while (wrapPoint > minimumConsumerSequence(sequence)) {
+            tries = idle(tries);
+        }
+        int index = (int) sequence & mask;
+        slots[index].publish(notification);
+        available.lazySet(index, (int) (sequence >>> indexShift));
+    }
+
+    /**
+     * Stops accepting notifications and listeners, and waits for every consumer to read all the
+     * notifications published so far.
+     */
+    @Override
+    public void close() {
+        Consumer<T>[] stopped;
+        synchronized (consumersLock) {
+            running = false;
+            stopped = consumers;
+        }
+        long last = cursor.get();
+        for (Consumer<T> consumer : stopped) {
+            consumer.stop(last);
+        }
+        for (Consumer<T> consumer : stopped) {
+            awaitTermination(consumer);
+        }
+        synchronized (consumersLock) {
+            consumers = newConsumers(0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T>[] newConsumers(int length) {
+        return (Consumer<T>[]) new Consumer<?>[length];
+    }
+
+    private static void awaitTermination(Consumer<?> consumer) {
+        if (consumer.thread == Thread.currentThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (consumer.thread.isAlive()) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long minimumConsumerSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Consumer<T> consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    private boolean isAvailable(long sequence) {
+        return available.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    private long highestPublished(long from, long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return to;
+    }
+
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            return tries + 1;
+        }
+        if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+            return tries + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return tries;
+    }
+
+    /**
+     * Reusable holder of one entry of the ring.
+     */
+    private static final class Slot<T> {
+
+        private final FlyweightListNotification<T> entry = new FlyweightListNotification<>();
+        private ListNotification<T> notification;
+
+        private void publish(ListNotification<T> published) {
+            Class<?> type = published.getClass();
+            notification = type == ListNotification.class || type == FlyweightListNotification.class
+                    ? entry.reuse(published) : published.copy();
+        }
+    }
+
+    /**
+     * Reads the ring for one listener, on its own thread.
+     */
+    private static final class Consumer<T> implements Runnable {
+
+        private final RingBufferDispatcher<T> dispatcher;
+        private final BatchListListener<T> listener;
+        private final AtomicLong sequence;
+        private volatile long stopAt = Long.MAX_VALUE;
+        private Thread thread;
+
+        private Consumer(RingBufferDispatcher<T> dispatcher, BatchListListener<T> listener, long start) {
+            this.dispatcher = dispatcher;
+            this.listener = listener;
+            this.sequence = new AtomicLong(start);
+        }
+
+        private void stop(long lastSequence) {
+            stopAt = lastSequence;
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int tries = 0;
+            while (next <= stopAt) {
+                long published = dispatcher.cursor.get();
+                long highest = published < next ? next - 1 : dispatcher.highestPublished(next, published);
+                if (highest < next) {
+                    tries = idle(tries);
+                    continue;
+                }
+                tries = 0;
+                highest = Math.min(highest, stopAt);
+                for (long current = next; current <= highest && current <= stopAt; current++) {
+                    ListNotification<T> notification = dispatcher.slots[(int) current & dispatcher.mask].notification;
+                    try {
+                        listener.onListChanges(notification, current == highest);
+                    } catch (Throwable e) {
+                        // the consumer keeps reading, otherwise its sequence would block the producers
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                }
+                sequence.lazySet(highest);
+                next = highest + 1;
+            }
+        }
+    }
+
+    /**
+     * Adapts a plain listener to the batch interface, ignoring the batch boundaries.
+     */
+    private static final class BatchAdapter<T> implements BatchListListener<T> {
+
+        private final ListListener<T> listener;
+
+        private BatchAdapter(ListListener<T> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onListChanges(ListNotification<T> notification, boolean endOfBatch) {
+            listener.onListChange(notification);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof BatchAdapter && ((BatchAdapter<?>) obj).listener.equals(listener);
+        }
+
+        @Override
+        public int hashCode() {
+            return listener.hashCode();
+        }
+    }
+}
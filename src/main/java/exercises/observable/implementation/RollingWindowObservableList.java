@@ -0,0 +1,421 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.Observable;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded observable list keeping a rolling window of the last appended elements, e.g. the last N
+ * events, evicting the oldest ones by size and/or by age.
+ *
+ * Elements can only be appended: the head of the list is trimmed by the eviction policy alone.
+ * Elements are stored by sequence number in fixed-size segments, used as a ring: appending writes
+ * one slot and evicting only moves the head, both in O(1), and segments are dropped once all of
+ * their elements were evicted. Each append (or batch append) sends one ADD notification, followed
+ * by one REMOVE notification at index 0 for all the elements it evicted, if any.
+ *
+ * Since a written slot never changes, the resulting list of every notification is an immutable
+ * view sharing the segments, which costs O(window size / segment size) instead of a copy.
+ */
+public class RollingWindowObservableList<T> extends AbstractList<T>
+        implements Observable<ListNotification<T>, ListListener<T>>, RandomAccess {
+
+    static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final String name;
+    private final int maxSize;
+    private final long maxAgeNanos;
+    private final LongSupplier clock;
+    private final Lock readLock;
+    private final Lock writeLock;
+    private final NotificationEngine<ListNotification<T>, ListListener<T>> engine;
+
+    /** Segments in use, as a ring: the first one holds the head of the list. */
+    private Object[][] segments = new Object[4][];
+    private long[][] timestamps;
+    private int firstSegment;
+    private int segmentCount;
+    /** Sequence numbers of the first element of the list and of the next appended element. */
+    private long head;
+    private long tail;
+
+    /**
+     * Creates a list keeping the last elements appended, up to the given number.
+     * @param name name of the list
+     * @param maxSize maximum number of elements
+     */
+    public RollingWindowObservableList(String name, int maxSize) {
+        this(name, maxSize, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a list keeping the last elements appended, up to the given number and for as long as
+     * they are younger than the given age. Use {@code Integer.MAX_VALUE} as maximum size for a
+     * window bounded by age only.
+     * @param name name of the list
+     * @param maxSize maximum number of elements
+     * @param maxAge maximum age of the elements
+     * @param unit unit of the maximum age
+     */
+    public RollingWindowObservableList(String name, int maxSize, long maxAge, TimeUnit unit) {
+        this(name, maxSize, unit.toNanos(maxAge), System::nanoTime);
+    }
+
+    RollingWindowObservableList(String name, int maxSize, long maxAgeNanos, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maxSize);
+        }
+        if (maxAgeNanos < 1) {
+            throw new IllegalArgumentException("Maximum age must be positive: " + maxAgeNanos + "ns");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.maxAgeNanos = maxAgeNanos;
+        this.clock = clock;
+        if (maxAgeNanos != Long.MAX_VALUE) {
+            this.timestamps = new long[4][];
+        }
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.engine = new NotificationEngine<>(name, ListListener::onListChange);
+    }
+
+    /**
+     * Name given to this list.
+     * @return name of the list
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Maximum number of elements kept.
+     * @return maximum size of the window
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Immutable view of the current content of the window.
+     * @return snapshot of the list
+     */
+    public List<T> snapshot() {
+        readLock.lock();
+        try {
+            return view(head, tail);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the element, then evicts what the policy requires.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T element) {
+        return append(new Object[]{element});
+    }
+
+    /**
+     * Appends the elements as one batch, then evicts what the policy requires.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> collection) {
+        Object[] elements = collection.toArray();
+        return elements.length > 0 && append(elements);
+    }
+
+    /**
+     * Evicts the elements which got too old, without appending anything. Useful for windows
+     * bounded by age which may not receive elements for a while.
+     * @return number of evicted elements
+     */
+    public int evictExpired() {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            notification = evict();
+        } finally {
+            writeLock.unlock();
+        }
+        if (notification == null) {
+            return 0;
+        }
+        notifyAllListeners(notification);
+        return notification.getChangedElements().size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            if (head == tail) {
+                return;
+            }
+            List<T> removed = view(head, tail);
+            advanceHead(tail);
+            notification = ListNotification.newListRemoveNotification(0, removed, view(head, tail));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        readLock.lock();
+        try {
+            if (index < 0 || index >= tail - head) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (tail - head));
+            }
+            return element(head + index);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        readLock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Iterates over a snapshot of the window.
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(ListListener<T> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(ListListener<T> listener, ListenerTier tier) {
+        engine.register(listener, tier);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(ListListener<T> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(ListNotification<T> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+
+    // Ring of segments
+
+    private boolean append(Object[] elements) {
+        ListNotification<T> added;
+        ListNotification<T> evicted;
+        writeLock.lock();
+        try {
+            long now = timestamps != null ? clock.getAsLong() : 0;
+            long from = tail;
+            for (Object element : elements) {
+                int slot = (int) (tail & SEGMENT_MASK);
+                if (slot == 0 || segmentCount == 0) {
+                    addSegment();
+                }
+                int segment = segmentIndex(tail);
+                segments[segment][slot] = element;
+                if (timestamps != null) {
+                    timestamps[segment][slot] = now;
+                }
+                tail++;
+            }
+            modCount++;
+            added = ListNotification.newListAddNotification(
+                    (int) (from - head), view(from, tail), view(head, tail));
+            evicted = evict();
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(added);
+        if (evicted != null) {
+            notifyAllListeners(evicted);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the head past the elements exceeding the maximum size or age, and builds the
+     * notification of their removal, or returns null if there were none.
+     */
+    private ListNotification<T> evict() {
+        long newHead = Math.max(head, tail - maxSize);
+        if (timestamps != null) {
+            long now = clock.getAsLong();
+            while (newHead < tail) {
+                long timestamp = timestamps[segmentIndex(newHead)][(int) (newHead & SEGMENT_MASK)];
+                if (now - timestamp <= maxAgeNanos) {
+                    break;
+                }
+                newHead++;
+            }
+        }
+        if (newHead == head) {
+            return null;
+        }
+        List<T> removed = view(head, newHead);
+        advanceHead(newHead);
+        modCount++;
+        return ListNotification.newListRemoveNotification(0, removed, view(head, tail));
+    }
+
+    /**
+     * Moves the head, dropping the segments left without any element of the list.
+     */
+    private void advanceHead(long newHead) {
+        long firstKept = (newHead == tail ? tail + SEGMENT_MASK : newHead) >>> SEGMENT_SHIFT;
+        while (segmentCount > 0 && (head >>> SEGMENT_SHIFT) < firstKept) {
+            segments[firstSegment] = null;
+            if (timestamps != null) {
+                timestamps[firstSegment] = null;
+            }
+            firstSegment = (firstSegment + 1) & (segments.length - 1);
+            segmentCount--;
+            head = ((head >>> SEGMENT_SHIFT) + 1) << SEGMENT_SHIFT;
+        }
+        head = newHead;
+    }
+
+    private void addSegment() {
+        if (segmentCount == segments.length) {
+            Object[][] grown = new Object[segments.length * 2][];
+            long[][] grownTimestamps = timestamps != null ? new long[segments.length * 2][] : null;
+            for (int i = 0; i < segmentCount; i++) {
+                int from = (firstSegment + i) & (segments.length - 1);
+                grown[i] = segments[from];
+                if (grownTimestamps != null) {
+                    grownTimestamps[i] = timestamps[from];
+                }
+            }
+            segments = grown;
+            timestamps = grownTimestamps;
+            firstSegment = 0;
+        }
+        int index = (firstSegment + segmentCount) & (segments.length - 1);
+        segments[index] = new Object[SEGMENT_SIZE];
+        if (timestamps != null) {
+            timestamps[index] = new long[SEGMENT_SIZE];
+        }
+        segmentCount++;
+    }
+
+    /**
+     * Position in the ring of the segment holding the given sequence number.
+     */
+    private int segmentIndex(long sequence) {
+        long first = head >>> SEGMENT_SHIFT;
+        return (int) (firstSegment + (sequence >>> SEGMENT_SHIFT) - first) & (segments.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(long sequence) {
+        return (T) segments[segmentIndex(sequence)][(int) (sequence & SEGMENT_MASK)];
+    }
+
+    /**
+     * Immutable view of the elements with sequence numbers in the range, sharing their segments.
+     */
+    private List<T> view(long from, long to) {
+        if (from == to) {
+            return Collections.emptyList();
+        }
+        int count = (int) (((to - 1) >>> SEGMENT_SHIFT) - (from >>> SEGMENT_SHIFT) + 1);
+        Object[][] shared = new Object[count][];
+        int first = segmentIndex(from);
+        for (int i = 0; i < count; i++) {
+            shared[i] = segments[(first + i) & (segments.length - 1)];
+        }
+        return new Window<>(shared, (int) (from & SEGMENT_MASK), (int) (to - from));
+    }
+
+    /**
+     * Immutable range of elements spread over segments, starting at an offset in the first one.
+     */
+    private static final class Window<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[][] segments;
+        private final int offset;
+        private final int size;
+
+        private Window(Object[][] segments, int offset, int size) {
+            this.segments = segments;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int position = offset + index;
+            return (T) segments[position >>> SEGMENT_SHIFT][position & SEGMENT_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
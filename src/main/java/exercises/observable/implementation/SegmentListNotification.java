@@ -0,0 +1,85 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+
+import java.util.List;
+
+/**
+ * Notification of a change in one segment of a {@link SegmentedObservableList}, as received by
+ * the listeners of the whole list.
+ *
+ * The change is described relatively to its segment: the index is a position in the segment, and
+ * the resulting list is the segment after the change. The segments change independently, so the
+ * position of the change in the whole list is not known; the segment number tells which segment
+ * the change applies to.
+ */
+public final class SegmentListNotification<T> extends ListNotification<T> {
+
+    private final int segment;
+    private final ListNotification<T> notification;
+
+    SegmentListNotification(int segment, ListNotification<T> notification) {
+        this.segment = segment;
+        this.notification = notification;
+    }
+
+    /**
+     * Index of the segment where the change happened.
+     * @return segment of the change
+     */
+    public int getSegment() {
+        return segment;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ListNotificationType getType() {
+        return notification.getType();
+    }
+
+    /**
+     * Position of the change in its segment.
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIndex() {
+        return notification.getIndex();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getChangedElements() {
+        return notification.getChangedElements();
+    }
+
+    /**
+     * State of the segment after the change.
+     * {@inheritDoc}
+     */
+    @Override
+    public List<T> getResultingList() {
+        return notification.getResultingList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ListNotification<T> copy() {
+        ListNotification<T> copy = notification.copy();
+        return copy == notification ? this : new SegmentListNotification<>(segment, copy);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Segment " + segment + ". " + super.toString();
+    }
+}
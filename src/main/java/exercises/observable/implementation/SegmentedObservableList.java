@@ -0,0 +1,309 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.Observable;
+
+import java.util.*;
+
+/**
+ * Observable list split into independently locked segments, for workloads where many threads
+ * append concurrently and a global order across producers is not needed.
+ *
+ * Each writing thread is striped onto one segment, so writers on different segments never
+ * contend for the same lock. Reads and iteration see the concatenation of all segments, in
+ * segment order. Notifications are produced by the segment where the change happened: their index
+ * is a position in that segment, and their resulting list is a snapshot of that segment only.
+ * Listeners registered on the whole list receive the notifications of every segment, as
+ * {@link SegmentListNotification}s telling which segment changed; listeners interested in one
+ * segment only can register for it with {@link #register(int, ListListener)}.
+ */
+public class SegmentedObservableList<T> extends AbstractList<T> implements Observable<ListNotification<T>, ListListener<T>> {
+
+    private final String name;
+
+    private final ObservableList<T>[] segments;
+    private final int segmentMask;
+    private final NotificationEngine<ListNotification<T>, ListListener<T>> engine;
+
+    /**
+     * Creates a list with one segment per available processor (rounded up to a power of two).
+     * @param name name of the list
+     */
+    public SegmentedObservableList(String name) {
+        this(name, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a list with the given number of segments (rounded up to a power of two).
+     * @param name name of the list
+     * @param segmentCount minimum number of segments
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedObservableList(String name, int segmentCount) {
+        if (segmentCount < 1) {
+            throw new IllegalArgumentException("Segment count must be positive: " + segmentCount);
+        }
+        this.name = name;
+        this.engine = new NotificationEngine<>(name, ListListener::onListChange);
+
+        int size = Integer.highestOneBit(segmentCount);
+        if (size < segmentCount) {
+            size <<= 1;
+        }
+        this.segments = (ObservableList<T>[]) new ObservableList<?>[size];
+        this.segmentMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            int segment = i;
+            segments[i] = new ObservableList<>(name + "#" + i);
+            segments[i].register(notification -> notifyAllListeners(new SegmentListNotification<>(segment, notification)));
+        }
+    }
+
+    /**
+     * Name given to this list.
+     * @return name of the list
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Number of segments in this list.
+     * @return number of segments
+     */
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Gives direct access to one of the segments, e.g. to append to a specific stripe.
+     * @param segment index of the segment
+     * @return the segment
+     */
+    public ObservableList<T> getSegment(int segment) {
+        return segments[segment];
+    }
+
+    /**
+     * Segment to which the calling thread appends.
+     * @return the segment of the current thread
+     */
+    public ObservableList<T> currentSegment() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32));
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return segments[hash & segmentMask];
+    }
+
+    /**
+     * Appends the element to the segment of the calling thread.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T element) {
+        return currentSegment().add(element);
+    }
+
+    /**
+     * Appends the elements to the segment of the calling thread.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> collection) {
+        return currentSegment().addAll(collection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        int remaining = index;
+        for (ObservableList<T> segment : segments) {
+            int segmentSize = segment.size();
+            if (remaining < segmentSize) {
+                return segment.get(remaining);
+            }
+            remaining -= segmentSize;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        int remaining = index;
+        for (ObservableList<T> segment : segments) {
+            int segmentSize = segment.size();
+            if (remaining < segmentSize) {
+                return segment.remove(remaining);
+            }
+            remaining -= segmentSize;
+        }
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    /**
+     * Removes the first occurrence of the element, looking through the segments in order.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object element) {
+        for (ObservableList<T> segment : segments) {
+            if (segment.remove(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clears every segment, sending one notification per non-empty segment.
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        for (ObservableList<T> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        for (ObservableList<T> segment : segments) {
+            if (segment.contains(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (ObservableList<T> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Iterates over a copy of each segment, taken under that segment's lock. Every segment is
+     * seen in a consistent state, but the segments are not frozen together.
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+
+            private int segment = 0;
+            private Object[] current = new Object[0];
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (position == current.length) {
+                    if (segment == segments.length) {
+                        return false;
+                    }
+                    current = segments[segment++].toArray();
+                    position = 0;
+                }
+                return true;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) current[position++];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        List<Object> merged = new ArrayList<>();
+        for (ObservableList<T> segment : segments) {
+            merged.addAll(Arrays.asList(segment.toArray()));
+        }
+        return merged.toArray();
+    }
+
+    // Observable implementation
+
+    /**
+     * Registers the listener for the changes of every segment, which it receives as
+     * {@link SegmentListNotification}s.
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(ListListener<T> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * Registers the listener for the changes of one segment only.
+     * @param segment index of the segment
+     * @param listener listener to register
+     */
+    public void register(int segment, ListListener<T> listener) {
+        segments[segment].register(listener);
+    }
+
+    /**
+     * Unregisters a listener registered for one segment.
+     * @param segment index of the segment
+     * @param listener listener to unregister
+     */
+    public void unregister(int segment, ListListener<T> listener) {
+        segments[segment].unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(ListListener<T> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(ListNotification<T> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+}
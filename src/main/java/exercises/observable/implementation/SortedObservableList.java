@@ -0,0 +1,807 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.Observable;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Observable list which keeps its elements sorted, backed by a B+-tree of array leaves.
+ *
+ * Elements are inserted at their sorted position (after the elements they compare equal to), so
+ * {@link #add(int, Object)} and {@link #set(int, Object)} are not supported. Inserting, removing,
+ * finding the index of an element and accessing an element by index all cost O(log n), and every
+ * notification of a single change carries the exact index of the change.
+ *
+ * The tree is persistent: a change copies the nodes on the path from the root to the changed leaf
+ * instead of modifying them, and publishes the new root. Readers never lock and always see the
+ * state of one version, snapshots ({@link #snapshot()}, {@link #subRange(Object, Object)} and the
+ * resulting lists of the notifications) cost O(1), and iterators work on the version current when
+ * they were created. Writers are serialized by a lock, and notifications are sent after it was
+ * released.
+ */
+public class SortedObservableList<T> extends AbstractList<T>
+        implements Observable<ListNotification<T>, ListListener<T>>, RandomAccess {
+
+    static final int LEAF_CAPACITY = 64;
+    static final int BRANCH_CAPACITY = 32;
+
+    private static final Node EMPTY = new Leaf(new Object[0]);
+
+    private final String name;
+    private final Comparator<? super T> comparator;
+    private final Lock writeLock;
+    private final NotificationEngine<ListNotification<T>, ListListener<T>> engine;
+    private volatile Node root;
+
+    /**
+     * Creates a list sorted by the natural ordering of its elements.
+     * @param name name of the list
+     */
+    @SuppressWarnings("unchecked")
+    public SortedObservableList(String name) {
+        this(name, (Comparator<? super T>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Creates a list sorted with the given comparator.
+     * @param name name of the list
+     * @param comparator order of the elements
+     */
+    public SortedObservableList(String name, Comparator<? super T> comparator) {
+        this.name = name;
+        this.comparator = comparator;
+        this.writeLock = new ReentrantLock();
+        this.engine = new NotificationEngine<>(name, ListListener::onListChange);
+        this.root = EMPTY;
+    }
+
+    /**
+     * Name given to this list.
+     * @return name of the list
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Immutable view of the current state of the list, in O(1).
+     * @return snapshot of the list
+     */
+    public List<T> snapshot() {
+        Node current = root;
+        return new View<>(name, current, 0, current.size);
+    }
+
+    /**
+     * Immutable view of the elements greater than or equal to {@code from} and lower than
+     * {@code to}, in the current state of the list, in O(log n).
+     * @param from lower bound, inclusive
+     * @param to upper bound, exclusive
+     * @return snapshot of the range
+     */
+    public List<T> subRange(T from, T to) {
+        Node current = root;
+        int fromIndex = bound(current, from, false);
+        int toIndex = Math.max(fromIndex, bound(current, to, false));
+        return new View<>(name, current, fromIndex, toIndex);
+    }
+
+    /**
+     * Inserts the element at its sorted position, after the elements it compares equal to.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T element) {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            Node current = root;
+            int index = bound(current, element, true);
+            Node[] result = insert(current, index, element);
+            Node updated = result.length == 1 ? result[0] : new Branch(result);
+            root = updated;
+            notification = ListNotification.newListAddNotification(
+                    index, Collections.singletonList(element), view(updated));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(notification);
+        return true;
+    }
+
+    /**
+     * Inserts every element at its sorted position. Several elements are merged into the list in
+     * one pass and notified at once, without an index since they are usually not contiguous.
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addAll(Collection<? extends T> collection) {
+        Object[] added = collection.toArray();
+        if (added.length == 0) {
+            return false;
+        }
+        if (added.length == 1) {
+            return add((T) added[0]);
+        }
+        Arrays.sort(added, (first, second) -> comparator.compare((T) first, (T) second));
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            Node current = root;
+            Object[] existing = toArray(current);
+            Object[] merged = new Object[existing.length + added.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < existing.length && j < added.length) {
+                merged[k++] = comparator.compare((T) added[j], (T) existing[i]) < 0 ? added[j++] : existing[i++];
+            }
+            while (i < existing.length) {
+                merged[k++] = existing[i++];
+            }
+            while (j < added.length) {
+                merged[k++] = added[j++];
+            }
+            Node updated = build(merged);
+            root = updated;
+            notification = ListNotification.newListAddNotification(
+                    existing.length == 0 ? 0 : ListNotification.UNKNOWN_INDEX,
+                    (List<T>) Arrays.asList(added), view(updated));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(notification);
+        return true;
+    }
+
+    /**
+     * Not supported, since elements are inserted at their sorted position.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(int index, T element) {
+        throw new UnsupportedOperationException("Elements of " + name + " are inserted at their sorted position");
+    }
+
+    /**
+     * Not supported, since elements are kept at their sorted position.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public T set(int index, T element) {
+        throw new UnsupportedOperationException("Elements of " + name + " are kept at their sorted position");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        T removed;
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            Node current = root;
+            checkIndex(index, current.size);
+            removed = element(current, index);
+            Node updated = collapse(remove(current, index));
+            root = updated;
+            notification = ListNotification.newListRemoveNotification(
+                    index, Collections.singletonList(removed), view(updated));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(notification);
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object element) {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            Node current = root;
+            int index = indexOf(current, element);
+            if (index < 0) {
+                return false;
+            }
+            T removed = element(current, index);
+            Node updated = collapse(remove(current, index));
+            root = updated;
+            notification = ListNotification.newListRemoveNotification(
+                    index, Collections.singletonList(removed), view(updated));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(notification);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            Object[] elements = toArray(root);
+            List<T> removed = new ArrayList<>();
+            Object[] kept = new Object[elements.length];
+            int count = 0;
+            for (Object element : elements) {
+                if (filter.test((T) element)) {
+                    removed.add((T) element);
+                } else {
+                    kept[count++] = element;
+                }
+            }
+            if (removed.isEmpty()) {
+                return false;
+            }
+            Node updated = build(Arrays.copyOf(kept, count));
+            root = updated;
+            notification = ListNotification.newListRemoveNotification(removed, view(updated));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(notification);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        return removeIf(collection::contains);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        return removeIf(element -> !collection.contains(element));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            Node current = root;
+            if (current.size == 0) {
+                return;
+            }
+            root = EMPTY;
+            notification = ListNotification.newListRemoveNotification(0, view(current), view(EMPTY));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyAllListeners(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        Node current = root;
+        checkIndex(index, current.size);
+        return element(current, index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Finds the element by binary search, in O(log n).
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(Object element) {
+        return indexOf(root, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * Iterates over the current version of the list.
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    /**
+     * Iterates over the current version of the list.
+     * {@inheritDoc}
+     */
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        return snapshot().listIterator(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        return toArray(root);
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(ListListener<T> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(ListListener<T> listener, ListenerTier tier) {
+        engine.register(listener, tier);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(ListListener<T> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(ListNotification<T> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+
+    // Tree
+
+    private List<T> view(Node node) {
+        return new View<>(name, node, 0, node.size);
+    }
+
+    /**
+     * Index of the first element greater than the given one (upper bound) or not lower than it
+     * (lower bound).
+     */
+    @SuppressWarnings("unchecked")
+    private int bound(Node node, Object element, boolean upper) {
+        T key = (T) element;
+        int index = 0;
+        while (node instanceof Branch) {
+            Node[] children = ((Branch) node).children;
+            int low = 1;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = comparator.compare((T) children[middle].first, key);
+                if (comparison < 0 || (upper && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            for (int i = 0; i < high; i++) {
+                index += children[i].size;
+            }
+            node = children[Math.max(high, 0)];
+        }
+        Object[] items = ((Leaf) node).items;
+        int low = 0;
+        int high = items.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparator.compare((T) items[middle], key);
+            if (comparison < 0 || (upper && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return index + low;
+    }
+
+    private int indexOf(Node node, Object element) {
+        int index;
+        try {
+            index = bound(node, element, false);
+        } catch (ClassCastException e) {
+            return -1;
+        }
+        for (int i = index; i < node.size; i++) {
+            T candidate = element(node, i);
+            if (Objects.equals(candidate, element)) {
+                return i;
+            }
+            @SuppressWarnings("unchecked")
+            T key = (T) element;
+            if (comparator.compare(candidate, key) != 0) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T element(Node node, int index) {
+        while (node instanceof Branch) {
+            for (Node child : ((Branch) node).children) {
+                if (index < child.size) {
+                    node = child;
+                    break;
+                }
+                index -= child.size;
+            }
+        }
+        return (T) ((Leaf) node).items[index];
+    }
+
+    static Object[] toArray(Node node) {
+        Object[] elements = new Object[node.size];
+        copy(node, elements, 0);
+        return elements;
+    }
+
+    private static int copy(Node node, Object[] target, int offset) {
+        if (node instanceof Leaf) {
+            Object[] items = ((Leaf) node).items;
+            System.arraycopy(items, 0, target, offset, items.length);
+            return offset + items.length;
+        }
+        for (Node child : ((Branch) node).children) {
+            offset = copy(child, target, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Copies the path to the position and inserts the element there, returning the new node, or
+     * the two halves of it when it had to be split.
+     */
+    private static Node[] insert(Node node, int index, Object element) {
+        if (node instanceof Leaf) {
+            Object[] items = insertAt(((Leaf) node).items, index, element);
+            if (items.length <= LEAF_CAPACITY) {
+                return new Node[]{new Leaf(items)};
+            }
+            int half = items.length / 2;
+            return new Node[]{
+                    new Leaf(Arrays.copyOfRange(items, 0, half)),
+                    new Leaf(Arrays.copyOfRange(items, half, items.length))};
+        }
+        Node[] children = ((Branch) node).children;
+        int child = 0;
+        while (child < children.length - 1 && index > children[child].size) {
+            index -= children[child].size;
+            child++;
+        }
+        Node[] result = insert(children[child], index, element);
+        Node[] updated;
+        if (result.length == 1) {
+            updated = children.clone();
+            updated[child] = result[0];
+        } else {
+            updated = new Node[children.length + 1];
+            System.arraycopy(children, 0, updated, 0, child);
+            updated[child] = result[0];
+            updated[child + 1] = result[1];
+            System.arraycopy(children, child + 1, updated, child + 2, children.length - child - 1);
+        }
+        if (updated.length <= BRANCH_CAPACITY) {
+            return new Node[]{new Branch(updated)};
+        }
+        int half = updated.length / 2;
+        return new Node[]{
+                new Branch(Arrays.copyOfRange(updated, 0, half)),
+                new Branch(Arrays.copyOfRange(updated, half, updated.length))};
+    }
+
+    /**
+     * Copies the path to the position and removes the element there, merging the changed node
+     * with a neighbour when both fit in one. Returns null if the node became empty.
+     */
+    private static Node remove(Node node, int index) {
+        if (node instanceof Leaf) {
+            Object[] items = ((Leaf) node).items;
+            if (items.length == 1) {
+                return null;
+            }
+            Object[] updated = new Object[items.length - 1];
+            System.arraycopy(items, 0, updated, 0, index);
+            System.arraycopy(items, index + 1, updated, index, items.length - index - 1);
+            return new Leaf(updated);
+        }
+        Node[] children = ((Branch) node).children;
+        int child = 0;
+        while (index >= children[child].size) {
+            index -= children[child].size;
+            child++;
+        }
+        Node changed = remove(children[child], index);
+        if (changed == null) {
+            if (children.length == 1) {
+                return null;
+            }
+            Node[] updated = new Node[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, child);
+            System.arraycopy(children, child + 1, updated, child, children.length - child - 1);
+            return new Branch(updated);
+        }
+        int neighbour = child + 1 < children.length ? child + 1 : child - 1;
+        if (neighbour >= 0 && changed.width() < changed.capacity() / 4
+                && changed.width() + children[neighbour].width() <= changed.capacity()) {
+            int left = Math.min(child, neighbour);
+            Node merged = child < neighbour ? merge(changed, children[neighbour]) : merge(children[neighbour], changed);
+            Node[] updated = new Node[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, left);
+            updated[left] = merged;
+            System.arraycopy(children, left + 2, updated, left + 1, children.length - left - 2);
+            return new Branch(updated);
+        }
+        Node[] updated = children.clone();
+        updated[child] = changed;
+        return new Branch(updated);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left instanceof Leaf) {
+            return new Leaf(concat(((Leaf) left).items, ((Leaf) right).items));
+        }
+        return new Branch((Node[]) concat(((Branch) left).children, ((Branch) right).children));
+    }
+
+    private static Node collapse(Node node) {
+        if (node == null) {
+            return EMPTY;
+        }
+        while (node instanceof Branch && ((Branch) node).children.length == 1) {
+            node = ((Branch) node).children[0];
+        }
+        return node;
+    }
+
+    /**
+     * Builds a tree from sorted elements, filling leaves and branches to three quarters so that
+     * the next insertions do not split them straight away.
+     */
+    private static Node build(Object[] elements) {
+        if (elements.length == 0) {
+            return EMPTY;
+        }
+        int leafFill = LEAF_CAPACITY * 3 / 4;
+        List<Node> level = new ArrayList<>();
+        for (int from = 0; from < elements.length; from += leafFill) {
+            level.add(new Leaf(Arrays.copyOfRange(elements, from, Math.min(elements.length, from + leafFill))));
+        }
+        int branchFill = BRANCH_CAPACITY * 3 / 4;
+        while (level.size() > 1) {
+            List<Node> parents = new ArrayList<>();
+            for (int from = 0; from < level.size(); from += branchFill) {
+                List<Node> group = level.subList(from, Math.min(level.size(), from + branchFill));
+                parents.add(new Branch(group.toArray(new Node[0])));
+            }
+            level = parents;
+        }
+        return level.get(0);
+    }
+
+    private static Object[] insertAt(Object[] items, int index, Object element) {
+        Object[] updated = new Object[items.length + 1];
+        System.arraycopy(items, 0, updated, 0, index);
+        updated[index] = element;
+        System.arraycopy(items, index, updated, index + 1, items.length - index);
+        return updated;
+    }
+
+    private static Object[] concat(Object[] first, Object[] second) {
+        Object[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Immutable node of the tree, knowing the number of elements below it and the first of them.
+     */
+    abstract static class Node {
+
+        final int size;
+        final Object first;
+
+        Node(int size, Object first) {
+            this.size = size;
+            this.first = first;
+        }
+
+        abstract int width();
+
+        abstract int capacity();
+    }
+
+    static final class Leaf extends Node {
+
+        final Object[] items;
+
+        Leaf(Object[] items) {
+            super(items.length, items.length > 0 ? items[0] : null);
+            this.items = items;
+        }
+
+        @Override
+        int width() {
+            return items.length;
+        }
+
+        @Override
+        int capacity() {
+            return LEAF_CAPACITY;
+        }
+    }
+
+    static final class Branch extends Node {
+
+        final Node[] children;
+
+        Branch(Node[] children) {
+            super(sum(children), children[0].first);
+            this.children = children;
+        }
+
+        private static int sum(Node[] children) {
+            int size = 0;
+            for (Node child : children) {
+                size += child.size;
+            }
+            return size;
+        }
+
+        @Override
+        int width() {
+            return children.length;
+        }
+
+        @Override
+        int capacity() {
+            return BRANCH_CAPACITY;
+        }
+    }
+
+    /**
+     * Immutable view of a range of one version of the tree. Iteration walks the tree leaf by leaf.
+     */
+    private static final class View<T> extends AbstractList<T> implements RandomAccess {
+
+        private final String name;
+        private final Node root;
+        private final int fromIndex;
+        private final int toIndex;
+
+        private View(String name, Node root, int fromIndex, int toIndex) {
+            this.name = name;
+            this.root = root;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        public T get(int index) {
+            checkIndex(index, size());
+            return element(root, fromIndex + index);
+        }
+
+        @Override
+        public int size() {
+            return toIndex - fromIndex;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+
+                private int next = fromIndex;
+                private Object[] leaf = new Object[0];
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    return next < toIndex;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (next >= toIndex) {
+                        throw new NoSuchElementException();
+                    }
+                    if (position == leaf.length) {
+                        locate(next);
+                    }
+                    next++;
+                    return (T) leaf[position++];
+                }
+
+                private void locate(int index) {
+                    Node node = root;
+                    while (node instanceof Branch) {
+                        for (Node child : ((Branch) node).children) {
+                            if (index < child.size) {
+                                node = child;
+                                break;
+                            }
+                            index -= child.size;
+                        }
+                    }
+                    leaf = ((Leaf) node).items;
+                    position = index;
+                }
+            };
+        }
+
+        @Override
+        public Object[] toArray() {
+            if (fromIndex == 0 && toIndex == root.size) {
+                return SortedObservableList.toArray(root);
+            }
+            return super.toArray();
+        }
+
+        @Override
+        public String toString() {
+            return name + " - " + super.toString();
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+import exercises.observable.model.ListStorage;
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.Observable;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Observable list whose elements are kept in a pluggable {@link ListStorage}, this class only
+ * taking care of locking and notifications.
+ *
+ * Changes are notified as by {@link ObservableList}, with the same indices and changed elements,
+ * after the lock was released, and the resulting list of every notification is a snapshot of the
+ * storage. Which storage fits best depends on the access pattern: {@link ArrayListStorage} for
+ * appends and reads, {@link ChunkedListStorage} for changes in the middle of large lists,
+ * {@link GapBufferListStorage} for runs of changes around a moving position, and
+ * {@link CopyOnWriteListStorage} when snapshots must be free. Iterators work on a snapshot.
+ *
+ * Subclasses can build the notifications themselves (see {@link PooledObservableList}), including
+ * notifications which are only valid until they have been delivered.
+ */
+public class StorageObservableList<T> extends AbstractList<T>
+        implements Observable<ListNotification<T>, ListListener<T>>, RandomAccess {
+
+    private final String name;
+    private final ListStorage<T> storage;
+    private final Lock readLock;
+    private final Lock writeLock;
+    private final NotificationEngine<ListNotification<T>, ListListener<T>> engine;
+
+    /**
+     * Creates a list stored in the given storage, which must not be used by anything else.
+     * @param name name of the list
+     * @param storage storage of the elements
+     */
+    public StorageObservableList(String name, ListStorage<T> storage) {
+        this.name = name;
+        this.storage = storage;
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.engine = new NotificationEngine<>(name, ListListener::onListChange, ListNotification::copy);
+    }
+
+    /**
+     * Name given to this list.
+     * @return name of the list
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Immutable view of the current state of the list, as provided by the storage.
+     * @return snapshot of the list
+     */
+    public List<T> snapshot() {
+        readLock.lock();
+        try {
+            return storage.snapshot();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T element) {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            notification = insert(storage.size(), new Object[]{element});
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, T element) {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            checkPosition(index);
+            notification = insert(index, new Object[]{element});
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> collection) {
+        Object[] added = collection.toArray();
+        if (added.length == 0) {
+            return false;
+        }
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            notification = insert(storage.size(), added);
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> collection) {
+        Object[] added = collection.toArray();
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            checkPosition(index);
+            if (added.length == 0) {
+                return false;
+            }
+            notification = insert(index, added);
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T remove(int index) {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            checkIndex(index);
+            notification = delete(index, index + 1);
+        } finally {
+            writeLock.unlock();
+        }
+        T removed = notification.getChangedElements().get(0);
+        notifyChange(notification);
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object element) {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            int index = indexOf(element);
+            if (index < 0) {
+                return false;
+            }
+            notification = delete(index, index + 1);
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            notification = delete(fromIndex, toIndex);
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            if (storage.size() == 0) {
+                return;
+            }
+            notification = delete(0, storage.size());
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        ListNotification<T> notification;
+        writeLock.lock();
+        try {
+            Object[] elements = storage.toArray();
+            Object[] removed = new Object[elements.length];
+            int removedCount = 0;
+            int kept = 0;
+            for (Object element : elements) {
+                if (filter.test((T) element)) {
+                    removed[removedCount++] = element;
+                } else {
+                    elements[kept++] = element;
+                }
+            }
+            if (removedCount == 0) {
+                return false;
+            }
+            storage.replace(Arrays.copyOf(elements, kept));
+            modCount++;
+            notification = newNotification(ListNotificationType.REMOVE, ListNotification.UNKNOWN_INDEX,
+                    removed, removedCount, storage.snapshot());
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChange(notification);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        return removeIf(collection::contains);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        Objects.requireNonNull(collection);
+        return removeIf(element -> !collection.contains(element));
+    }
+
+    /**
+     * Replaces the element without notification, like {@link ObservableList#set(int, Object)}.
+     * {@inheritDoc}
+     */
+    @Override
+    public T set(int index, T element) {
+        writeLock.lock();
+        try {
+            checkIndex(index);
+            return storage.set(index, element);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int index) {
+        readLock.lock();
+        try {
+            checkIndex(index);
+            return storage.get(index);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        readLock.lock();
+        try {
+            return storage.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int indexOf(Object element) {
+        readLock.lock();
+        try {
+            int size = storage.size();
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(element, storage.get(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * Iterates over a snapshot of the list.
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    /**
+     * Iterates over a snapshot of the list.
+     * {@inheritDoc}
+     */
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        return snapshot().listIterator(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        readLock.lock();
+        try {
+            return storage.toArray();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // Observable implementation
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void register(ListListener<T> listener) {
+        engine.register(listener);
+    }
+
+    /**
+     * Registers a listener in the given dispatch tier.
+     * @param listener listener to register
+     * @param tier tier in which the listener is notified
+     */
+    public void register(ListListener<T> listener, ListenerTier tier) {
+        engine.register(listener, tier);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void unregister(ListListener<T> listener) {
+        engine.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyAllListeners(ListNotification<T> notification) {
+        engine.notifyAllListeners(notification);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return this.name + " - " + super.toString();
+    }
+
+    /**
+     * Builds the notification of a change, under the write lock and once the storage holds the
+     * result of the change. The notification may be only valid until it has been passed to
+     * {@link #notificationDelivered(ListNotification)}: best-effort listeners receive its
+     * {@link ListNotification#copy()}, taken once the synchronous listeners have been notified.
+     * @param type type of the change
+     * @param index index of the change, or {@link ListNotification#UNKNOWN_INDEX}
+     * @param changed array holding the changed elements from its start, which is not modified
+     *                afterwards
+     * @param count number of changed elements
+     * @param resultingList snapshot of the storage after the change
+     * @return the notification of the change
+     */
+    @SuppressWarnings("unchecked")
+    protected ListNotification<T> newNotification(
+            ListNotificationType type, int index, Object[] changed, int count, List<T> resultingList) {
+        List<T> elements = count == 1
+                ? Collections.singletonList((T) changed[0])
+                : ListSnapshot.of(changed, 0, count);
+        return ListNotificationType.ADD.equals(type)
+                ? ListNotification.newListAddNotification(index, elements, resultingList)
+                : ListNotification.newListRemoveNotification(index, elements, resultingList);
+    }
+
+    /**
+     * Called once a notification built by {@link #newNotification} has been delivered, even if a
+     * listener failed. Does nothing by default.
+     * @param notification delivered notification
+     */
+    protected void notificationDelivered(ListNotification<T> notification) {
+    }
+
+    private void notifyChange(ListNotification<T> notification) {
+        try {
+            notifyAllListeners(notification);
+        } finally {
+            notificationDelivered(notification);
+        }
+    }
+
+    /**
+     * Inserts the elements at the index, which must be valid, and builds the notification.
+     */
+    private ListNotification<T> insert(int index, Object[] added) {
+        storage.insert(index, added);
+        modCount++;
+        return newNotification(ListNotificationType.ADD, index, added, added.length, storage.snapshot());
+    }
+
+    /**
+     * Removes the elements of the range, which must be valid, and builds the notification.
+     */
+    private ListNotification<T> delete(int fromIndex, int toIndex) {
+        Object[] removed = storage.remove(fromIndex, toIndex);
+        modCount++;
+        return newNotification(ListNotificationType.REMOVE, fromIndex, removed, removed.length, storage.snapshot());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= storage.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + storage.size());
+        }
+    }
+
+    private void checkPosition(int index) {
+        if (index < 0 || index > storage.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + storage.size());
+        }
+    }
+}
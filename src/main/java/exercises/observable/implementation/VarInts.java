@@ -0,0 +1,51 @@
+package exercises.observable.implementation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Variable-length encoding of integers (7 bits per byte, least significant group first), with
+ * zig-zag mapping for signed values so that small negative numbers stay short.
+ */
+final class VarInts {
+
+    private VarInts() {
+    }
+
+    static void writeUnsigned(long value, ByteBuffer buffer) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long readUnsigned(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    static void writeSigned(long value, ByteBuffer buffer) {
+        writeUnsigned((value << 1) ^ (value >> 63), buffer);
+    }
+
+    static long readSigned(ByteBuffer buffer) {
+        long value = readUnsigned(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int sizeOfUnsigned(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
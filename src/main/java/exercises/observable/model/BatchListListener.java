@@ -0,0 +1,17 @@
+package exercises.observable.model;
+
+/**
+ * Interface for listeners which receive notifications in batches, as they are drained from a
+ * notification pipeline.
+ */
+public interface BatchListListener<T> {
+
+    /**
+     * Method through which the listener is notified of a change in the list. It is called once per
+     * notification, in order, and the last notification currently available is flagged as the end
+     * of the batch, so that the listener can defer expensive work (e.g. flushing) until then.
+     * @param notification notification object
+     * @param endOfBatch whether this is the last notification of the current batch
+     */
+    void onListChanges(ListNotification<T> notification, boolean endOfBatch);
+}
@@ -0,0 +1,26 @@
+package exercises.observable.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for the binary encoding of list elements, used when notifications are sent or stored
+ * outside of the JVM.
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Writes the element at the current position of the buffer, advancing it.
+     * @param element element to encode (may be null if the codec supports it)
+     * @param buffer buffer to write to
+     * @throws java.nio.BufferOverflowException if the buffer has not enough space left
+     */
+    void encode(T element, ByteBuffer buffer);
+
+    /**
+     * Reads an element from the current position of the buffer, advancing it.
+     * @param buffer buffer to read from
+     * @return decoded element
+     * @throws java.nio.BufferUnderflowException if the buffer does not contain a whole element
+     */
+    T decode(ByteBuffer buffer);
+}
@@ -0,0 +1,67 @@
+package exercises.observable.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * List which knows a fingerprint of its elements, and which version of which list it is, so that
+ * it can be compared with another one without comparing their elements.
+ *
+ * The fingerprint is the sum of the mixed hash codes of the elements: it does not depend on their
+ * order, but it can be maintained in O(1) by a list adding or removing an element anywhere. Equal
+ * lists therefore always have equal fingerprints, while lists with different fingerprints are
+ * never equal; lists with the same fingerprint still have to be compared element by element,
+ * unless they are the same version of the same list.
+ *
+ * The fingerprint of an element is taken when it is added to the list, so the elements must not
+ * change their hash codes while they are in the list, as the keys of a hash map must not: the
+ * elements are best immutable. Otherwise, equal lists may have different fingerprints and then be
+ * wrongly found to differ.
+ *
+ * @param <T> type of the elements
+ */
+public interface FingerprintedList<T> extends List<T> {
+
+    /**
+     * Order-independent fingerprint of the elements (see {@link #fingerprintOf(Iterable)}).
+     * @return fingerprint of the list
+     */
+    long getFingerprint();
+
+    /**
+     * Whether both lists are the same version of the same list, and therefore hold the same
+     * elements. False does not mean that the elements differ.
+     * @param other list to compare with
+     * @return true if both are the same version of the same list
+     */
+    boolean isSameVersionAs(FingerprintedList<?> other);
+
+    /**
+     * Contribution of an element to the fingerprint of a list: its hash code, mixed so that the
+     * sums of a few small hash codes do not collide.
+     * @param element element of the list, possibly null
+     * @return fingerprint of the element
+     */
+    static long elementFingerprint(Object element) {
+        long mixed = Objects.hashCode(element) + 0x9E3779B97F4A7C15L;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    /**
+     * Fingerprint of the elements, read in O(1) from a fingerprinted list and computed otherwise.
+     * @param elements elements of a list
+     * @return sum of the fingerprints of the elements
+     */
+    static long fingerprintOf(Iterable<?> elements) {
+        if (elements instanceof FingerprintedList) {
+            return ((FingerprintedList<?>) elements).getFingerprint();
+        }
+        long fingerprint = 0L;
+        for (Object element : elements) {
+            fingerprint += elementFingerprint(element);
+        }
+        return fingerprint;
+    }
+}
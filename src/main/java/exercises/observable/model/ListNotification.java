@@ -5,21 +5,43 @@ import java.util.List;
 /**
  * Class representing the notifications passed to the listeners.
  *
+ * Notifications are compared and hashed by type, changed elements and resulting list. When the
+ * resulting lists are {@link FingerprintedList}s, as the snapshots of observable lists are, that
+ * part costs O(1): lists with different fingerprints differ, the same version of the same list is
+ * equal to itself, and the hash code uses the fingerprint. Only lists which may be equal without
+ * being the same version are compared element by element.
+ *
  * Created by guisil on 09/08/2016.
  */
 public class ListNotification<T> {
 
+    /**
+     * Index used when the changed elements were not contiguous in the list, or their position is
+     * not known.
+     */
+    public static final int UNKNOWN_INDEX = -1;
+
     private final ListNotificationType type;
+    private final int index;
     private final List<T> changedElements;
     private final List<T> resultingList;
 
     private ListNotification(
-            ListNotificationType type, List<T> changedElements, List<T> resultingList) {
+            ListNotificationType type, int index, List<T> changedElements, List<T> resultingList) {
         this.type = type;
+        this.index = index;
         this.changedElements = changedElements;
         this.resultingList = resultingList;
     }
 
+    /**
+     * Constructor for subclasses which override the accessors, such as the reusable notifications
+     * of an allocation-free list.
+     */
+    protected ListNotification() {
+        this(null, UNKNOWN_INDEX, null, null);
+    }
+
     /**
      * Factory method for notifications of added elements to a list.
      * @param changedElements list of added elements
@@ -28,7 +50,20 @@ public class ListNotification<T> {
      * @return notification containing the given information
      */
     public static <T> ListNotification<T> newListAddNotification(List<T> changedElements, List<T> resultingList) {
-        return new ListNotification<>(ListNotificationType.ADD, changedElements, resultingList);
+        return new ListNotification<>(ListNotificationType.ADD, UNKNOWN_INDEX, changedElements, resultingList);
+    }
+
+    /**
+     * Factory method for notifications of elements added to a list at a known position.
+     * @param index index of the first added element in the resulting list
+     * @param changedElements list of added elements
+     * @param resultingList list after the addition of the elements
+     * @param <T> type of the elements in the list
+     * @return notification containing the given information
+     */
+    public static <T> ListNotification<T> newListAddNotification(
+            int index, List<T> changedElements, List<T> resultingList) {
+        return new ListNotification<>(ListNotificationType.ADD, index, changedElements, resultingList);
     }
 
     /**
@@ -39,7 +74,64 @@ public class ListNotification<T> {
      * @return notification containing the given information
      */
     public static <T> ListNotification<T> newListRemoveNotification(List<T> changedElements, List<T> resultingList) {
-        return new ListNotification<>(ListNotificationType.REMOVE, changedElements, resultingList);
+        return new ListNotification<>(ListNotificationType.REMOVE, UNKNOWN_INDEX, changedElements, resultingList);
+    }
+
+    /**
+     * Factory method for notifications of a contiguous run of elements removed from a list.
+     * @param index index of the first removed element in the list before the removal
+     * @param changedElements list of removed elements
+     * @param resultingList list after the removal of the elements
+     * @param <T> type of the elements in the list
+     * @return notification containing the given information
+     */
+    public static <T> ListNotification<T> newListRemoveNotification(
+            int index, List<T> changedElements, List<T> resultingList) {
+        return new ListNotification<>(ListNotificationType.REMOVE, index, changedElements, resultingList);
+    }
+
+    /**
+     * Type of the change (addition or removal of elements).
+     * @return notification type
+     */
+    public ListNotificationType getType() {
+        return type;
+    }
+
+    /**
+     * Position of the change: the index of the first changed element, or {@link #UNKNOWN_INDEX}
+     * when the changed elements were not contiguous. The index describes where the change happened
+     * rather than what changed, so it is not taken into account by {@link #equals(Object)}.
+     * @return index of the change
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Elements which were added or removed.
+     * @return changed elements
+     */
+    public List<T> getChangedElements() {
+        return changedElements;
+    }
+
+    /**
+     * State of the list after the change.
+     * @return resulting list
+     */
+    public List<T> getResultingList() {
+        return resultingList;
+    }
+
+    /**
+     * Notification which stays valid once the callback receiving this one has returned, for
+     * listeners which retain it. Notifications are immutable unless stated otherwise, in which case
+     * this is the notification itself.
+     * @return notification safe to retain
+     */
+    public ListNotification<T> copy() {
+        return this;
     }
 
     /**
@@ -55,9 +147,9 @@ public class ListNotification<T> {
         }
         ListNotification other = (ListNotification) obj;
 
-        return (other.type == this.type
-                && other.changedElements.equals(this.changedElements)
-                && other.resultingList.equals(this.resultingList));
+        return (other.getType() == this.getType()
+                && other.getChangedElements().equals(this.getChangedElements())
+                && sameElements(other.getResultingList(), this.getResultingList()));
     }
 
     /**
@@ -66,27 +158,44 @@ public class ListNotification<T> {
     @Override
     public int hashCode() {
         int result = 17;
-        result = 31 * result + type.hashCode();
-        result = 31 * result + changedElements.hashCode();
-        result = 31 * result + resultingList.hashCode();
+        result = 31 * result + getType().hashCode();
+        result = 31 * result + getChangedElements().hashCode();
+        result = 31 * result + Long.hashCode(FingerprintedList.fingerprintOf(getResultingList()));
         return result;
     }
 
+    private static boolean sameElements(List<?> first, List<?> second) {
+        if (first == second) {
+            return true;
+        }
+        if (first instanceof FingerprintedList && second instanceof FingerprintedList) {
+            FingerprintedList<?> firstList = (FingerprintedList<?>) first;
+            FingerprintedList<?> secondList = (FingerprintedList<?>) second;
+            if (firstList.getFingerprint() != secondList.getFingerprint()) {
+                return false;
+            }
+            if (firstList.isSameVersionAs(secondList)) {
+                return true;
+            }
+        }
+        return first.equals(second);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder("Changed List Notification. ");
-        if (ListNotificationType.ADD.equals(type)) {
+        if (ListNotificationType.ADD.equals(getType())) {
             builder.append("Added ");
         } else {
             builder.append("Removed ");
         }
         builder.append("elements: ");
-        builder.append(changedElements);
+        builder.append(getChangedElements());
         builder.append(". Resulting list: ");
-        builder.append(resultingList);
+        builder.append(getResultingList());
         return builder.toString();
     }
 }
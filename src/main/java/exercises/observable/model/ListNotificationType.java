@@ -5,7 +5,7 @@ package exercises.observable.model;
  *
  * Created by guisil on 09/08/2016.
  */
-enum ListNotificationType {
+public enum ListNotificationType {
     ADD,
     REMOVE
 }
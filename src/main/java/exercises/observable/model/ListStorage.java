@@ -0,0 +1,69 @@
+package exercises.observable.model;
+
+import java.util.List;
+
+/**
+ * Interface for the storage of an observable list, which decides how the elements are laid out in
+ * memory while the observable list takes care of locking and notifications.
+ *
+ * Implementations are not thread-safe: the observable list calls them under its lock, reads under
+ * the read lock and changes under the write lock. Indices are checked by the observable list
+ * before the calls.
+ */
+public interface ListStorage<T> {
+
+    /**
+     * Number of stored elements.
+     * @return size of the storage
+     */
+    int size();
+
+    /**
+     * Element at the given index.
+     * @param index index of the element
+     * @return the element
+     */
+    T get(int index);
+
+    /**
+     * Replaces the element at the given index.
+     * @param index index of the element
+     * @param element new element
+     * @return the element previously at that index
+     */
+    T set(int index, T element);
+
+    /**
+     * Inserts elements as one contiguous range, shifting the following ones.
+     * @param index index of the first inserted element, from 0 to the size
+     * @param elements elements to insert, which must not be modified afterwards
+     */
+    void insert(int index, Object[] elements);
+
+    /**
+     * Removes a contiguous range of elements.
+     * @param fromIndex index of the first removed element, inclusive
+     * @param toIndex index of the last removed element, exclusive
+     * @return the removed elements, in a new array
+     */
+    Object[] remove(int fromIndex, int toIndex);
+
+    /**
+     * Replaces the whole content of the storage, e.g. after a bulk removal.
+     * @param elements new elements, which must not be modified afterwards
+     */
+    void replace(Object[] elements);
+
+    /**
+     * Copies the elements.
+     * @return the elements, in a new array
+     */
+    Object[] toArray();
+
+    /**
+     * Immutable view of the current content, unaffected by later changes. Its cost depends on the
+     * storage: this is what the resulting list of every notification is made of.
+     * @return snapshot of the storage
+     */
+    List<T> snapshot();
+}
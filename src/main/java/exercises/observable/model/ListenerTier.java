@@ -0,0 +1,20 @@
+package exercises.observable.model;
+
+/**
+ * Enumeration for the dispatch tiers of listeners.
+ *
+ * When an observable changes, its critical listeners are notified first, then its default ones,
+ * both on the thread which made the change; best-effort listeners are notified last,
+ * asynchronously, so that they add nothing to the latency of writers.
+ *
+ * The default tier is the one of listeners registered without a tier, which have always been
+ * notified before the change returns: collections forwarding notifications, change logs promising
+ * durability once a change returns, and most tests rely on it. It therefore stays synchronous, and
+ * a writer's latency includes its critical and default listeners. To keep only the critical tier
+ * on the write path, the other listeners must be registered in the best-effort tier.
+ */
+public enum ListenerTier {
+    CRITICAL,
+    DEFAULT,
+    BEST_EFFORT
+}
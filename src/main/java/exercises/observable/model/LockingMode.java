@@ -0,0 +1,16 @@
+package exercises.observable.model;
+
+/**
+ * Enumeration for the ways an observable can lock its state.
+ *
+ * A shared observable always goes through a read-write lock. An owned observable belongs to a
+ * single thread, which reads and changes it without locking for as long as no other thread touches
+ * it; the first access from another thread waits for the owner to leave the observable, and from
+ * then on every thread, the owner included, goes through the read-write lock. The owner is either
+ * the thread which created the observable, or, adaptively, the first thread which used it.
+ */
+public enum LockingMode {
+    SHARED,
+    OWNER_THREAD,
+    ADAPTIVE
+}
@@ -0,0 +1,13 @@
+package exercises.observable.model;
+
+/**
+ * Interface for the map listeners.
+ */
+public interface MapListener<K, V> {
+
+    /**
+     * Method through which the listener is notified of a change of one key of the map.
+     * @param notification notification object
+     */
+    void onMapChange(MapNotification<K, V> notification);
+}
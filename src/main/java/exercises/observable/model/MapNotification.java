@@ -0,0 +1,143 @@
+package exercises.observable.model;
+
+import java.util.Objects;
+
+/**
+ * Class representing the notifications passed to the map listeners, one per changed key.
+ */
+public class MapNotification<K, V> {
+
+    private final MapNotificationType type;
+    private final K key;
+    private final V oldValue;
+    private final V newValue;
+
+    private MapNotification(MapNotificationType type, K key, V oldValue, V newValue) {
+        this.type = type;
+        this.key = key;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * Factory method for notifications of keys added to a map.
+     * @param key added key
+     * @param newValue value of the key
+     * @param <K> type of the keys in the map
+     * @param <V> type of the values in the map
+     * @return notification containing the given information
+     */
+    public static <K, V> MapNotification<K, V> newMapAddNotification(K key, V newValue) {
+        return new MapNotification<>(MapNotificationType.ADD, key, null, newValue);
+    }
+
+    /**
+     * Factory method for notifications of keys whose value changed.
+     * @param key updated key
+     * @param oldValue value of the key before the change
+     * @param newValue value of the key after the change
+     * @param <K> type of the keys in the map
+     * @param <V> type of the values in the map
+     * @return notification containing the given information
+     */
+    public static <K, V> MapNotification<K, V> newMapUpdateNotification(K key, V oldValue, V newValue) {
+        return new MapNotification<>(MapNotificationType.UPDATE, key, oldValue, newValue);
+    }
+
+    /**
+     * Factory method for notifications of keys removed from a map.
+     * @param key removed key
+     * @param oldValue value of the key before the removal
+     * @param <K> type of the keys in the map
+     * @param <V> type of the values in the map
+     * @return notification containing the given information
+     */
+    public static <K, V> MapNotification<K, V> newMapRemoveNotification(K key, V oldValue) {
+        return new MapNotification<>(MapNotificationType.REMOVE, key, oldValue, null);
+    }
+
+    /**
+     * Type of the change (addition, update or removal of the key).
+     * @return notification type
+     */
+    public MapNotificationType getType() {
+        return type;
+    }
+
+    /**
+     * Key which changed.
+     * @return changed key
+     */
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * Value of the key before the change (null for additions).
+     * @return old value
+     */
+    public V getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Value of the key after the change (null for removals).
+     * @return new value
+     */
+    public V getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof MapNotification)) {
+            return false;
+        }
+        MapNotification<?, ?> other = (MapNotification<?, ?>) obj;
+
+        return (other.type == this.type
+                && Objects.equals(other.key, this.key)
+                && Objects.equals(other.oldValue, this.oldValue)
+                && Objects.equals(other.newValue, this.newValue));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int result = 17;
+        result = 31 * result + type.hashCode();
+        result = 31 * result + Objects.hashCode(key);
+        result = 31 * result + Objects.hashCode(oldValue);
+        result = 31 * result + Objects.hashCode(newValue);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Changed Map Notification. ");
+        switch (type) {
+            case ADD:
+                builder.append("Added key ").append(key).append(" with value ").append(newValue);
+                break;
+            case UPDATE:
+                builder.append("Updated key ").append(key).append(" from ").append(oldValue)
+                        .append(" to ").append(newValue);
+                break;
+            default:
+                builder.append("Removed key ").append(key).append(" with value ").append(oldValue);
+                break;
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package exercises.observable.model;
+
+/**
+ * Enumeration for the types of map notifications.
+ */
+public enum MapNotificationType {
+    ADD,
+    UPDATE,
+    REMOVE
+}
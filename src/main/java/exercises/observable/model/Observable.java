@@ -3,9 +3,12 @@ package exercises.observable.model;
 /**
  * Interface for observable classes.
  *
+ * Observables send notifications of type {@code N} to listeners of type {@code L} (e.g.
+ * {@link ListNotification}s to {@link ListListener}s).
+ *
  * Created by guisil on 09/08/2016.
  */
-public interface Observable<T, L> {
+public interface Observable<N, L> {
 
     /**
      * Registers the given listener in this Observable.
@@ -23,5 +26,5 @@ public interface Observable<T, L> {
      * Sends the given notification to all the registered listeners.
      * @param notification notification to send
      */
-    void notifyAllListeners(ListNotification<T> notification);
+    void notifyAllListeners(N notification);
 }
@@ -0,0 +1,13 @@
+package exercises.observable.model;
+
+/**
+ * Interface for the set listeners.
+ */
+public interface SetListener<E> {
+
+    /**
+     * Method through which the listener is notified of an element added to or removed from the set.
+     * @param notification notification object
+     */
+    void onSetChange(SetNotification<E> notification);
+}
@@ -0,0 +1,86 @@
+package exercises.observable.model;
+
+import java.util.Objects;
+
+/**
+ * Class representing the notifications passed to the set listeners, one per changed element.
+ */
+public class SetNotification<E> {
+
+    private final SetNotificationType type;
+    private final E element;
+
+    private SetNotification(SetNotificationType type, E element) {
+        this.type = type;
+        this.element = element;
+    }
+
+    /**
+     * Factory method for notifications of elements added to a set.
+     * @param element added element
+     * @param <E> type of the elements in the set
+     * @return notification containing the given information
+     */
+    public static <E> SetNotification<E> newSetAddNotification(E element) {
+        return new SetNotification<>(SetNotificationType.ADD, element);
+    }
+
+    /**
+     * Factory method for notifications of elements removed from a set.
+     * @param element removed element
+     * @param <E> type of the elements in the set
+     * @return notification containing the given information
+     */
+    public static <E> SetNotification<E> newSetRemoveNotification(E element) {
+        return new SetNotification<>(SetNotificationType.REMOVE, element);
+    }
+
+    /**
+     * Type of the change (addition or removal of the element).
+     * @return notification type
+     */
+    public SetNotificationType getType() {
+        return type;
+    }
+
+    /**
+     * Element which was added or removed.
+     * @return changed element
+     */
+    public E getElement() {
+        return element;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof SetNotification)) {
+            return false;
+        }
+        SetNotification<?> other = (SetNotification<?>) obj;
+
+        return other.type == this.type && Objects.equals(other.element, this.element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (17 * 31 + type.hashCode()) + Objects.hashCode(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Changed Set Notification. "
+                + (SetNotificationType.ADD.equals(type) ? "Added" : "Removed") + " element: " + element;
+    }
+}
@@ -0,0 +1,9 @@
+package exercises.observable.model;
+
+/**
+ * Enumeration for the types of set notifications.
+ */
+public enum SetNotificationType {
+    ADD,
+    REMOVE
+}
@@ -0,0 +1,16 @@
+package exercises.observable.model;
+
+import java.util.List;
+
+/**
+ * Interface for the listeners of transactions spanning several observable lists.
+ */
+public interface TransactionListener {
+
+    /**
+     * Method through which the listener is notified of a committed transaction.
+     * @param notifications notifications of all the changes of the transaction, in the order they
+     *                      were made; the resulting list of each one tells the list it comes from
+     */
+    void onTransaction(List<ListNotification<?>> notifications);
+}
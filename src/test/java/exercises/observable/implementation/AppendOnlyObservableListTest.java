@@ -0,0 +1,171 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.assertj.core.util.Lists.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for AppendOnlyObservableList.
+ */
+public class AppendOnlyObservableListTest {
+
+    @Rule
+    public MockitoRule mockito = MockitoJUnit.rule();
+
+    @Mock
+    private ListListener<String> firstListener;
+
+    private static final String firstString = "First String";
+    private static final String secondString = "Second String";
+    private static final String thirdString = "Third String";
+
+    private AppendOnlyObservableList<String> stringList;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new AppendOnlyObservableList<>("Log");
+    }
+
+
+    @Test
+    public void shouldAddElementAndSendNotification() throws Exception {
+
+        // initialization
+        final ListNotification<String> expectedNotification =
+                ListNotification.newListAddNotification(newArrayList(firstString), newArrayList(firstString));
+        stringList.register(firstListener);
+
+        // call
+        boolean result = stringList.add(firstString);
+
+        // verifications
+        verify(firstListener).onListChange(expectedNotification);
+
+        // assertions
+        assertThat(result)
+                .as("Checking return value of the 'add' method")
+                .isTrue();
+        assertThat(stringList)
+                .as("Making sure the list only contains the added element")
+                .containsExactly(firstString);
+    }
+
+    @Test
+    public void shouldAddCollectionAndSendNotification() throws Exception {
+
+        // initialization
+        final List<String> listToAdd = newArrayList(secondString, null, thirdString);
+        final ListNotification<String> expectedNotification =
+                ListNotification.newListAddNotification(listToAdd, newArrayList(firstString, secondString, null, thirdString));
+        stringList.add(firstString);
+        stringList.register(firstListener);
+
+        // call
+        boolean result = stringList.addAll(listToAdd);
+
+        // verifications
+        verify(firstListener).onListChange(expectedNotification);
+
+        // assertions
+        assertThat(result)
+                .as("Checking return value of the 'addAll' method")
+                .isTrue();
+        assertThat(stringList)
+                .as("Making sure the list contains the expected elements, including nulls")
+                .containsExactly(firstString, secondString, null, thirdString);
+    }
+
+    @Test
+    public void shouldNotSendNotificationWhenAddingEmptyCollection() throws Exception {
+
+        // initialization
+        stringList.register(firstListener);
+
+        // call
+        boolean result = stringList.addAll(Collections.emptyList());
+
+        // verifications
+        verifyZeroInteractions(firstListener);
+
+        // assertions
+        assertThat(result)
+                .as("Checking return value of the 'addAll' method")
+                .isFalse();
+    }
+
+    @Test
+    public void shouldKeepSnapshotUnchangedAfterFurtherAppends() throws Exception {
+
+        // initialization
+        stringList.add(firstString);
+        final List<String> snapshot = stringList.snapshot();
+
+        // call
+        stringList.add(secondString);
+
+        // assertions
+        assertThat(snapshot)
+                .as("Checking the snapshot taken before the second append")
+                .containsExactly(firstString);
+        assertThat(stringList)
+                .as("Checking the list after the second append")
+                .containsExactly(firstString, secondString);
+    }
+
+    @Test
+    public void shouldNotifyEveryElementInSequenceOrderWithConcurrentProducers() throws Exception {
+
+        // initialization
+        final int threads = 8;
+        final int elementsPerThread = 5000;
+        final List<String> notified = new ArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> producers = new ArrayList<>();
+        stringList.register(notification -> notified.addAll(notification.getChangedElements()));
+        for (int i = 0; i < threads; i++) {
+            final int producer = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < elementsPerThread; j++) {
+                    stringList.add(producer + "-" + j);
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+
+        // call
+        start.countDown();
+        for (Thread thread : producers) {
+            thread.join();
+        }
+
+        // assertions
+        assertThat(stringList)
+                .as("Checking the size of the list")
+                .hasSize(threads * elementsPerThread);
+        assertThat(notified)
+                .as("Checking that the notifications follow the order of the list")
+                .isEqualTo(stringList.snapshot());
+    }
+}
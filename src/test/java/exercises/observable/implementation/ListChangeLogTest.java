@@ -0,0 +1,204 @@
+package exercises.observable.implementation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for ListChangeLog.
+ */
+public class ListChangeLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ObservableList<String> stringList;
+    private Path directory;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new ObservableList<>("First List");
+        stringList.add("Initial String");
+        directory = folder.getRoot().toPath().resolve("log");
+    }
+
+
+    @Test
+    public void shouldRecoverFromCheckpointAndDeltas() throws Exception {
+
+        // initialization
+        ListChangeLog<String> log = new ListChangeLog<>(stringList, directory, ElementCodecs.strings(), 10, 4);
+
+        // call
+        for (int i = 0; i < 95; i++) {
+            stringList.add("String " + i);
+            if (i % 3 == 0) {
+                stringList.remove(1);
+            }
+        }
+        stringList.removeAll(Arrays.asList("String 50", "String 60"));
+        stringList.add(2, "Inserted String");
+        log.close();
+        List<String> recovered = new ArrayList<>();
+        long sequence = ListChangeLog.recover(directory, ElementCodecs.strings(), recovered);
+
+        // assertions
+        assertThat(recovered)
+                .as("Checking the recovered list")
+                .isEqualTo(stringList);
+        assertThat(sequence)
+                .as("Checking the sequence of the last recovered change")
+                .isEqualTo(log.getSequence());
+        assertThat(files())
+                .as("Checking that the log was compacted")
+                .hasSize(2);
+    }
+
+    @Test
+    public void shouldIgnoreTornRecordAndContinueTheSequence() throws Exception {
+
+        // initialization
+        ListChangeLog<String> log = new ListChangeLog<>(stringList, directory, ElementCodecs.strings(), 1000, 1);
+        stringList.add("First String");
+        stringList.add("Second String");
+        log.close();
+        Path segment = directory.resolve(files().stream()
+                .filter(name -> name.endsWith(".log")).findFirst().get());
+        byte[] content = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(content, content.length - 1));
+
+        // call
+        List<String> recovered = new ArrayList<>();
+        long sequence = ListChangeLog.recover(directory, ElementCodecs.strings(), recovered);
+        ObservableList<String> restarted = new ObservableList<>("Restarted List");
+        restarted.addAll(recovered);
+        ListChangeLog<String> reopened = new ListChangeLog<>(restarted, directory, ElementCodecs.strings(), 1000, 1);
+        restarted.add("Third String");
+        reopened.close();
+        List<String> recoveredAgain = new ArrayList<>();
+        long sequenceAgain = ListChangeLog.recover(directory, ElementCodecs.strings(), recoveredAgain);
+
+        // assertions
+        assertThat(recovered)
+                .as("Checking that the torn record was ignored")
+                .containsExactly("Initial String", "First String");
+        assertThat(recoveredAgain)
+                .as("Checking the list recovered after the restart")
+                .containsExactly("Initial String", "First String", "Third String");
+        assertThat(sequenceAgain)
+                .as("Checking that the sequence continued after the restart")
+                .isGreaterThan(sequence);
+    }
+
+    @Test
+    public void shouldRecoverSyncedChangesBeforeBeingClosed() throws Exception {
+
+        // initialization
+        List<String> large = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            large.add("String " + i);
+        }
+        stringList.addAll(large);
+        ListChangeLog<String> log = new ListChangeLog<>(stringList, directory, ElementCodecs.strings(), 1000, 1);
+
+        // call
+        stringList.add("First String");
+        List<String> recovered = new ArrayList<>();
+        long sequence = ListChangeLog.recover(directory, ElementCodecs.strings(), recovered);
+        log.close();
+
+        // assertions
+        assertThat(recovered)
+                .as("Checking the list recovered while the log is still open")
+                .isEqualTo(stringList);
+        assertThat(sequence)
+                .as("Checking the sequence of the last recovered change")
+                .isEqualTo(log.getSequence());
+    }
+
+
+    private List<String> files() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void shouldRecoverChangesSentWithoutNotification() throws Exception {
+
+        // initialization
+        stringList.set(0, "A");
+        stringList.add("B");
+        ListChangeLog<String> log = new ListChangeLog<>(stringList, directory, ElementCodecs.strings(), 1000, 1);
+
+        // call
+        stringList.set(0, "X");
+        stringList.add("C");
+        stringList.sort(Comparator.reverseOrder());
+        stringList.add("D");
+        log.close();
+        List<String> recovered = new ArrayList<>();
+        ListChangeLog.recover(directory, ElementCodecs.strings(), recovered);
+
+        // assertions
+        assertThat(recovered)
+                .as("Checking the recovered list")
+                .isEqualTo(stringList)
+                .containsExactly("X", "C", "B", "D");
+    }
+
+    @Test
+    public void shouldRecoverChangesNotifiedOutOfOrder() throws Exception {
+
+        // initialization
+        final CountDownLatch secondLogged = new CountDownLatch(1);
+        stringList.register(notification -> {
+            if (notification.getChangedElements().contains("First String")) {
+                try {
+                    secondLogged.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        ListChangeLog<String> log = new ListChangeLog<>(stringList, directory, ElementCodecs.strings(), 1000, 1);
+        stringList.register(notification -> {
+            if (notification.getChangedElements().contains("Second String")) {
+                secondLogged.countDown();
+            }
+        });
+
+        // call
+        Thread first = new Thread(() -> stringList.add(0, "First String"));
+        first.start();
+        while (!stringList.contains("First String")) {
+            Thread.sleep(1);
+        }
+        stringList.add(0, "Second String");
+        first.join();
+        log.close();
+        List<String> recovered = new ArrayList<>();
+        ListChangeLog.recover(directory, ElementCodecs.strings(), recovered);
+
+        // assertions
+        assertThat(recovered)
+                .as("Checking the recovered list")
+                .isEqualTo(stringList)
+                .containsExactly("Second String", "First String", "Initial String");
+    }
+}
@@ -0,0 +1,160 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for ListDiff.
+ */
+public class ListDiffTest {
+
+    @Test
+    public void shouldProduceTheShortestRunsOfChanges() throws Exception {
+
+        // initialization
+        List<String> from = Arrays.asList("A", "B", "C", "A", "B", "B", "A");
+        List<String> to = Arrays.asList("C", "B", "A", "B", "A", "C");
+
+        // call
+        List<ListNotification<String>> notifications = ListDiff.between(from, to);
+
+        // assertions
+        assertThat(notifications.stream().mapToInt(notification -> notification.getChangedElements().size()).sum())
+                .as("Checking the number of edits")
+                .isEqualTo(5);
+        assertThat(apply(from, notifications))
+                .as("Checking the list after applying the changes")
+                .isEqualTo(to);
+        assertThat(notifications.get(notifications.size() - 1).getResultingList())
+                .as("Checking the resulting list of the last change")
+                .isSameAs(to);
+    }
+
+    @Test
+    public void shouldTurnRandomStatesIntoOneAnother() throws Exception {
+
+        // initialization
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            List<Integer> from = new ArrayList<>();
+            for (int i = random.nextInt(60); i > 0; i--) {
+                from.add(random.nextInt(8));
+            }
+            List<Integer> to = new ArrayList<>(from);
+            for (int i = random.nextInt(10); i > 0; i--) {
+                if (random.nextBoolean() || to.isEmpty()) {
+                    to.add(random.nextInt(to.size() + 1), random.nextInt(8));
+                } else {
+                    to.remove(random.nextInt(to.size()));
+                }
+            }
+
+            // call
+            List<ListNotification<Integer>> notifications = ListDiff.between(from, to);
+
+            // assertions
+            assertThat(apply(from, notifications))
+                    .as("Checking the list after applying the changes in round " + round)
+                    .isEqualTo(to);
+            assertThat(notifications.stream().mapToInt(notification -> notification.getChangedElements().size()).sum())
+                    .as("Checking that the changes are minimal in round " + round)
+                    .isEqualTo(editDistance(from, to));
+        }
+    }
+
+    @Test
+    public void shouldReplaceTheWholeRangeBeyondTheMaximumDistance() throws Exception {
+
+        // initialization
+        List<Integer> from = new ArrayList<>();
+        List<Integer> to = new ArrayList<>();
+        for (int i = 0; i < ListDiff.MAX_EDIT_DISTANCE; i++) {
+            from.add(i);
+            to.add(-i - 1);
+        }
+
+        // call
+        List<ListNotification<Integer>> notifications = ListDiff.between(from, to);
+
+        // assertions
+        assertThat(notifications)
+                .as("Checking that the whole range was replaced")
+                .containsExactly(
+                        ListNotification.newListRemoveNotification(from, Collections.emptyList()),
+                        ListNotification.newListAddNotification(to, to));
+    }
+
+    @Test
+    public void shouldResyncFromAnOldVersion() throws Exception {
+
+        // initialization
+        ObservableList<String> stringList = new ObservableList<>("First List");
+        for (int i = 0; i < 1000; i++) {
+            stringList.add("String " + i);
+        }
+        ListSnapshot<String> seen = stringList.snapshot();
+        stringList.remove(10);
+        stringList.add(500, "Inserted String");
+        stringList.remove("String 999");
+
+        // call
+        List<ListNotification<String>> notifications = stringList.resync(seen.getVersion());
+
+        // assertions
+        assertThat(notifications)
+                .as("Checking the changes since the version seen")
+                .extracting(ListNotification::getType, ListNotification::getIndex, ListNotification::getChangedElements)
+                .containsExactly(
+                        tuple(ListNotificationType.REMOVE, 10, Collections.singletonList("String 10")),
+                        tuple(ListNotificationType.ADD, 500, Collections.singletonList("Inserted String")),
+                        tuple(ListNotificationType.REMOVE, 999, Collections.singletonList("String 999")));
+        assertThat(notifications.get(2).getResultingList())
+                .as("Checking the resulting list of the last change")
+                .isSameAs(stringList.snapshot());
+        assertThat(stringList.resync(new ArrayList<>(stringList)))
+                .as("Checking that an up-to-date state needs no change")
+                .isEmpty();
+    }
+
+
+    private static <T> List<T> apply(List<T> from, List<ListNotification<T>> notifications) {
+        List<T> list = new ArrayList<>(from);
+        for (ListNotification<T> notification : notifications) {
+            int index = notification.getIndex();
+            if (notification.getType() == ListNotificationType.ADD) {
+                list.addAll(index, notification.getChangedElements());
+            } else {
+                assertThat(list.subList(index, index + notification.getChangedElements().size()))
+                        .as("Checking the removed elements")
+                        .isEqualTo(notification.getChangedElements());
+                list.subList(index, index + notification.getChangedElements().size()).clear();
+            }
+            assertThat(list)
+                    .as("Checking the resulting list of the change")
+                    .isEqualTo(notification.getResultingList());
+        }
+        return list;
+    }
+
+    private static int editDistance(List<?> from, List<?> to) {
+        int[][] lengths = new int[from.size() + 1][to.size() + 1];
+        for (int i = from.size() - 1; i >= 0; i--) {
+            for (int j = to.size() - 1; j >= 0; j--) {
+                lengths[i][j] = from.get(i).equals(to.get(j))
+                        ? lengths[i + 1][j + 1] + 1
+                        : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+            }
+        }
+        return from.size() + to.size() - 2 * lengths[0][0];
+    }
+}
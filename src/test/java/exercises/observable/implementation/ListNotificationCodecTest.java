@@ -0,0 +1,186 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for ListNotificationCodec.
+ */
+public class ListNotificationCodecTest {
+
+    private ObservableList<String> stringList;
+    private List<ListNotification<String>> notifications;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new ObservableList<>("First List");
+        notifications = new ArrayList<>();
+        stringList.register(notifications::add);
+        stringList.add("First String");
+        stringList.addAll(Arrays.asList("Second String", null, "\u00dcn\u00efc\u00f6d\u00e9 \ud83d\ude00"));
+        stringList.add(1, "Inserted String");
+        stringList.remove(2);
+        stringList.removeAll(Arrays.asList("First String"));
+        stringList.add("Last String");
+    }
+
+
+    @Test
+    public void shouldReplayStreamWithoutSnapshots() throws Exception {
+
+        // initialization
+        final ListNotificationCodec<String> codec = new ListNotificationCodec<>(ElementCodecs.strings(), false);
+        final ListNotificationCodec<String>.Encoder encoder = codec.newEncoder();
+        final List<String> replica = new ArrayList<>();
+        final ListNotificationCodec<String>.Decoder decoder = codec.newDecoder(replica);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+
+        // call
+        for (int i = 0; i < notifications.size(); i++) {
+            encoder.encode(100 + i, notifications.get(i), buffer);
+        }
+        buffer.flip();
+        final List<ListNotification<String>> decoded = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            decoded.add(decoder.decode(buffer));
+        }
+
+        // assertions
+        assertThat(replica)
+                .as("Checking that the replica followed the list")
+                .isEqualTo(stringList);
+        assertThat(decoder.getSequence())
+                .as("Checking the sequence of the last decoded notification")
+                .isEqualTo(100 + notifications.size() - 1);
+        for (int i = 0; i < notifications.size(); i++) {
+            assertThat(decoded.get(i).getChangedElements())
+                    .as("Checking the changed elements of notification " + i)
+                    .isEqualTo(notifications.get(i).getChangedElements());
+            assertThat(decoded.get(i).getIndex())
+                    .as("Checking the index of notification " + i)
+                    .isEqualTo(notifications.get(i).getIndex());
+        }
+    }
+
+    @Test
+    public void shouldRoundTripNotificationsWithSnapshots() throws Exception {
+
+        // initialization
+        final ListNotificationCodec<String> codec = new ListNotificationCodec<>(ElementCodecs.strings(), true);
+        final ListNotificationCodec<String>.Encoder encoder = codec.newEncoder();
+        final ListNotificationCodec<String>.Decoder decoder = codec.newDecoder();
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        // call
+        for (int i = 0; i < notifications.size(); i++) {
+            encoder.encode(i, notifications.get(i), buffer);
+        }
+        buffer.flip();
+
+        // assertions
+        for (ListNotification<String> notification : notifications) {
+            assertThat(decoder.decode(buffer))
+                    .as("Checking the decoded notification")
+                    .isEqualTo(notification);
+        }
+    }
+
+    @Test
+    public void shouldRoundTripNumbers() throws Exception {
+
+        // initialization
+        final List<Integer> integers = Arrays.asList(0, -1, 63, -64, Integer.MAX_VALUE, Integer.MIN_VALUE, null);
+        final List<Long> longs = Arrays.asList(0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, null);
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        // call
+        integers.forEach(element -> ElementCodecs.integers().encode(element, buffer));
+        longs.forEach(element -> ElementCodecs.longs().encode(element, buffer));
+        buffer.flip();
+
+        // assertions
+        for (Integer element : integers) {
+            assertThat(ElementCodecs.integers().decode(buffer))
+                    .as("Checking the decoded integer")
+                    .isEqualTo(element);
+        }
+        for (Long element : longs) {
+            assertThat(ElementCodecs.longs().decode(buffer))
+                    .as("Checking the decoded long")
+                    .isEqualTo(element);
+        }
+    }
+
+    @Test
+    public void shouldLeaveBufferUnchangedWhenTooSmall() throws Exception {
+
+        // initialization
+        final ListNotificationCodec<String> codec = new ListNotificationCodec<>(ElementCodecs.strings(), true);
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.put((byte) 42);
+
+        // call
+        assertThatThrownBy(() -> codec.newEncoder().encode(0, notifications.get(1), buffer))
+                .as("Checking the overflow")
+                .isInstanceOf(BufferOverflowException.class);
+
+        // assertions
+        assertThat(buffer.position())
+                .as("Checking that the position was restored")
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReadRecordAgainAfterTruncation() throws Exception {
+
+        // initialization
+        final ListNotificationCodec<String> codec = new ListNotificationCodec<>(ElementCodecs.strings(), false);
+        final ListNotificationCodec<String>.Encoder encoder = codec.newEncoder();
+        final List<String> replica = new ArrayList<>();
+        final ListNotificationCodec<String>.Decoder decoder = codec.newDecoder(replica);
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        final int[] ends = new int[notifications.size()];
+        for (int i = 0; i < notifications.size(); i++) {
+            encoder.encode(100 + i, notifications.get(i), buffer);
+            ends[i] = buffer.position();
+        }
+        buffer.flip();
+
+        for (int i = 0; i < notifications.size(); i++) {
+            final int start = buffer.position();
+
+            // call
+            buffer.limit(ends[i] - 1);
+            assertThatThrownBy(() -> decoder.decode(buffer))
+                    .as("Checking the underflow of truncated record " + i)
+                    .isInstanceOf(BufferUnderflowException.class);
+            assertThat(buffer.position())
+                    .as("Checking that the position was restored for record " + i)
+                    .isEqualTo(start);
+            buffer.limit(ends[i]);
+            final ListNotification<String> decoded = decoder.decode(buffer);
+
+            // assertions
+            assertThat(decoded.getIndex())
+                    .as("Checking the index of notification " + i)
+                    .isEqualTo(notifications.get(i).getIndex());
+            assertThat(decoder.getSequence())
+                    .as("Checking the sequence of notification " + i)
+                    .isEqualTo(100 + i);
+        }
+        assertThat(replica)
+                .as("Checking that the replica followed the list")
+                .isEqualTo(stringList);
+    }
+}
@@ -0,0 +1,240 @@
+package exercises.observable.implementation;
+
+import exercises.observable.implementation.ListPublisher.OverflowStrategy;
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.assertj.core.util.Lists.*;
+
+/**
+ * Test class for ListPublisher.
+ */
+public class ListPublisherTest {
+
+    private static final String firstString = "First String";
+    private static final String secondString = "Second String";
+    private static final String thirdString = "Third String";
+
+    private ObservableList<String> stringList;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new ObservableList<>("First List");
+    }
+
+
+    @Test
+    public void shouldDeliverOnlyRequestedNotifications() throws Exception {
+
+        // initialization
+        final ListPublisher<String> publisher = newPublisher(OverflowStrategy.ERROR, 10);
+        final RecordingSubscriber firstSubscriber = new RecordingSubscriber();
+        final RecordingSubscriber secondSubscriber = new RecordingSubscriber();
+        publisher.subscribe(firstSubscriber);
+        publisher.subscribe(secondSubscriber);
+        firstSubscriber.subscription.request(1);
+        secondSubscriber.subscription.request(Long.MAX_VALUE);
+
+        // call
+        stringList.add(firstString);
+        stringList.add(secondString);
+
+        // assertions
+        assertThat(firstSubscriber.changedElements())
+                .as("Checking that only the requested notification was delivered")
+                .containsExactly(firstString);
+        assertThat(secondSubscriber.changedElements())
+                .as("Checking that an unbounded subscriber got everything")
+                .containsExactly(firstString, secondString);
+
+        // call
+        firstSubscriber.subscription.request(1);
+
+        // assertions
+        assertThat(firstSubscriber.changedElements())
+                .as("Checking that the buffered notification was delivered on request")
+                .containsExactly(firstString, secondString);
+    }
+
+    @Test
+    public void shouldDropOldestNotificationWhenBufferIsFull() throws Exception {
+
+        // initialization
+        final ListPublisher<String> publisher = newPublisher(OverflowStrategy.DROP_OLDEST, 1);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // call
+        stringList.add(firstString);
+        stringList.add(secondString);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // assertions
+        assertThat(subscriber.changedElements())
+                .as("Checking that only the latest notification was kept")
+                .containsExactly(secondString);
+    }
+
+    @Test
+    public void shouldCoalesceNotificationsWhenBufferIsFull() throws Exception {
+
+        // initialization
+        final ListPublisher<String> publisher = newPublisher(OverflowStrategy.COALESCE, 1);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // call
+        stringList.add(firstString);
+        stringList.add(secondString);
+        stringList.add(thirdString);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // assertions
+        assertThat(subscriber.received)
+                .as("Checking that the additions were merged into one notification")
+                .containsExactly(ListNotification.newListAddNotification(
+                        newArrayList(firstString, secondString, thirdString), stringList));
+    }
+
+    @Test
+    public void shouldKeepNotificationsWhichCannotBeCoalesced() throws Exception {
+
+        // initialization
+        final ListPublisher<String> publisher = newPublisher(OverflowStrategy.COALESCE, 1);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // call
+        stringList.add(firstString);
+        stringList.add(0, secondString);
+        stringList.add(thirdString);
+        stringList.remove(1);
+        stringList.remove(0);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // assertions
+        assertThat(subscriber.received)
+                .as("Checking that only contiguous changes of the same type were merged")
+                .extracting(ListNotification::getType, ListNotification::getIndex, ListNotification::getChangedElements)
+                .containsExactly(
+                        tuple(ListNotificationType.ADD, 0, newArrayList(secondString, firstString, thirdString)),
+                        tuple(ListNotificationType.REMOVE, 0, newArrayList(secondString, firstString)));
+        assertThat(subscriber.received.get(1).getResultingList())
+                .as("Checking the resulting list of the last notification")
+                .containsExactly(thirdString);
+    }
+
+    @Test
+    public void shouldSignalErrorOnOverflow() throws Exception {
+
+        // initialization
+        final ListPublisher<String> publisher = newPublisher(OverflowStrategy.ERROR, 1);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // call
+        stringList.add(firstString);
+        stringList.add(secondString);
+
+        // assertions
+        assertThat(subscriber.error)
+                .as("Checking the error signalled to the subscriber")
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldCompleteSubscribersWhenClosed() throws Exception {
+
+        // initialization
+        final ListPublisher<String> publisher = newPublisher(OverflowStrategy.ERROR, 10);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        stringList.add(firstString);
+
+        // call
+        publisher.close();
+        stringList.add(secondString);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // assertions
+        assertThat(subscriber.changedElements())
+                .as("Checking that the buffered notification was delivered before completing")
+                .containsExactly(firstString);
+        assertThat(subscriber.completed)
+                .as("Checking that the subscriber was completed")
+                .isTrue();
+    }
+
+    @Test
+    public void shouldCopyNotificationsReusedByTheirList() throws Exception {
+
+        // initialization
+        final int elements = 1000;
+        final PooledObservableList<String> pooledList = new PooledObservableList<>("Pooled List");
+        final ListPublisher<String> publisher = new ListPublisher<>(pooledList, OverflowStrategy.ERROR, elements, Runnable::run);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        final List<ListNotification<String>> expected = new ArrayList<>();
+        publisher.subscribe(subscriber);
+
+        // call
+        for (int i = 0; i < elements; i++) {
+            pooledList.add("Element " + i);
+            expected.add(ListNotification.newListAddNotification(
+                    i, Collections.singletonList("Element " + i), new ArrayList<>(pooledList)));
+        }
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // assertions
+        assertThat(subscriber.received)
+                .as("Checking the buffered notifications of the pooled list")
+                .isEqualTo(expected);
+    }
+
+    private ListPublisher<String> newPublisher(OverflowStrategy strategy, int bufferSize) {
+        return new ListPublisher<>(stringList, strategy, bufferSize, Runnable::run);
+    }
+
+    private static class RecordingSubscriber implements Subscriber<ListNotification<String>> {
+
+        private final List<ListNotification<String>> received = new ArrayList<>();
+        private Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ListNotification<String> notification) {
+            received.add(notification);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        private List<String> changedElements() {
+            List<String> elements = new ArrayList<>();
+            received.forEach(notification -> elements.addAll(notification.getChangedElements()));
+            return elements;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for ListTransaction and ListTransactionCoordinator.
+ */
+public class ListTransactionTest {
+
+    private static final String firstString = "First String";
+    private static final String secondString = "Second String";
+    private static final String thirdString = "Third String";
+
+    private ObservableList<String> firstList;
+    private ObservableList<String> secondList;
+    private ListTransactionCoordinator coordinator;
+
+
+    @Before
+    public void setUp() throws Exception {
+        firstList = new ObservableList<>("First List");
+        secondList = new ObservableList<>("Second List");
+        coordinator = new ListTransactionCoordinator("Coordinator");
+        firstList.addAll(Arrays.asList(firstString, secondString));
+    }
+
+
+    @Test
+    public void shouldNotifyOnlyOnceEveryListIsInItsFinalState() throws Exception {
+
+        // initialization
+        List<List<String>> seenBySecondListener = new ArrayList<>();
+        secondList.register(notification -> seenBySecondListener.add(new ArrayList<>(firstList)));
+        List<List<ListNotification<?>>> transactions = new CopyOnWriteArrayList<>();
+        coordinator.register(transactions::add);
+
+        // call
+        List<ListNotification<?>> notifications = coordinator.move(firstList, firstString, secondList);
+
+        // assertions
+        assertThat(seenBySecondListener)
+                .as("Checking the first list as seen by a listener of the second one")
+                .containsExactly(Collections.singletonList(secondString));
+        assertThat(transactions)
+                .as("Checking the grouped notifications")
+                .containsExactly(notifications);
+        assertThat(notifications)
+                .as("Checking the notifications of the move")
+                .containsExactly(
+                        ListNotification.newListRemoveNotification(0, Collections.singletonList(firstString),
+                                Collections.singletonList(secondString)),
+                        ListNotification.newListAddNotification(0, Collections.singletonList(firstString),
+                                Collections.singletonList(firstString)));
+    }
+
+    @Test
+    public void shouldUndoEverythingWhenAChangeFails() throws Exception {
+
+        // initialization
+        List<ListNotification<String>> received = new CopyOnWriteArrayList<>();
+        firstList.register(received::add);
+        long version = firstList.getVersion();
+
+        // call
+        Throwable thrown = catchThrowable(() -> coordinator.begin()
+                .remove(firstList, firstString)
+                .add(secondList, firstString)
+                .remove(secondList, thirdString)
+                .commit());
+
+        // assertions
+        assertThat(thrown)
+                .as("Checking the failure of the transaction")
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(firstList.snapshot())
+                .as("Checking that the first list is unchanged")
+                .containsExactly(firstString, secondString);
+        assertThat(secondList)
+                .as("Checking that the second list is unchanged")
+                .isEmpty();
+        assertThat(received)
+                .as("Checking that nothing was notified")
+                .isEmpty();
+        assertThatThrownBy(() -> firstList.snapshot(version + 1))
+                .as("Checking that the staged version was never published")
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void shouldNotDeadlockWhenMovingInOppositeDirections() throws Exception {
+
+        // initialization
+        for (int i = 0; i < 1000; i++) {
+            secondList.add(thirdString);
+        }
+        CountDownLatch done = new CountDownLatch(2);
+        Thread forward = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                coordinator.move(firstList, secondString, secondList);
+                coordinator.move(secondList, secondString, firstList);
+            }
+            done.countDown();
+        });
+        Thread backward = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                coordinator.move(secondList, thirdString, firstList);
+                coordinator.move(firstList, thirdString, secondList);
+            }
+            done.countDown();
+        });
+
+        // call
+        forward.start();
+        backward.start();
+
+        // assertions
+        assertThat(done.await(30, TimeUnit.SECONDS))
+                .as("Checking that both threads finished")
+                .isTrue();
+        assertThat(firstList.size() + secondList.size())
+                .as("Checking that no element was lost")
+                .isEqualTo(1002);
+    }
+
+    @Test
+    public void shouldLockEveryListEvenWhenTheirElementsAreEqual() throws Exception {
+
+        // initialization
+        ObservableList<String> thirdList = new ObservableList<>("Third List");
+        ObservableList<String> fourthList = new ObservableList<>("Fourth List");
+
+        // call
+        List<ListNotification<?>> notifications = coordinator.begin()
+                .add(thirdList, firstString)
+                .add(fourthList, firstString)
+                .commit();
+
+        // assertions
+        assertThat(notifications)
+                .as("Checking that both lists were changed")
+                .hasSize(2);
+        assertThat(thirdList)
+                .as("Checking the third list")
+                .containsExactly(firstString);
+        assertThat(fourthList)
+                .as("Checking the fourth list")
+                .containsExactly(firstString);
+        assertThat(fourthList.getVersion())
+                .as("Checking that the fourth list got a version of its own")
+                .isEqualTo(1);
+    }
+}
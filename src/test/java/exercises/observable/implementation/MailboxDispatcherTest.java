@@ -0,0 +1,197 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for MailboxDispatcher.
+ */
+public class MailboxDispatcherTest {
+
+    private ObservableList<String> stringList;
+    private MailboxDispatcher<String> dispatcher;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new ObservableList<>("First List");
+        dispatcher = new MailboxDispatcher<>("Dispatcher");
+        stringList.register(dispatcher);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dispatcher.close();
+    }
+
+
+    @Test
+    public void shouldNotLetBlockedListenerDelayTheOthers() throws Exception {
+
+        // initialization
+        final int elements = 100;
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch fastDone = new CountDownLatch(elements);
+        final CountDownLatch slowDone = new CountDownLatch(elements);
+        final List<String> fastReceived = new CopyOnWriteArrayList<>();
+        final List<String> slowReceived = new CopyOnWriteArrayList<>();
+        dispatcher.register(notification -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            slowReceived.addAll(notification.getChangedElements());
+            slowDone.countDown();
+        });
+        dispatcher.register(notification -> {
+            fastReceived.addAll(notification.getChangedElements());
+            fastDone.countDown();
+        });
+
+        // call
+        for (int i = 0; i < elements; i++) {
+            stringList.add("Element " + i);
+        }
+
+        // assertions
+        assertThat(fastDone.await(10, TimeUnit.SECONDS))
+                .as("Checking that the fast listener was not held back by the blocked one")
+                .isTrue();
+        assertThat(slowReceived)
+                .as("Checking that the blocked listener is still waiting")
+                .isEmpty();
+
+        // call
+        release.countDown();
+
+        // assertions
+        assertThat(slowDone.await(10, TimeUnit.SECONDS))
+                .as("Checking that the blocked listener caught up")
+                .isTrue();
+        assertThat(fastReceived)
+                .as("Checking the order seen by the fast listener")
+                .isEqualTo(stringList);
+        assertThat(slowReceived)
+                .as("Checking the order seen by the blocked listener")
+                .isEqualTo(stringList);
+    }
+
+    @Test
+    public void shouldFallBackToPlatformThreadsWhenAsked() throws Exception {
+
+        // initialization
+        final MailboxDispatcher<String> platformDispatcher = new MailboxDispatcher<>("Platform", false);
+
+        // assertions
+        assertThat(platformDispatcher.usesVirtualThreads())
+                .as("Checking that platform threads are used")
+                .isFalse();
+        assertThat(dispatcher.usesVirtualThreads())
+                .as("Checking that virtual threads are used whenever available")
+                .isEqualTo(MailboxDispatcher.isVirtualThreadSupported());
+        platformDispatcher.close();
+    }
+
+    @Test
+    public void shouldDrainMailboxAgainAfterARejectedPost() throws Exception {
+
+        // initialization
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final AtomicBoolean rejecting = new AtomicBoolean(true);
+        final Mailbox<String> mailbox = new Mailbox<>(received::add, task -> {
+            if (rejecting.getAndSet(false)) {
+                throw new RejectedExecutionException("Rejected once");
+            }
+            task.run();
+        });
+
+        // call
+        mailbox.post("First String");
+        mailbox.post("Second String");
+
+        // assertions
+        assertThat(received)
+                .as("Checking that the rejected mail was dropped and the next one delivered")
+                .containsExactly("Second String");
+    }
+
+    @Test
+    public void shouldKeepDrainingMailboxAfterAnError() throws Exception {
+
+        // initialization
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final List<Throwable> reported = new CopyOnWriteArrayList<>();
+        final Mailbox<String> mailbox = new Mailbox<>(element -> {
+            if (received.add(element) && received.size() == 1) {
+                throw new AssertionError("Failing listener");
+            }
+        }, task -> {
+            Thread thread = new Thread(task);
+            thread.setUncaughtExceptionHandler((failed, e) -> reported.add(e));
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // call
+        mailbox.post("First String");
+        mailbox.post("Second String");
+
+        // assertions
+        assertThat(received)
+                .as("Checking that the mailbox was drained again after the error")
+                .containsExactly("First String", "Second String");
+        assertThat(reported)
+                .as("Checking that the error was reported")
+                .hasSize(1)
+                .allMatch(e -> e instanceof AssertionError);
+    }
+
+    @Test
+    public void shouldCopyNotificationsReusedByTheirList() throws Exception {
+
+        // initialization
+        final int elements = 1000;
+        final PooledObservableList<String> pooledList = new PooledObservableList<>("Pooled List");
+        final CountDownLatch done = new CountDownLatch(elements);
+        final List<ListNotification<String>> received = new CopyOnWriteArrayList<>();
+        final List<ListNotification<String>> expected = new ArrayList<>();
+        pooledList.register(dispatcher);
+        dispatcher.register(notification -> {
+            received.add(notification);
+            done.countDown();
+        });
+
+        // call
+        for (int i = 0; i < elements; i++) {
+            pooledList.add("Element " + i);
+            expected.add(ListNotification.newListAddNotification(
+                    i, Collections.singletonList("Element " + i), new ArrayList<>(pooledList)));
+        }
+
+        // assertions
+        assertThat(done.await(10, TimeUnit.SECONDS))
+                .as("Checking that every notification was delivered")
+                .isTrue();
+        assertThat(received)
+                .as("Checking the notifications of the pooled list")
+                .isEqualTo(expected);
+    }
+}
@@ -0,0 +1,252 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for MappedRingWriter and MappedRingFollower.
+ */
+public class MappedRingFollowerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ObservableList<String> stringList;
+    private Path file;
+    private MappedRingWriter<String> writer;
+    private MappedRingFollower<String> follower;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new ObservableList<>("First List");
+        stringList.add("Initial String");
+        file = folder.getRoot().toPath().resolve("ring");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (follower != null) {
+            follower.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+
+    @Test
+    public void shouldReplayChangesOnReplica() throws Exception {
+
+        // initialization
+        writer = new MappedRingWriter<>(stringList, file, 4096, ElementCodecs.strings(), 100);
+        follower = new MappedRingFollower<>(file, ElementCodecs.strings(), "Replica");
+        final List<ListNotification<String>> received = new ArrayList<>();
+        follower.getReplica().register(received::add);
+
+        // call
+        follower.poll();
+        stringList.add("First String");
+        stringList.addAll(Arrays.asList("Second String", "Third String", null));
+        stringList.add(1, "Inserted String");
+        stringList.remove("Second String");
+        stringList.removeAll(Arrays.asList("Initial String"));
+        stringList.subList(1, 3).clear();
+        final int replayed = follower.poll();
+
+        // assertions
+        assertThat(follower.getReplica())
+                .as("Checking that the replica followed the list")
+                .isEqualTo(stringList);
+        assertThat(replayed)
+                .as("Checking the number of replayed records")
+                .isEqualTo(6);
+        assertThat(received.get(0).getChangedElements())
+                .as("Checking the first notification of the replica")
+                .containsExactly("Initial String");
+    }
+
+    @Test
+    public void shouldOnlyNotifyTheDifferencesCarriedBySnapshotRecords() throws Exception {
+
+        // initialization
+        stringList.addAll(Arrays.asList("First String", "Second String", "Third String"));
+        writer = new MappedRingWriter<>(stringList, file, 4096, ElementCodecs.strings(), 1);
+        follower = new MappedRingFollower<>(file, ElementCodecs.strings(), "Replica");
+        follower.poll();
+        final List<ListNotification<String>> received = new ArrayList<>();
+        follower.getReplica().register(received::add);
+
+        // call
+        stringList.removeIf(element -> element.startsWith("F") || element.startsWith("T"));
+        stringList.add("Fourth String");
+        follower.poll();
+
+        // assertions
+        assertThat(follower.getReplica())
+                .as("Checking that the replica followed the list")
+                .isEqualTo(stringList);
+        assertThat(received)
+                .as("Checking that only the actual changes were notified")
+                .extracting(ListNotification::getType, ListNotification::getIndex, ListNotification::getChangedElements)
+                .containsExactly(
+                        tuple(ListNotificationType.REMOVE, 1, Arrays.asList("First String")),
+                        tuple(ListNotificationType.REMOVE, 2, Arrays.asList("Third String")),
+                        tuple(ListNotificationType.ADD, 2, Arrays.asList("Fourth String")));
+    }
+
+    @Test
+    public void shouldCatchUpFromSnapshotWhenLapped() throws Exception {
+
+        // initialization
+        writer = new MappedRingWriter<>(stringList, file, 256, ElementCodecs.strings(), 1000);
+        follower = new MappedRingFollower<>(file, ElementCodecs.strings(), "Replica");
+        follower.poll();
+
+        // call
+        for (int i = 0; i < 100; i++) {
+            stringList.add("Element " + i);
+            if (stringList.size() > 5) {
+                stringList.remove(0);
+            }
+        }
+        follower.poll();
+
+        // assertions
+        assertThat(writer.getWritePosition())
+                .as("Checking that the writer went around the ring several times")
+                .isGreaterThan(256L * 4);
+        assertThat(follower.getReplica())
+                .as("Checking that the replica caught up with the list")
+                .isEqualTo(stringList);
+    }
+
+    @Test
+    public void shouldRejectChangesToReplica() throws Exception {
+
+        // initialization
+        writer = new MappedRingWriter<>(stringList, file, 1024, ElementCodecs.strings(), 10);
+        follower = new MappedRingFollower<>(file, ElementCodecs.strings(), "Replica");
+        follower.poll();
+
+        final List<Throwable> failures = new ArrayList<>();
+        follower.getReplica().register(notification -> {
+            Thread other = new Thread(() -> {
+                try {
+                    follower.getReplica().add("Concurrent String");
+                } catch (UnsupportedOperationException e) {
+                    failures.add(e);
+                }
+            });
+            other.start();
+            try {
+                other.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // call
+        assertThatThrownBy(() -> follower.getReplica().add("Local String"))
+                .as("Checking that the replica cannot be modified locally")
+                .isInstanceOf(UnsupportedOperationException.class);
+        stringList.add("First String");
+        follower.poll();
+
+        // assertions
+        assertThat(follower.getReplica())
+                .as("Checking the replica")
+                .containsExactly("Initial String", "First String");
+        assertThat(failures)
+                .as("Checking that the replica cannot be modified by another thread while replaying")
+                .hasSize(1);
+    }
+
+    @Test
+    public void shouldRejectEveryKindOfChangeToReplica() throws Exception {
+
+        // initialization
+        writer = new MappedRingWriter<>(stringList, file, 1024, ElementCodecs.strings(), 10);
+        follower = new MappedRingFollower<>(file, ElementCodecs.strings(), "Replica");
+        follower.poll();
+        final ObservableList<String> replica = follower.getReplica();
+        final ListTransactionCoordinator coordinator = new ListTransactionCoordinator("Coordinator");
+
+        // call
+        assertThatThrownBy(() -> replica.parallelRemoveIf(element -> true))
+                .as("Checking that the replica cannot be filtered in parallel")
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> replica.parallelReplaceAll(String::toUpperCase))
+                .as("Checking that the replica cannot be replaced in parallel")
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> coordinator.begin().add(replica, "Transactional String").commit())
+                .as("Checking that the replica cannot be changed in a transaction")
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> replica.subList(0, 1).clear())
+                .as("Checking that the replica cannot be changed through a view")
+                .isInstanceOf(UnsupportedOperationException.class);
+
+        // assertions
+        assertThat(replica)
+                .as("Checking that the replica is unchanged")
+                .containsExactly("Initial String");
+    }
+
+    @Test
+    public void shouldCatchUpWithChangesSentWithoutNotification() throws Exception {
+
+        // initialization
+        stringList.add("Second String");
+        writer = new MappedRingWriter<>(stringList, file, 4096, ElementCodecs.strings(), 100);
+        follower = new MappedRingFollower<>(file, ElementCodecs.strings(), "Replica");
+
+        // call
+        stringList.set(0, "Set String");
+        stringList.add("Third String");
+        stringList.sort(Comparator.reverseOrder());
+        stringList.add("Fourth String");
+        follower.poll();
+
+        // assertions
+        assertThat(follower.getReplica())
+                .as("Checking that the replica caught up with the list")
+                .isEqualTo(stringList)
+                .containsExactly("Third String", "Set String", "Second String", "Fourth String");
+    }
+
+    @Test
+    public void shouldFollowInBackground() throws Exception {
+
+        // initialization
+        writer = new MappedRingWriter<>(stringList, file, 1024, ElementCodecs.strings(), 10);
+        follower = new MappedRingFollower<>(file, ElementCodecs.strings(), "Replica");
+        follower.startPolling(1);
+
+        // call
+        for (int i = 0; i < 50; i++) {
+            stringList.add("Element " + i);
+        }
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (follower.getReplica().size() < stringList.size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // assertions
+        assertThat(follower.getReplica())
+                .as("Checking that the replica followed the list")
+                .isEqualTo(stringList);
+    }
+}
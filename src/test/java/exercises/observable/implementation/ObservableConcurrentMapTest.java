@@ -0,0 +1,85 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.MapNotification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for ObservableConcurrentMap.
+ */
+public class ObservableConcurrentMapTest {
+
+    private static final String firstKey = "First Key";
+    private static final String secondKey = "Second Key";
+
+    private ObservableConcurrentMap<String, Integer> map;
+    private List<MapNotification<String, Integer>> received;
+
+
+    @Before
+    public void setUp() throws Exception {
+        map = new ObservableConcurrentMap<>("First Map");
+        received = new CopyOnWriteArrayList<>();
+        map.register(received::add);
+    }
+
+
+    @Test
+    public void shouldSendOneNotificationPerAtomicChange() throws Exception {
+
+        // call
+        final Integer absent = map.putIfAbsent(firstKey, 1);
+        final Integer present = map.putIfAbsent(firstKey, 2);
+        final boolean replaced = map.replace(firstKey, 1, 3);
+        final boolean notReplaced = map.replace(firstKey, 1, 4);
+        map.computeIfAbsent(secondKey, key -> key.length());
+        final boolean removed = map.remove(secondKey, 10);
+        map.clear();
+
+        // assertions
+        assertThat(absent)
+                .as("Checking the value returned by the first putIfAbsent")
+                .isNull();
+        assertThat(present)
+                .as("Checking the value returned by the second putIfAbsent")
+                .isEqualTo(1);
+        assertThat(replaced && !notReplaced && removed)
+                .as("Checking the results of the conditional operations")
+                .isTrue();
+        assertThat(received)
+                .as("Checking the notifications")
+                .containsExactly(
+                        MapNotification.newMapAddNotification(firstKey, 1),
+                        MapNotification.newMapUpdateNotification(firstKey, 1, 3),
+                        MapNotification.newMapAddNotification(secondKey, 10),
+                        MapNotification.newMapRemoveNotification(secondKey, 10),
+                        MapNotification.newMapRemoveNotification(firstKey, 3));
+        assertThatThrownBy(() -> map.entrySet().clear())
+                .as("Checking that the views are read-only")
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void shouldNotReplaceAValueOtherThanTheExpectedOne() throws Exception {
+
+        // initialization
+        final Integer value = 3;
+        map.put(firstKey, value);
+
+        // call
+        final boolean replaced = map.replace(firstKey, 1, value);
+
+        // assertions
+        assertThat(replaced)
+                .as("Checking the result of the replacement")
+                .isFalse();
+        assertThat(received)
+                .as("Checking the notifications")
+                .containsExactly(MapNotification.newMapAddNotification(firstKey, value));
+    }
+}
@@ -0,0 +1,129 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.MapNotification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for ObservableHashMap.
+ */
+public class ObservableHashMapTest {
+
+    private static final String firstKey = "First Key";
+    private static final String secondKey = "Second Key";
+
+    private ObservableHashMap<String, Integer> map;
+    private List<MapNotification<String, Integer>> received;
+
+
+    @Before
+    public void setUp() throws Exception {
+        map = new ObservableHashMap<>("First Map", 4);
+        received = new CopyOnWriteArrayList<>();
+        map.register(received::add);
+    }
+
+
+    @Test
+    public void shouldSendOneNotificationPerChangedKey() throws Exception {
+
+        // initialization
+        final Integer one = 1;
+        final Map<String, Integer> toPut = new HashMap<>();
+        toPut.put(firstKey, one);
+        toPut.put(secondKey, 2);
+
+        // call
+        map.putAll(toPut);
+        map.put(firstKey, one);
+        map.merge(firstKey, 10, Integer::sum);
+        map.putIfAbsent(secondKey, 20);
+        map.remove(secondKey);
+        map.put(null, null);
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications")
+                .containsOnly(
+                        MapNotification.newMapAddNotification(firstKey, 1),
+                        MapNotification.newMapAddNotification(secondKey, 2),
+                        MapNotification.newMapUpdateNotification(firstKey, 1, 11),
+                        MapNotification.newMapRemoveNotification(secondKey, 2),
+                        MapNotification.newMapAddNotification(null, null))
+                .hasSize(5);
+        assertThat(received.subList(2, 5))
+                .as("Checking the order of the notifications after putAll")
+                .containsExactly(
+                        MapNotification.newMapUpdateNotification(firstKey, 1, 11),
+                        MapNotification.newMapRemoveNotification(secondKey, 2),
+                        MapNotification.newMapAddNotification(null, null));
+        assertThat(map)
+                .as("Checking the content of the map")
+                .containsOnlyKeys(firstKey, null)
+                .containsEntry(firstKey, 11);
+    }
+
+    @Test
+    public void shouldNotifyEveryKeyRemovedByClear() throws Exception {
+
+        // initialization
+        for (int i = 0; i < 100; i++) {
+            map.put("Key " + i, i);
+        }
+        received.clear();
+
+        // call
+        map.clear();
+
+        // assertions
+        assertThat(received)
+                .as("Checking the number of notifications")
+                .hasSize(100);
+        assertThat(map)
+                .as("Checking that the map is empty")
+                .isEmpty();
+    }
+
+    @Test
+    public void shouldKeepAllKeysWrittenByConcurrentWriters() throws Exception {
+
+        // initialization
+        final int writers = 4;
+        final int keysPerWriter = 1000;
+        final List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < keysPerWriter; i++) {
+                    map.merge("Key " + (i % 100), 1, Integer::sum);
+                    map.put("Writer " + writer + " Key " + i, i);
+                }
+            }));
+        }
+
+        // call
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // assertions
+        assertThat(map.size())
+                .as("Checking the number of keys")
+                .isEqualTo(100 + writers * keysPerWriter);
+        assertThat(map.snapshot().values().stream().mapToInt(Integer::intValue).sum())
+                .as("Checking that no merge was lost")
+                .isEqualTo(writers * keysPerWriter / 100 * 100 + writers * (keysPerWriter * (keysPerWriter - 1) / 2));
+        assertThat(received)
+                .as("Checking the number of notifications")
+                .hasSize(2 * writers * keysPerWriter);
+    }
+}
@@ -1,7 +1,10 @@
 package exercises.observable.implementation;
 
+import exercises.observable.model.FingerprintedList;
 import exercises.observable.model.ListListener;
 import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListenerTier;
+import exercises.observable.model.LockingMode;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -9,7 +12,14 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.assertj.core.util.Lists.*;
@@ -399,6 +409,26 @@ public class ObservableListTest {
                 .containsOnly(secondString);
     }
 
+    @Test
+    public void shouldNotifyEveryDuplicateRemovedByRemoveAll() throws Exception {
+
+        // initialization
+        final List<String> removedList = newArrayList(firstString, thirdString, firstString);
+        stringList.addAll(newArrayList(firstString, secondString, thirdString, firstString));
+        stringList.register(firstListener);
+
+        // call
+        stringList.removeAll(newArrayList(thirdString, firstString));
+
+        // verifications
+        verify(firstListener).onListChange(ListNotification.newListRemoveNotification(removedList, stringList));
+
+        // assertions
+        assertThat(stringList)
+                .as("Making sure the list contains the expected elements")
+                .containsExactly(secondString);
+    }
+
     @Test
     public void shouldNotSendNotificationWhenRemovingFromEmptyList() {
 
@@ -686,4 +716,530 @@ public class ObservableListTest {
                 .as("Making sure the list contains the expected elements")
                 .containsOnly(firstString, secondString);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldSendPositionOfContiguousChanges() throws Exception {
+
+        // initialization
+        final List<ListNotification<String>> received = newArrayList();
+        stringList.add(firstString);
+        stringList.add(secondString);
+        stringList.register(received::add);
+
+        // call
+        stringList.add(thirdString);
+        stringList.add(1, fourthString);
+        stringList.remove(secondString);
+        stringList.removeAll(newArrayList(firstString, thirdString));
+
+        // assertions
+        assertThat(received)
+                .as("Checking the number of notifications")
+                .hasSize(4);
+        assertThat(received.get(0).getIndex())
+                .as("Checking the index of an appended element")
+                .isEqualTo(2);
+        assertThat(received.get(1).getIndex())
+                .as("Checking the index of an inserted element")
+                .isEqualTo(1);
+        assertThat(received.get(2).getIndex())
+                .as("Checking the index of a removed element")
+                .isEqualTo(2);
+        assertThat(received.get(3).getIndex())
+                .as("Checking the index of non-contiguous removals")
+                .isEqualTo(ListNotification.UNKNOWN_INDEX);
+    }
+
+    @Test
+    public void shouldReadConsistentSnapshotsOfVersions() throws Exception {
+
+        // initialization
+        final List<ListNotification<String>> received = newArrayList();
+        stringList.register(received::add);
+        stringList.add(firstString);
+        final long firstVersion = stringList.getVersion();
+        final ListSnapshot<String> firstSnapshot = stringList.snapshot();
+
+        // call
+        stringList.add(secondString);
+        stringList.set(0, thirdString);
+        final ListSnapshot<String> lastSnapshot = stringList.snapshot();
+
+        // assertions
+        assertThat(firstSnapshot)
+                .as("Checking that the first snapshot did not change")
+                .containsExactly(firstString);
+        assertThat(stringList.snapshot(firstVersion))
+                .as("Checking the lookup of the first version")
+                .isSameAs(firstSnapshot);
+        assertThat(stringList.get(0, firstVersion))
+                .as("Checking the element of the first version")
+                .isEqualTo(firstString);
+        assertThat(lastSnapshot.getVersion())
+                .as("Checking the version of the last snapshot")
+                .isEqualTo(firstVersion + 2);
+        assertThat(lastSnapshot)
+                .as("Checking the last snapshot")
+                .containsExactly(thirdString, secondString);
+        assertThat(stringList.snapshot())
+                .as("Checking that the snapshot is reused until the list changes")
+                .isSameAs(lastSnapshot);
+        assertThat(received.get(1).getResultingList())
+                .as("Checking that notifications carry the snapshot of their version")
+                .isSameAs(stringList.snapshot(firstVersion + 1));
+        assertThatThrownBy(() -> lastSnapshot.add(fourthString))
+                .as("Checking that snapshots are immutable")
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void shouldReclaimVersionsNoLongerHeld() throws Exception {
+
+        // initialization
+        stringList.add(firstString);
+        final long firstVersion = stringList.getVersion();
+        stringList.add(secondString);
+
+        // call
+        boolean reclaimed = false;
+        for (int i = 0; i < 50 && !reclaimed; i++) {
+            System.gc();
+            Thread.sleep(10);
+            try {
+                stringList.snapshot(firstVersion);
+            } catch (NoSuchElementException e) {
+                reclaimed = true;
+            }
+        }
+
+        // assertions
+        assertThat(reclaimed)
+                .as("Checking that the first version was reclaimed")
+                .isTrue();
+        assertThat(stringList.snapshot())
+                .as("Checking the latest snapshot")
+                .containsExactly(firstString, secondString);
+    }
+
+    @Test
+    public void shouldIterateWhileListIsModified() throws Exception {
+
+        // initialization
+        final int elements = 10000;
+        for (int i = 0; i < elements; i++) {
+            stringList.add(firstString);
+        }
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < elements; i++) {
+                stringList.add(secondString);
+                stringList.remove(0);
+            }
+        });
+
+        // call
+        writer.start();
+        int iterated = 0;
+        for (String element : stringList) {
+            iterated++;
+        }
+        final long streamed = stringList.stream().count();
+        writer.join();
+
+        // assertions
+        assertThat(iterated)
+                .as("Checking that the iteration saw a consistent state")
+                .isBetween(elements, elements + 1);
+        assertThat(streamed)
+                .as("Checking that the stream saw a consistent state")
+                .isBetween((long) elements, elements + 1L);
+        assertThat(stringList)
+                .as("Checking the list after the writer finished")
+                .containsOnly(secondString);
+    }
+
+    @Test
+    public void shouldSplitForParallelStreams() throws Exception {
+
+        // initialization
+        for (int i = 0; i < 1000; i++) {
+            stringList.add("Element " + i);
+        }
+
+        // call
+        final Spliterator<String> spliterator = stringList.spliterator();
+        final Spliterator<String> prefix = spliterator.trySplit();
+        final long total = stringList.parallelStream().mapToInt(String::length).sum();
+
+        // assertions
+        assertThat(prefix.estimateSize())
+                .as("Checking that the spliterator splits in halves")
+                .isEqualTo(500L);
+        assertThat(spliterator.hasCharacteristics(Spliterator.IMMUTABLE | Spliterator.SIZED))
+                .as("Checking the characteristics of the spliterator")
+                .isTrue();
+        assertThat(total)
+                .as("Checking the result of the parallel stream")
+                .isEqualTo(stringList.stream().mapToInt(String::length).sum());
+    }
+
+    @Test
+    public void shouldRunBulkOperationsInParallelOnLargeLists() throws Exception {
+
+        // initialization
+        final int elements = ObservableList.PARALLEL_THRESHOLD * 4;
+        final ObservableList<Integer> integerList = new ObservableList<>("Integer List");
+        for (int i = 0; i < elements; i++) {
+            integerList.add(i);
+        }
+        final List<ListNotification<Integer>> received = newArrayList();
+        integerList.register(received::add);
+
+        // call
+        final boolean removed = integerList.parallelRemoveIf(element -> element % 3 == 0);
+        integerList.parallelReplaceAll(element -> element * 2);
+        final boolean retained = integerList.retainAll(new HashSet<>(integerList.subList(0, 10)));
+
+        // assertions
+        assertThat(removed)
+                .as("Checking return value of the 'removeIf' method")
+                .isTrue();
+        assertThat(retained)
+                .as("Checking return value of the 'retainAll' method")
+                .isTrue();
+        assertThat(received.get(0).getChangedElements())
+                .as("Checking the elements removed by 'removeIf'")
+                .hasSize(elements / 3 + 1)
+                .startsWith(0, 3, 6)
+                .isSorted();
+        assertThat(received.get(1).getChangedElements())
+                .as("Checking the number of elements removed by 'retainAll'")
+                .hasSize(elements - elements / 3 - 1 - 10);
+        assertThat(integerList)
+                .as("Checking the remaining elements")
+                .containsExactly(2, 4, 8, 10, 14, 16, 20, 22, 26, 28);
+    }
+
+    @Test
+    public void shouldLetBulkOperationsReadTheListTheyChange() throws Exception {
+
+        // initialization
+        final int elements = ObservableList.PARALLEL_THRESHOLD + 1000;
+        final ObservableList<Integer> integerList = new ObservableList<>("Integer List");
+        for (int i = 0; i < elements; i++) {
+            integerList.add(i % 2 == 0 ? i : -i);
+        }
+
+        // call
+        final boolean removed = integerList.removeIf(element -> integerList.contains(element + 2));
+        final boolean retained = integerList.retainAll(integerList);
+        final boolean removedInParallel = integerList.parallelRemoveIf(element -> integerList.indexOf(element) > 0);
+        integerList.parallelReplaceAll(element -> element + integerList.size());
+
+        // assertions
+        assertThat(removed)
+                .as("Checking return value of the 'removeIf' method")
+                .isTrue();
+        assertThat(retained)
+                .as("Checking return value of the 'retainAll' method")
+                .isFalse();
+        assertThat(removedInParallel)
+                .as("Checking return value of the 'parallelRemoveIf' method")
+                .isTrue();
+        assertThat(integerList)
+                .as("Checking the remaining elements")
+                .containsExactly(0);
+    }
+
+    @Test
+    public void shouldShareNotificationPayloadsInLowFootprintMode() throws Exception {
+
+        // initialization
+        final ObservableList<String> compactList = new ObservableList<>("Compact List", true);
+        final List<ListNotification<String>> compactReceived = newArrayList();
+        final List<ListNotification<String>> defaultReceived = newArrayList();
+        compactList.register(compactReceived::add);
+        stringList.register(defaultReceived::add);
+        final List<String> toAdd = newArrayList(firstString, secondString, thirdString, fourthString);
+
+        // call
+        compactList.addAll(toAdd);
+        compactList.clear();
+        stringList.addAll(toAdd);
+        stringList.clear();
+
+        // assertions
+        assertThat(compactReceived)
+                .as("Checking that both modes send the same notifications")
+                .isEqualTo(defaultReceived);
+        assertThat(compactReceived.get(1).getChangedElements())
+                .as("Checking that the cleared elements are the previous snapshot")
+                .isSameAs(compactReceived.get(0).getResultingList());
+        assertThatThrownBy(() -> compactReceived.get(0).getChangedElements().add(firstString))
+                .as("Checking that the payload is immutable")
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(NotificationFootprint.estimateRetainedBytes(compactReceived.get(0)))
+                .as("Checking that the added elements share the array of the snapshot")
+                .isLessThan(NotificationFootprint.estimateRetainedBytes(defaultReceived.get(0)));
+    }
+
+    @Test
+    public void shouldPurgeCollectedWeakListeners() throws Exception {
+
+        // initialization
+        final List<String> received = newArrayList();
+        ListListener<String> weakListener = notification -> received.addAll(notification.getChangedElements());
+        stringList.register(firstListener);
+        stringList.registerWeakly(weakListener);
+        stringList.registerSoftly(secondListener);
+
+        // call
+        stringList.add(firstString);
+        weakListener = null;
+        for (int i = 0; i < 50 && stringList.getListenerCount() > 2; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        stringList.add(secondString);
+        stringList.unregister(secondListener);
+
+        // verifications
+        verify(firstListener, times(2)).onListChange(any());
+        verify(secondListener, times(2)).onListChange(any());
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications received before the listener was collected")
+                .containsExactly(firstString);
+        assertThat(stringList.getListenerCount())
+                .as("Checking that the collected and unregistered listeners were removed")
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDispatchListenersByTier() throws Exception {
+
+        // initialization
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(1);
+        stringList.register(notification -> order.add("default"));
+        stringList.register(notification -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add("best effort");
+            delivered.countDown();
+        }, ListenerTier.BEST_EFFORT);
+        stringList.register(notification -> order.add("critical"), ListenerTier.CRITICAL);
+
+        // call
+        stringList.add(firstString);
+        final List<String> orderAfterWrite = newArrayList(order);
+        release.countDown();
+
+        // assertions
+        assertThat(orderAfterWrite)
+                .as("Checking that the writer did not wait for the best-effort tier")
+                .containsExactly("critical", "default");
+        assertThat(delivered.await(5, TimeUnit.SECONDS))
+                .as("Checking that the best-effort listener was notified")
+                .isTrue();
+        assertThat(order)
+                .as("Checking the order of the tiers")
+                .containsExactly("critical", "default", "best effort");
+        assertThat(stringList.getListenerCount())
+                .as("Checking the number of listeners in all tiers")
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void shouldRouteNotificationsToKeyScopedListeners() throws Exception {
+
+        // initialization
+        final Function<String, Character> initial = element -> element.charAt(0);
+        stringList.register(firstListener, initial, newArrayList('F'));
+        stringList.register(secondListener, initial, newArrayList('S', 'T'));
+
+        // call
+        stringList.add(firstString);
+        stringList.addAll(newArrayList(secondString, thirdString));
+        stringList.remove(fourthString);
+        stringList.add(fourthString);
+        stringList.unregister(secondListener);
+        stringList.remove(secondString);
+
+        // verifications
+        verify(firstListener, times(2)).onListChange(any());
+        verify(secondListener).onListChange(ListNotification.newListAddNotification(
+                newArrayList(secondString, thirdString), newArrayList(firstString, secondString, thirdString)));
+        verifyNoMoreInteractions(secondListener);
+
+        // assertions
+        assertThat(stringList.getListenerCount())
+                .as("Checking the number of listeners")
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void shouldElideLockingUntilAnotherThreadTouchesTheList() throws Exception {
+
+        // initialization
+        final ObservableList<String> ownedList = new ObservableList<>("Owned List", LockingMode.ADAPTIVE);
+        ownedList.add(firstString);
+        ownedList.add(secondString);
+        final boolean inflatedBefore = ownedList.isLockInflated();
+        final List<Integer> sizes = new CopyOnWriteArrayList<>();
+
+        // call
+        Thread other = new Thread(() -> {
+            sizes.add(ownedList.size());
+            ownedList.add(thirdString);
+        });
+        other.start();
+        other.join(5000);
+        ownedList.add(fourthString);
+
+        // assertions
+        assertThat(inflatedBefore)
+                .as("Checking that locking was elided on the owner thread")
+                .isFalse();
+        assertThat(ownedList.isLockInflated())
+                .as("Checking that locking was inflated by the other thread")
+                .isTrue();
+        assertThat(sizes)
+                .as("Checking that the other thread saw the changes of the owner")
+                .containsExactly(2);
+        assertThat(ownedList)
+                .as("Checking the elements added by both threads")
+                .containsExactly(firstString, secondString, thirdString, fourthString);
+    }
+
+    @Test
+    public void shouldKeepChangesConsistentWhileInflatingUnderContention() throws Exception {
+
+        // initialization
+        final ObservableList<Integer> ownedList = new ObservableList<>("Owned List", LockingMode.OWNER_THREAD);
+        final CountDownLatch started = new CountDownLatch(1);
+        final Thread other = new Thread(() -> {
+            started.countDown();
+            for (int i = 0; i < 10000; i++) {
+                ownedList.add(i);
+            }
+        });
+
+        // call
+        other.start();
+        started.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 10000; i++) {
+            ownedList.add(i);
+        }
+        other.join(30000);
+
+        // assertions
+        assertThat(ownedList)
+                .as("Checking that no change was lost")
+                .hasSize(20000);
+        assertThat(ownedList.getVersion())
+                .as("Checking the version after all the changes")
+                .isEqualTo(20000);
+        assertThat(ownedList.getLockingMode())
+                .as("Checking the locking mode")
+                .isEqualTo(LockingMode.OWNER_THREAD);
+    }
+
+    @Test
+    public void shouldMaintainTheFingerprintOfTheSnapshots() throws Exception {
+
+        // initialization
+        final List<ListNotification<String>> received = new CopyOnWriteArrayList<>();
+        stringList.register(received::add);
+
+        // call
+        stringList.add(firstString);
+        stringList.addAll(newArrayList(secondString, thirdString, fourthString));
+        stringList.add(1, fourthString);
+        stringList.remove(thirdString);
+        stringList.set(0, thirdString);
+        stringList.removeIf(fourthString::equals);
+        stringList.addAll(0, newArrayList(firstString, firstString));
+        stringList.subList(0, 1).clear();
+        stringList.retainAll(newArrayList(firstString, secondString));
+        stringList.replaceAll(String::toUpperCase);
+        stringList.removeAll(newArrayList(secondString.toUpperCase()));
+        stringList.addAll(newArrayList(firstString.toUpperCase(), thirdString, firstString.toUpperCase()));
+        stringList.removeAll(newArrayList(firstString.toUpperCase()));
+
+        // assertions
+        for (ListNotification<String> notification : received) {
+            ListSnapshot<String> snapshot = (ListSnapshot<String>) notification.getResultingList();
+            assertThat(snapshot.getFingerprint())
+                    .as("Checking the fingerprint of version " + snapshot.getVersion())
+                    .isEqualTo(FingerprintedList.fingerprintOf(new java.util.ArrayList<>(snapshot)));
+        }
+        assertThat(stringList.snapshot().getFingerprint())
+                .as("Checking the fingerprint of the latest snapshot")
+                .isEqualTo(FingerprintedList.fingerprintOf(new java.util.ArrayList<>(stringList)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotShareVersionsWithAClone() throws Exception {
+
+        // initialization
+        stringList.add(firstString);
+        final ListSnapshot<String> original = stringList.snapshot();
+        final ObservableList<String> clone = (ObservableList<String>) stringList.clone();
+
+        // call
+        stringList.set(0, secondString);
+        clone.set(0, thirdString);
+
+        // assertions
+        assertThat(clone.snapshot().isSameVersionAs(stringList.snapshot()))
+                .as("Checking that the snapshots of diverging lists are different versions")
+                .isFalse();
+        assertThat(clone.snapshot())
+                .as("Checking that the snapshots of diverging lists differ")
+                .isNotEqualTo(stringList.snapshot());
+        assertThatThrownBy(() -> clone.snapshot(original.getVersion()))
+                .as("Checking that the clone does not know the versions of the original")
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void shouldCompareNotificationsThroughTheirSnapshots() throws Exception {
+
+        // initialization
+        final List<ListNotification<String>> received = new CopyOnWriteArrayList<>();
+        stringList.register(received::add);
+        stringList.add(firstString);
+        stringList.add(secondString);
+        stringList.remove(secondString);
+        final ListNotification<String> copy = ListNotification.newListAddNotification(
+                0, newArrayList(firstString), newArrayList(firstString));
+
+        // call
+        final ListNotification<String> first = received.get(0);
+        final ListNotification<String> last = received.get(2);
+        final ListNotification<String> sameVersion = ListNotification.newListAddNotification(
+                0, newArrayList(firstString), stringList.snapshot(first.getResultingList() instanceof ListSnapshot
+                        ? ((ListSnapshot<String>) first.getResultingList()).getVersion() : -1));
+
+        // assertions
+        assertThat(first)
+                .as("Checking a notification against one with the same version of the list")
+                .isEqualTo(sameVersion)
+                .isEqualTo(copy)
+                .isNotEqualTo(received.get(1));
+        assertThat(first.hashCode())
+                .as("Checking the hash code of equal notifications")
+                .isEqualTo(copy.hashCode())
+                .isEqualTo(sameVersion.hashCode());
+        assertThat(last.getResultingList())
+                .as("Checking that another version with the same elements is still equal")
+                .isEqualTo(first.getResultingList())
+                .isNotSameAs(first.getResultingList());
+    }
+}
@@ -0,0 +1,57 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.SetNotification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for ObservableSet.
+ */
+public class ObservableSetTest {
+
+    private static final String firstString = "First String";
+    private static final String secondString = "Second String";
+    private static final String thirdString = "Third String";
+
+    private ObservableSet<String> set;
+    private List<SetNotification<String>> received;
+
+
+    @Before
+    public void setUp() throws Exception {
+        set = new ObservableSet<>("First Set");
+        received = new CopyOnWriteArrayList<>();
+        set.register(received::add);
+    }
+
+
+    @Test
+    public void shouldNotifyOnlyActualChanges() throws Exception {
+
+        // call
+        set.addAll(Arrays.asList(firstString, secondString, firstString));
+        set.add(secondString);
+        set.remove(thirdString);
+        set.removeIf(firstString::equals);
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications")
+                .containsExactlyInAnyOrder(
+                        SetNotification.newSetAddNotification(firstString),
+                        SetNotification.newSetAddNotification(secondString),
+                        SetNotification.newSetRemoveNotification(firstString));
+        assertThat(received.get(received.size() - 1))
+                .as("Checking the notification of the removal through the iterator")
+                .isEqualTo(SetNotification.newSetRemoveNotification(firstString));
+        assertThat(set.snapshot())
+                .as("Checking the content of the set")
+                .containsOnly(secondString);
+    }
+}
@@ -0,0 +1,217 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListenerTier;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test class for PooledObservableList.
+ */
+public class PooledObservableListTest {
+
+    private static final String firstString = "First String";
+    private static final String secondString = "Second String";
+    private static final String thirdString = "Third String";
+
+    private PooledObservableList<String> stringList;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new PooledObservableList<>("First List");
+    }
+
+
+    @Test
+    public void shouldReuseNotificationsAndCopyThemOnDemand() throws Exception {
+
+        // initialization
+        List<ListNotification<String>> received = new ArrayList<>();
+        List<ListNotification<String>> copies = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        stringList.register(notification -> {
+            received.add(notification);
+            copies.add(notification.copy());
+            indices.add(notification.getIndex());
+        });
+
+        // call
+        stringList.add(firstString);
+        stringList.addAll(Arrays.asList(secondString, thirdString));
+        stringList.remove(0);
+
+        // assertions
+        assertThat(received.get(0))
+                .as("Checking that the notification was reused")
+                .isSameAs(received.get(2));
+        assertThat(copies)
+                .as("Checking the copies of the notifications")
+                .containsExactly(
+                        ListNotification.newListAddNotification(
+                                Arrays.asList(firstString), Arrays.asList(firstString)),
+                        ListNotification.newListAddNotification(
+                                Arrays.asList(secondString, thirdString),
+                                Arrays.asList(firstString, secondString, thirdString)),
+                        ListNotification.newListRemoveNotification(
+                                Arrays.asList(firstString), Arrays.asList(secondString, thirdString)));
+        assertThat(indices)
+                .as("Checking the indices of the changes")
+                .containsExactly(0, 1, 0);
+        assertThat(received.get(0).getChangedElements())
+                .as("Checking that the delivered notification no longer holds any element")
+                .isEmpty();
+    }
+
+    @Test
+    public void shouldGiveNestedChangesNotificationsOfTheirOwn() throws Exception {
+
+        // initialization
+        List<String> outer = new ArrayList<>();
+        stringList.register(notification -> {
+            if (notification.getChangedElements().contains(firstString)) {
+                stringList.add(secondString);
+                outer.addAll(notification.getChangedElements());
+            }
+        });
+
+        // call
+        stringList.add(firstString);
+
+        // assertions
+        assertThat(outer)
+                .as("Checking the outer notification after the nested change")
+                .containsExactly(firstString);
+        assertThat(stringList)
+                .as("Checking the list")
+                .containsExactly(firstString, secondString);
+    }
+
+    @Test
+    public void shouldCopyNotificationsForBestEffortListenersBeforeNestedChanges() throws Exception {
+
+        // initialization
+        List<ListNotification<String>> received = new CopyOnWriteArrayList<>();
+        stringList.register(received::add, ListenerTier.BEST_EFFORT);
+        stringList.register(notification -> {
+            if (notification.getChangedElements().contains(firstString)) {
+                stringList.add(secondString);
+            }
+        });
+
+        // call
+        stringList.add(firstString);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // assertions
+        assertThat(received)
+                .as("Checking the copies received by the best-effort listener")
+                .containsExactlyInAnyOrder(
+                        ListNotification.newListAddNotification(
+                                Arrays.asList(firstString), Arrays.asList(firstString)),
+                        ListNotification.newListAddNotification(
+                                Arrays.asList(secondString), Arrays.asList(firstString, secondString)));
+    }
+
+    @Test
+    public void shouldKeepTheResultingListOfEachChange() throws Exception {
+
+        // initialization
+        List<List<String>> resultingLists = new ArrayList<>();
+        List<ListNotification<String>> copies = new ArrayList<>();
+        stringList.register(notification -> {
+            if (notification.getChangedElements().contains(firstString)) {
+                // another writer changes the list while the notification is being delivered
+                Thread writer = new Thread(() -> stringList.add(secondString));
+                writer.start();
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            resultingLists.add(notification.getResultingList());
+            copies.add(notification.copy());
+        });
+
+        // call
+        stringList.add(firstString);
+        stringList.add(thirdString);
+
+        // assertions
+        assertThat(copies)
+                .as("Checking the copies of the notifications")
+                .containsExactly(
+                        ListNotification.newListAddNotification(
+                                Arrays.asList(secondString), Arrays.asList(firstString, secondString)),
+                        ListNotification.newListAddNotification(
+                                Arrays.asList(firstString), Arrays.asList(firstString)),
+                        ListNotification.newListAddNotification(
+                                Arrays.asList(thirdString), Arrays.asList(firstString, secondString, thirdString)));
+        assertThat(resultingLists)
+                .as("Checking that the resulting lists were not changed by the later changes")
+                .containsExactly(
+                        Arrays.asList(firstString, secondString),
+                        Arrays.asList(firstString),
+                        Arrays.asList(firstString, secondString, thirdString));
+    }
+
+    @Test
+    public void shouldAllocateLessThanNewNotificationsInSteadyState() throws Exception {
+
+        // initialization
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        PooledObservableList<String> pooledList = new PooledObservableList<>("Pooled List", new GapBufferListStorage<>(64));
+        StorageObservableList<String> storedList = new StorageObservableList<>("Stored List", new GapBufferListStorage<>(64));
+        int[] changed = new int[1];
+        pooledList.register(notification -> changed[0] += notification.getChangedElements().size());
+        storedList.register(notification -> changed[0] += notification.getChangedElements().size());
+        int cycles = 100000;
+        addAndRemove(pooledList, cycles);
+        addAndRemove(storedList, cycles);
+
+        // call
+        long pooled = allocatedPerCycle(allocations, pooledList, cycles);
+        long stored = allocatedPerCycle(allocations, storedList, cycles);
+
+        // assertions
+        assertThat(pooled)
+                .as("Checking the bytes allocated per add and remove, against new notifications")
+                .isLessThan(stored);
+        assertThat(changed[0])
+                .as("Checking that every change was notified")
+                .isEqualTo(8 * cycles);
+    }
+
+
+    private static long allocatedPerCycle(com.sun.management.ThreadMXBean allocations, List<String> list, int cycles) {
+        long threadId = Thread.currentThread().getId();
+        long overhead = -allocations.getThreadAllocatedBytes(threadId) + allocations.getThreadAllocatedBytes(threadId);
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        addAndRemove(list, cycles);
+        return (allocations.getThreadAllocatedBytes(threadId) - before - overhead) / cycles;
+    }
+
+    private static void addAndRemove(List<String> list, int cycles) {
+        for (int i = 0; i < cycles; i++) {
+            list.add(firstString);
+            list.remove(0);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for RingBufferDispatcher.
+ */
+public class RingBufferDispatcherTest {
+
+    private ObservableList<String> stringList;
+    private RingBufferDispatcher<String> dispatcher;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new ObservableList<>("First List");
+        dispatcher = new RingBufferDispatcher<>("Dispatcher", 4);
+        stringList.register(dispatcher);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        dispatcher.close();
+    }
+
+
+    @Test
+    public void shouldDeliverAllNotificationsInOrderToEveryConsumer() throws Exception {
+
+        // initialization
+        final int elements = 200;
+        final List<String> firstReceived = new ArrayList<>();
+        final List<String> secondReceived = new ArrayList<>();
+        final List<Boolean> endsOfBatch = new ArrayList<>();
+        dispatcher.register((notification, endOfBatch) -> {
+            firstReceived.addAll(notification.getChangedElements());
+            endsOfBatch.add(endOfBatch);
+        });
+        dispatcher.register(notification ->
+                secondReceived.addAll(notification.getChangedElements()));
+
+        // call
+        for (int i = 0; i < elements; i++) {
+            stringList.add("Element " + i);
+        }
+        dispatcher.close();
+
+        // assertions
+        assertThat(firstReceived)
+                .as("Checking the notifications received by the batch consumer")
+                .isEqualTo(stringList);
+        assertThat(secondReceived)
+                .as("Checking the notifications received by the plain consumer")
+                .isEqualTo(stringList);
+        assertThat(endsOfBatch.get(endsOfBatch.size() - 1))
+                .as("Making sure the last notification closes a batch")
+                .isTrue();
+    }
+
+    @Test
+    public void shouldStopDeliveringAfterUnregistering() throws Exception {
+
+        // initialization
+        final List<String> received = new ArrayList<>();
+        final RingBufferDispatcherTestListener listener = new RingBufferDispatcherTestListener(received);
+        dispatcher.register(listener);
+        stringList.add("First String");
+        dispatcher.unregister(listener);
+
+        // call
+        stringList.add("Second String");
+        dispatcher.close();
+
+        // assertions
+        assertThat(received)
+                .as("Making sure nothing is delivered after unregistering")
+                .doesNotContain("Second String");
+    }
+
+    @Test
+    public void shouldDropNotificationsAfterClosing() throws Exception {
+
+        // initialization
+        dispatcher.close();
+
+        // call
+        stringList.add("First String");
+
+        // assertions
+        assertThatThrownBy(() -> dispatcher.register(notification -> { }))
+                .as("Making sure no listener can be registered after closing")
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldNotRetainPublishedNotifications() throws Exception {
+
+        // initialization
+        final List<ListNotification<String>> copies = new ArrayList<>();
+        final CountDownLatch delivered = new CountDownLatch(1);
+        dispatcher.register(notification -> {
+            copies.add(notification.copy());
+            delivered.countDown();
+        });
+        ListNotification<String> published = ListNotification.newListAddNotification(
+                0, Collections.singletonList("First String"), Collections.singletonList("First String"));
+        WeakReference<ListNotification<String>> reference = new WeakReference<>(published);
+
+        // call
+        dispatcher.onListChange(published);
+        published = null;
+        assertThat(delivered.await(10, TimeUnit.SECONDS))
+                .as("Making sure the notification was delivered")
+                .isTrue();
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // assertions
+        assertThat(reference.get())
+                .as("Making sure the ring copied the notification instead of keeping it")
+                .isNull();
+        assertThat(copies)
+                .as("Checking the copy of the delivered notification")
+                .containsExactly(ListNotification.newListAddNotification(
+                        0, Arrays.asList("First String"), Arrays.asList("First String")));
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldKeepDeliveringAfterAnError() throws Exception {
+
+        // initialization
+        final List<String> received = new ArrayList<>();
+        final List<Throwable> reported = new CopyOnWriteArrayList<>();
+        Thread.UncaughtExceptionHandler defaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, error) -> reported.add(error));
+        try {
+            dispatcher.register(notification -> {
+                if (notification.getChangedElements().contains("Element 0")) {
+                    throw new AssertionError("Listener failure");
+                }
+                received.addAll(notification.getChangedElements());
+            });
+
+            // call
+            for (int i = 0; i < 20; i++) {
+                stringList.add("Element " + i);
+            }
+            dispatcher.close();
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+        }
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications received after the error")
+                .isEqualTo(stringList.subList(1, stringList.size()));
+        assertThat(reported)
+                .as("Checking the reported error")
+                .extracting(Throwable::getMessage)
+                .containsExactly("Listener failure");
+    }
+
+    @Test
+    public void shouldCopyNotificationsReusedByTheirList() throws Exception {
+
+        // initialization
+        final int elements = 1000;
+        final PooledObservableList<String> pooledList = new PooledObservableList<>("Pooled List");
+        final List<ListNotification<String>> received = new ArrayList<>();
+        final List<ListNotification<String>> expected = new ArrayList<>();
+        pooledList.register(dispatcher);
+        dispatcher.register(notification -> received.add(notification.copy()));
+
+        // call
+        for (int i = 0; i < elements; i++) {
+            pooledList.add("Element " + i);
+            expected.add(ListNotification.newListAddNotification(
+                    i, Collections.singletonList("Element " + i), new ArrayList<>(pooledList)));
+        }
+        dispatcher.close();
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications of the pooled list")
+                .isEqualTo(expected);
+    }
+
+    private static class RingBufferDispatcherTestListener implements ListListener<String> {
+
+        private final List<String> received;
+
+        private RingBufferDispatcherTestListener(List<String> received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onListChange(ListNotification<String> notification) {
+            received.addAll(notification.getChangedElements());
+        }
+    }
+}
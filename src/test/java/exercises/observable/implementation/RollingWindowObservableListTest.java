@@ -0,0 +1,96 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListNotificationType;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for RollingWindowObservableList.
+ */
+public class RollingWindowObservableListTest {
+
+    @Test
+    public void shouldEvictBySizeWithOneRemovalPerAppend() throws Exception {
+
+        // initialization
+        RollingWindowObservableList<Integer> list = new RollingWindowObservableList<>("Window", 3000);
+        List<ListNotification<Integer>> received = new CopyOnWriteArrayList<>();
+        list.register(received::add);
+        List<Integer> batch = IntStream.range(0, 2000).boxed().collect(Collectors.toList());
+
+        // call
+        list.addAll(batch);
+        List<Integer> snapshot = list.snapshot();
+        list.addAll(batch);
+        for (int i = 0; i < 5000; i++) {
+            list.add(10000 + i);
+        }
+
+        // assertions
+        assertThat(received.subList(0, 3))
+                .as("Checking the notifications of the batches")
+                .extracting(ListNotification::getType, ListNotification::getIndex)
+                .containsExactly(
+                        tuple(ListNotificationType.ADD, 0),
+                        tuple(ListNotificationType.ADD, 2000),
+                        tuple(ListNotificationType.REMOVE, 0));
+        assertThat(received.get(2).getChangedElements())
+                .as("Checking the elements evicted by the second batch")
+                .containsExactlyElementsOf(batch.subList(0, 1000));
+        assertThat(received.get(2).getResultingList())
+                .as("Checking the window after the second batch")
+                .hasSize(3000)
+                .startsWith(1000, 1001);
+        assertThat(snapshot)
+                .as("Checking the snapshot taken after the first batch")
+                .containsExactlyElementsOf(batch);
+        assertThat(list)
+                .as("Checking the content of the list")
+                .containsExactlyElementsOf(IntStream.range(12000, 15000).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldEvictByAge() throws Exception {
+
+        // initialization
+        AtomicLong clock = new AtomicLong();
+        RollingWindowObservableList<String> list =
+                new RollingWindowObservableList<>("Window", Integer.MAX_VALUE, 100, clock::get);
+        List<ListNotification<String>> received = new CopyOnWriteArrayList<>();
+        list.register(received::add);
+
+        // call
+        list.add("first");
+        clock.set(50);
+        list.addAll(Arrays.asList("second", "third"));
+        clock.set(120);
+        list.add("fourth");
+        clock.set(200);
+        int evicted = list.evictExpired();
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications")
+                .extracting(ListNotification::getType, ListNotification::getChangedElements)
+                .containsExactly(
+                        tuple(ListNotificationType.ADD, Collections.singletonList("first")),
+                        tuple(ListNotificationType.ADD, Arrays.asList("second", "third")),
+                        tuple(ListNotificationType.ADD, Collections.singletonList("fourth")),
+                        tuple(ListNotificationType.REMOVE, Collections.singletonList("first")),
+                        tuple(ListNotificationType.REMOVE, Arrays.asList("second", "third")));
+        assertThat(evicted)
+                .as("Checking the number of elements evicted without append")
+                .isEqualTo(2);
+        assertThat(list)
+                .as("Checking the content of the list")
+                .containsExactly("fourth");
+    }
+}
@@ -0,0 +1,162 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListListener;
+import exercises.observable.model.ListNotification;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.assertj.core.util.Lists.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for SegmentedObservableList.
+ */
+public class SegmentedObservableListTest {
+
+    @Rule
+    public MockitoRule mockito = MockitoJUnit.rule();
+
+    @Mock
+    private ListListener<String> firstListener;
+
+    private static final String firstString = "First String";
+    private static final String secondString = "Second String";
+
+    private SegmentedObservableList<String> stringList;
+
+
+    @Before
+    public void setUp() throws Exception {
+        stringList = new SegmentedObservableList<>("Segmented List", 4);
+    }
+
+
+    @Test
+    public void shouldAddElementToCurrentSegmentAndSendNotification() throws Exception {
+
+        // initialization
+        final ObservableList<String> segment = stringList.currentSegment();
+        final ListNotification<String> expectedNotification =
+                ListNotification.newListAddNotification(newArrayList(firstString), newArrayList(firstString));
+        stringList.register(firstListener);
+
+        // call
+        boolean result = stringList.add(firstString);
+
+        // verifications
+        verify(firstListener).onListChange(expectedNotification);
+
+        // assertions
+        assertThat(result)
+                .as("Checking return value of the 'add' method")
+                .isTrue();
+        assertThat(segment)
+                .as("Making sure the element was added to the segment of the current thread")
+                .containsOnly(firstString);
+        assertThat(stringList)
+                .as("Making sure the merged view contains the added element")
+                .containsOnly(firstString);
+    }
+
+    @Test
+    public void shouldNotifySegmentListenersOfTheirSegmentOnly() throws Exception {
+
+        // initialization
+        final List<ListNotification<String>> received = new ArrayList<>();
+        final List<ListNotification<String>> receivedBySegment = new ArrayList<>();
+        stringList.register(received::add);
+        stringList.register(2, receivedBySegment::add);
+
+        // call
+        stringList.getSegment(1).add(firstString);
+        stringList.getSegment(2).add(secondString);
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications of every segment")
+                .extracting(ListNotification::getChangedElements)
+                .containsExactly(newArrayList(firstString), newArrayList(secondString));
+        assertThat(received)
+                .as("Checking the segments of the notifications")
+                .extracting(notification -> ((SegmentListNotification<String>) notification).getSegment())
+                .containsExactly(1, 2);
+        assertThat(received.get(1).getResultingList())
+                .as("Checking that the resulting list is the segment of the change")
+                .containsExactly(secondString);
+        assertThat(receivedBySegment)
+                .as("Checking the notifications of the third segment")
+                .extracting(ListNotification::getChangedElements)
+                .containsExactly(newArrayList(secondString));
+    }
+
+    @Test
+    public void shouldMergeSegmentsInOrder() throws Exception {
+
+        // initialization
+        stringList.getSegment(3).add(secondString);
+        stringList.getSegment(0).add(firstString);
+
+        // assertions
+        assertThat(stringList.getSegmentCount())
+                .as("Checking the number of segments")
+                .isEqualTo(4);
+        assertThat(stringList)
+                .as("Checking the merged view")
+                .containsExactly(firstString, secondString);
+        assertThat(stringList.get(1))
+                .as("Checking access by index across segments")
+                .isEqualTo(secondString);
+    }
+
+    @Test
+    public void shouldKeepAllElementsAddedByConcurrentWriters() throws Exception {
+
+        // initialization
+        final int threads = 8;
+        final int elementsPerThread = 1000;
+        final AtomicInteger notifications = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> writers = new ArrayList<>();
+        stringList.register(notification -> notifications.incrementAndGet());
+        for (int i = 0; i < threads; i++) {
+            final int writer = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < elementsPerThread; j++) {
+                    stringList.add(writer + "-" + j);
+                }
+            });
+            thread.start();
+            writers.add(thread);
+        }
+
+        // call
+        start.countDown();
+        for (Thread thread : writers) {
+            thread.join();
+        }
+
+        // assertions
+        assertThat(stringList)
+                .as("Checking the size of the list")
+                .hasSize(threads * elementsPerThread);
+        assertThat(notifications.get())
+                .as("Checking that every addition was notified")
+                .isEqualTo(threads * elementsPerThread);
+    }
+}
@@ -0,0 +1,135 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for SortedObservableList.
+ */
+public class SortedObservableListTest {
+
+    private SortedObservableList<Integer> list;
+    private List<ListNotification<Integer>> received;
+
+
+    @Before
+    public void setUp() throws Exception {
+        list = new SortedObservableList<>("Sorted List");
+        received = new CopyOnWriteArrayList<>();
+        list.register(received::add);
+    }
+
+
+    @Test
+    public void shouldNotifyExactIndicesOfInsertionsAndRemovals() throws Exception {
+
+        // call
+        list.add(30);
+        list.add(10);
+        list.add(20);
+        list.add(20);
+        list.remove((Integer) 10);
+
+        // assertions
+        assertThat(received)
+                .as("Checking the notifications")
+                .extracting(ListNotification::getIndex)
+                .containsExactly(0, 0, 1, 2, 0);
+        assertThat(received.get(3).getResultingList())
+                .as("Checking the resulting list of the last insertion")
+                .containsExactly(10, 20, 20, 30);
+        assertThat(list)
+                .as("Checking the content of the list")
+                .containsExactly(20, 20, 30);
+        assertThat(list.indexOf(30))
+                .as("Checking the index of an element")
+                .isEqualTo(2);
+        assertThat(list.indexOf(25))
+                .as("Checking the index of a missing element")
+                .isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldStaySortedThroughManyRandomChanges() throws Exception {
+
+        // initialization
+        Random random = new Random(41);
+        List<Integer> expected = new ArrayList<>();
+        received.clear();
+
+        // call
+        for (int i = 0; i < 20000; i++) {
+            Integer value = random.nextInt(5000);
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                list.add(value);
+                int index = upperBound(expected, value);
+                expected.add(index, value);
+                assertThat(received.get(received.size() - 1).getIndex())
+                        .as("Checking the index of an insertion")
+                        .isEqualTo(index);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertThat(list.remove(index))
+                        .as("Checking the removed element")
+                        .isEqualTo(expected.remove(index));
+            }
+        }
+
+        // assertions
+        assertThat(list)
+                .as("Checking the content of the list")
+                .containsExactlyElementsOf(expected);
+        assertThat(list.subRange(1000, 2000))
+                .as("Checking a range query")
+                .containsExactlyElementsOf(expected.subList(upperBound(expected, 999), upperBound(expected, 1999)));
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertThat(list.get(i))
+                    .as("Checking the element at index " + i)
+                    .isEqualTo(expected.get(i));
+        }
+    }
+
+    @Test
+    public void shouldKeepSnapshotsOfPreviousVersions() throws Exception {
+
+        // initialization
+        list.addAll(Arrays.asList(5, 3, 1, 4, 2));
+        List<Integer> snapshot = list.snapshot();
+
+        // call
+        list.add(6);
+        list.removeIf(value -> value % 2 == 0);
+
+        // assertions
+        assertThat(snapshot)
+                .as("Checking the snapshot taken before the changes")
+                .containsExactly(1, 2, 3, 4, 5);
+        assertThat(list)
+                .as("Checking the content of the list")
+                .containsExactly(1, 3, 5);
+        assertThatThrownBy(() -> list.add(0, 7))
+                .as("Checking that positional insertions are rejected")
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+
+    private static int upperBound(List<Integer> sorted, int value) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted.get(middle) <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
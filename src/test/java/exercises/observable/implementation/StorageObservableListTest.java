@@ -0,0 +1,194 @@
+package exercises.observable.implementation;
+
+import exercises.observable.model.ListNotification;
+import exercises.observable.model.ListStorage;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Test class for StorageObservableList and the storages.
+ */
+public class StorageObservableListTest {
+
+    private static final List<Supplier<ListStorage<Integer>>> storages = Arrays.asList(
+            ArrayListStorage::new,
+            () -> new ChunkedListStorage<>(8),
+            () -> new GapBufferListStorage<>(8),
+            CopyOnWriteListStorage::new);
+
+
+    @Test
+    public void shouldBehaveLikeAnArrayListWithEveryStorage() throws Exception {
+
+        for (Supplier<ListStorage<Integer>> storage : storages) {
+
+            // initialization
+            StorageObservableList<Integer> list = new StorageObservableList<>("Stored List", storage.get());
+            Random random = new Random(43);
+            List<Integer> expected = new ArrayList<>();
+
+            // call
+            for (int i = 0; i < 5000; i++) {
+                int operation = random.nextInt(10);
+                if (operation < 5 || expected.isEmpty()) {
+                    int index = random.nextInt(expected.size() + 1);
+                    list.add(index, i);
+                    expected.add(index, i);
+                } else if (operation < 7) {
+                    List<Integer> added = Arrays.asList(i, -i, i * 2, i * 3, i * 5, i * 7, i * 11, i * 13, i * 17, i * 19);
+                    int index = random.nextInt(expected.size() + 1);
+                    list.addAll(index, added);
+                    expected.addAll(index, added);
+                } else if (operation < 9) {
+                    int index = random.nextInt(expected.size());
+                    assertThat(list.remove(index))
+                            .as("Checking the removed element")
+                            .isEqualTo(expected.remove(index));
+                } else {
+                    int from = random.nextInt(expected.size());
+                    int to = Math.min(expected.size(), from + random.nextInt(30));
+                    list.subList(from, to).clear();
+                    expected.subList(from, to).clear();
+                }
+            }
+            list.removeIf(element -> element % 3 == 0);
+            expected.removeIf(element -> element % 3 == 0);
+
+            // assertions
+            assertThat(list)
+                    .as("Checking the content of the list with " + storage.get().getClass().getSimpleName())
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void shouldNotifySnapshotsUnaffectedByLaterChanges() throws Exception {
+
+        for (Supplier<ListStorage<Integer>> storage : storages) {
+
+            // initialization
+            StorageObservableList<Integer> list = new StorageObservableList<>("Stored List", storage.get());
+            List<ListNotification<Integer>> received = new CopyOnWriteArrayList<>();
+            list.register(received::add);
+
+            // call
+            list.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+            list.add(9);
+            list.set(0, 10);
+            list.add(4, 11);
+            list.remove(1);
+
+            // assertions
+            assertThat(received)
+                    .as("Checking the indices of the notifications")
+                    .extracting(ListNotification::getIndex)
+                    .containsExactly(0, 8, 4, 1);
+            assertThat(received.get(1).getResultingList())
+                    .as("Checking the snapshot of the append")
+                    .containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+            assertThat(received.get(2).getResultingList())
+                    .as("Checking the snapshot of the insertion")
+                    .containsExactly(10, 2, 3, 4, 11, 5, 6, 7, 8, 9);
+            assertThat(list)
+                    .as("Checking the content of the list")
+                    .containsExactly(10, 3, 4, 11, 5, 6, 7, 8, 9);
+        }
+    }
+
+    @Test
+    public void shouldNotifySnapshotsUnaffectedByLaterEdits() throws Exception {
+
+        for (Supplier<ListStorage<Integer>> storage : storages) {
+
+            // initialization
+            StorageObservableList<Integer> list = new StorageObservableList<>("Stored List", storage.get());
+            List<ListNotification<Integer>> received = new ArrayList<>();
+            list.register(received::add);
+            Random random = new Random(43);
+            List<Integer> expected = new ArrayList<>();
+            List<List<Integer>> states = new ArrayList<>();
+            int cursor = 0;
+
+            // call
+            for (int i = 0; i < 1000; i++) {
+                cursor = Math.max(0, Math.min(expected.size(), cursor + random.nextInt(41) - 20));
+                int operation = random.nextInt(10);
+                if (operation < 6 || expected.isEmpty()) {
+                    list.add(cursor, i);
+                    expected.add(cursor, i);
+                } else if (operation < 7) {
+                    List<Integer> added = Collections.nCopies(random.nextInt(60), i);
+                    list.addAll(cursor, added);
+                    expected.addAll(cursor, added);
+                } else if (operation < 9) {
+                    int index = Math.min(cursor, expected.size() - 1);
+                    list.remove(index);
+                    expected.remove(index);
+                } else {
+                    int to = Math.min(expected.size(), cursor + random.nextInt(40));
+                    list.subList(cursor, to).clear();
+                    expected.subList(cursor, to).clear();
+                }
+                if (received.size() > states.size()) {
+                    states.add(new ArrayList<>(expected));
+                }
+            }
+            list.removeIf(element -> element % 7 == 0);
+            expected.removeIf(element -> element % 7 == 0);
+            states.add(new ArrayList<>(expected));
+
+            // assertions
+            String storageName = storage.get().getClass().getSimpleName();
+            assertThat(received)
+                    .as("Checking the number of notifications with " + storageName)
+                    .hasSameSizeAs(states);
+            for (int i = 0; i < states.size(); i++) {
+                assertThat(received.get(i).getResultingList())
+                        .as("Checking the resulting list of notification " + i + " with " + storageName)
+                        .isEqualTo(states.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void shouldEditAroundAMovingCursorInAGapBuffer() throws Exception {
+
+        // initialization
+        StorageObservableList<String> list = new StorageObservableList<>("Gap List", new GapBufferListStorage<>());
+        List<ListNotification<String>> last = new ArrayList<>(Collections.singletonList(null));
+        list.register(notification -> last.set(0, notification));
+        Random random = new Random(42);
+        List<String> expected = new ArrayList<>();
+        int cursor = 0;
+
+        // call
+        for (int i = 0; i < 50000; i++) {
+            cursor = Math.max(0, Math.min(expected.size(), cursor + random.nextInt(7) - 3));
+            if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                String element = Integer.toString(i);
+                list.add(cursor, element);
+                expected.add(cursor, element);
+            } else {
+                int index = Math.min(cursor, expected.size() - 1);
+                assertThat(list.remove(index))
+                        .as("Checking the removed element")
+                        .isEqualTo(expected.remove(index));
+            }
+        }
+        list.subList(10, 100).clear();
+        expected.subList(10, 100).clear();
+
+        // assertions
+        assertThat(list)
+                .as("Checking the content of the list")
+                .containsExactlyElementsOf(expected);
+        assertThat(last.get(0).getChangedElements())
+                .as("Checking the elements removed by the range removal")
+                .hasSize(90);
+    }
+}